@@ -0,0 +1,27 @@
+package com.proyecto.backend.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class BusquedaConfig {
+
+    /**
+     * Executor acotado para consultar en paralelo las fuentes de GET /api/search.
+     * Si la cola se llena, la fuente se rechaza y se devuelve como no disponible
+     * en vez de bloquear el hilo de la petición.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor busquedaExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("busqueda-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+}
@@ -0,0 +1,28 @@
+package com.proyecto.backend.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ImagenConfig {
+
+    /**
+     * Executor acotado para generar miniaturas fuera del hilo de la petición.
+     * Si la cola se llena, la tarea se rechaza: MiniaturaService la deja pendiente y la
+     * reintenta más tarde, sin ocupar el hilo de la petición que subió la imagen.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor imagenExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("miniaturas-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
@@ -0,0 +1,24 @@
+package com.proyecto.backend.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class RankingConfig {
+
+    /**
+     * Un solo hilo para reconstruir el ranking fuera de las peticiones.
+     * RankingService agrupa las invalidaciones: como mucho hay una reconstrucción
+     * en curso y otra en cola.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor rankingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("ranking-");
+        return executor;
+    }
+}
@@ -4,6 +4,7 @@ import com.proyecto.backend.filter.JwtAuthenticationFilter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -70,6 +71,9 @@ public class SecurityConfig {
                 .requestMatchers("/api/auth/login").permitAll()
                 .requestMatchers("/h2-console/**").permitAll()
 
+                // Imágenes de productos - públicas para poder usarlas en <img src>
+                .requestMatchers(HttpMethod.GET, "/api/productos/*/imagen").permitAll()
+
                 // Endpoints de auditoría solo para ADMIN
                 .requestMatchers("/api/auditoria/**").hasRole("ADMIN")
 
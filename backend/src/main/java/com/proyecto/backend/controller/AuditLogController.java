@@ -1,5 +1,6 @@
 package com.proyecto.backend.controller;
 
+import com.proyecto.backend.dto.CursorPage;
 import com.proyecto.backend.model.AuditLog;
 import com.proyecto.backend.service.AuditLogService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,7 +9,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/auditoria")
@@ -21,8 +21,11 @@ public class AuditLogController {
      * GET /api/auditoria/entidad/{entidad}/{entidadId} - Obtiene historial de auditoría de una entidad
      */
     @GetMapping("/entidad/{entidad}/{entidadId}")
-    public ResponseEntity<List<AuditLog>> obtenerHistorialEntidad(@PathVariable String entidad, @PathVariable Long entidadId) {
-        List<AuditLog> historiales = auditLogService.obtenerHistorialEntidad(entidad, entidadId);
+    public ResponseEntity<CursorPage<AuditLog>> obtenerHistorialEntidad(
+            @PathVariable String entidad, @PathVariable Long entidadId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<AuditLog> historiales = auditLogService.obtenerHistorialEntidad(entidad, entidadId, after, limit);
         return ResponseEntity.ok(historiales);
     }
 
@@ -30,8 +33,11 @@ public class AuditLogController {
      * GET /api/auditoria/usuario/{usuarioId} - Obtiene historial de auditoría de un usuario
      */
     @GetMapping("/usuario/{usuarioId}")
-    public ResponseEntity<List<AuditLog>> obtenerHistorialUsuario(@PathVariable Long usuarioId) {
-        List<AuditLog> historiales = auditLogService.obtenerHistorialUsuario(usuarioId);
+    public ResponseEntity<CursorPage<AuditLog>> obtenerHistorialUsuario(
+            @PathVariable Long usuarioId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<AuditLog> historiales = auditLogService.obtenerHistorialUsuario(usuarioId, after, limit);
         return ResponseEntity.ok(historiales);
     }
 
@@ -39,8 +45,11 @@ public class AuditLogController {
      * GET /api/auditoria/tipo/{tipo} - Obtiene auditorías por tipo de entidad
      */
     @GetMapping("/tipo/{tipo}")
-    public ResponseEntity<List<AuditLog>> obtenerPorEntidad(@PathVariable String tipo) {
-        List<AuditLog> auditorias = auditLogService.obtenerPorEntidad(tipo);
+    public ResponseEntity<CursorPage<AuditLog>> obtenerPorEntidad(
+            @PathVariable String tipo,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<AuditLog> auditorias = auditLogService.obtenerPorEntidad(tipo, after, limit);
         return ResponseEntity.ok(auditorias);
     }
 
@@ -52,10 +61,12 @@ public class AuditLogController {
      * - fin: LocalDateTime (ej: 2024-12-31T23:59:59)
      */
     @GetMapping("/rango")
-    public ResponseEntity<List<AuditLog>> obtenerPorRangoFechas(
+    public ResponseEntity<CursorPage<AuditLog>> obtenerPorRangoFechas(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fin) {
-        List<AuditLog> auditorias = auditLogService.obtenerPorRangoFechas(inicio, fin);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fin,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<AuditLog> auditorias = auditLogService.obtenerPorRangoFechas(inicio, fin, after, limit);
         return ResponseEntity.ok(auditorias);
     }
 }
@@ -5,6 +5,7 @@ import com.proyecto.backend.dto.LoginResponse;
 import com.proyecto.backend.dto.UsuarioCreateDTO;
 import com.proyecto.backend.dto.UsuarioDTO;
 import com.proyecto.backend.exception.BusinessLogicException;
+import com.proyecto.backend.security.UsuarioPrincipal;
 import com.proyecto.backend.service.UsuarioService;
 import com.proyecto.backend.util.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +15,7 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
@@ -52,12 +54,12 @@ public class AuthController {
             // El authentication.getName() devuelve el username real (no el email)
             String authenticatedUsername = authentication.getName();
 
-            // Generar token JWT con el username real
-            String token = jwtUtil.generateToken(authenticatedUsername);
-
             // Obtener detalles del usuario usando el username autenticado
             UsuarioDTO usuario = usuarioService.obtenerPorUsername(authenticatedUsername);
 
+            // Generar token JWT con el username real, su ID y su rol
+            String token = jwtUtil.generateToken(usuario.getId(), usuario.getUsername(), usuario.getRole());
+
             // Retornar respuesta con token
             LoginResponse response = new LoginResponse(
                     token,
@@ -110,21 +112,16 @@ public class AuthController {
     /**
      * GET /api/auth/me - Obtiene los detalles del usuario autenticado
      * Requiere el header: Authorization: Bearer {token}
+     * El usuario sale del token (JwtAuthenticationFilter); solo se consulta por ID para devolver sus datos
      *
      * @return Detalles del usuario
      */
     @GetMapping("/me")
-    public ResponseEntity<UsuarioDTO> getCurrentUser(@RequestHeader("Authorization") String authHeader) {
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            String username = jwtUtil.getUsernameFromToken(token);
-
-            if (username != null) {
-                UsuarioDTO usuario = usuarioService.obtenerPorUsername(username);
-                return ResponseEntity.ok(usuario);
-            }
+    public ResponseEntity<UsuarioDTO> getCurrentUser(@AuthenticationPrincipal UsuarioPrincipal principal) {
+        if (principal == null) {
+            throw new BusinessLogicException("Token inválido o expirado");
         }
-        throw new BusinessLogicException("Token inválido o expirado");
+        return ResponseEntity.ok(usuarioService.obtenerPorId(principal.id()));
     }
 }
 
@@ -0,0 +1,26 @@
+package com.proyecto.backend.controller;
+
+import com.proyecto.backend.dto.BusquedaGlobalDTO;
+import com.proyecto.backend.service.BusquedaGlobalService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/search")
+public class BusquedaController {
+
+    @Autowired
+    private BusquedaGlobalService busquedaGlobalService;
+
+    /**
+     * GET /api/search?q=&limit=20 - Busca a la vez en incidencias, soluciones, productos y usuarios,
+     * con los resultados mezclados por relevancia
+     */
+    @GetMapping
+    public ResponseEntity<BusquedaGlobalDTO> buscar(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(busquedaGlobalService.buscar(q, limit));
+    }
+}
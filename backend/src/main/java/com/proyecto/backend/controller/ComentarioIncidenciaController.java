@@ -2,6 +2,7 @@ package com.proyecto.backend.controller;
 
 import com.proyecto.backend.dto.ComentarioIncidenciaDTO;
 import com.proyecto.backend.dto.ComentarioIncidenciaCreateDTO;
+import com.proyecto.backend.dto.CursorPage;
 import com.proyecto.backend.service.ComentarioIncidenciaService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -9,7 +10,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
-import java.util.List;
 
 /**
  * Controlador para gestionar comentarios en incidencias
@@ -23,11 +23,13 @@ public class ComentarioIncidenciaController {
     private ComentarioIncidenciaService comentarioService;
 
     /**
-     * GET /api/comentarios-incidencias - Obtiene todos los comentarios
+     * GET /api/comentarios-incidencias?after=&limit=20 - Obtiene una página de comentarios
      */
     @GetMapping
-    public ResponseEntity<List<ComentarioIncidenciaDTO>> obtenerTodos() {
-        List<ComentarioIncidenciaDTO> comentarios = comentarioService.obtenerTodos();
+    public ResponseEntity<CursorPage<ComentarioIncidenciaDTO>> obtenerTodos(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<ComentarioIncidenciaDTO> comentarios = comentarioService.obtenerTodos(after, limit);
         return ResponseEntity.ok(comentarios);
     }
 
@@ -44,8 +46,11 @@ public class ComentarioIncidenciaController {
      * GET /api/comentarios-incidencias/incidencia/{incidenciaId} - Obtiene comentarios de una incidencia
      */
     @GetMapping("/incidencia/{incidenciaId}")
-    public ResponseEntity<List<ComentarioIncidenciaDTO>> obtenerPorIncidencia(@PathVariable Long incidenciaId) {
-        List<ComentarioIncidenciaDTO> comentarios = comentarioService.obtenerPorIncidencia(incidenciaId);
+    public ResponseEntity<CursorPage<ComentarioIncidenciaDTO>> obtenerPorIncidencia(
+            @PathVariable Long incidenciaId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<ComentarioIncidenciaDTO> comentarios = comentarioService.obtenerPorIncidencia(incidenciaId, after, limit);
         return ResponseEntity.ok(comentarios);
     }
 
@@ -53,8 +58,11 @@ public class ComentarioIncidenciaController {
      * GET /api/comentarios-incidencias/usuario/{usuarioId} - Obtiene comentarios de un usuario
      */
     @GetMapping("/usuario/{usuarioId}")
-    public ResponseEntity<List<ComentarioIncidenciaDTO>> obtenerPorUsuario(@PathVariable Long usuarioId) {
-        List<ComentarioIncidenciaDTO> comentarios = comentarioService.obtenerPorUsuario(usuarioId);
+    public ResponseEntity<CursorPage<ComentarioIncidenciaDTO>> obtenerPorUsuario(
+            @PathVariable Long usuarioId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<ComentarioIncidenciaDTO> comentarios = comentarioService.obtenerPorUsuario(usuarioId, after, limit);
         return ResponseEntity.ok(comentarios);
     }
 
@@ -62,8 +70,11 @@ public class ComentarioIncidenciaController {
      * GET /api/comentarios-incidencias/incidencia/{incidenciaId}/soluciones - Obtiene soluciones de una incidencia
      */
     @GetMapping("/incidencia/{incidenciaId}/soluciones")
-    public ResponseEntity<List<ComentarioIncidenciaDTO>> obtenerSolucionesIncidencia(@PathVariable Long incidenciaId) {
-        List<ComentarioIncidenciaDTO> soluciones = comentarioService.obtenerSolucionesIncidencia(incidenciaId);
+    public ResponseEntity<CursorPage<ComentarioIncidenciaDTO>> obtenerSolucionesIncidencia(
+            @PathVariable Long incidenciaId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<ComentarioIncidenciaDTO> soluciones = comentarioService.obtenerSolucionesIncidencia(incidenciaId, after, limit);
         return ResponseEntity.ok(soluciones);
     }
 
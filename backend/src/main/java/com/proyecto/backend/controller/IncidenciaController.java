@@ -1,9 +1,15 @@
 package com.proyecto.backend.controller;
 
+import com.proyecto.backend.dto.CursorPage;
+import com.proyecto.backend.dto.DuplicadosRequest;
+import com.proyecto.backend.dto.IncidenciaBusquedaDTO;
 import com.proyecto.backend.dto.IncidenciaCreateDTO;
 import com.proyecto.backend.dto.IncidenciaDTO;
+import com.proyecto.backend.dto.IncidenciaDuplicadaDTO;
+import com.proyecto.backend.dto.IncidenciaEstadisticasDTO;
 import com.proyecto.backend.dto.IncidenciaUpdateDTO;
-import com.proyecto.backend.model.Incidencia;
+import com.proyecto.backend.service.BusquedaIncidenciasService;
+import com.proyecto.backend.service.DuplicadosIncidenciasService;
 import com.proyecto.backend.service.IncidenciaService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -11,6 +17,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+
 import java.util.List;
 
 @RestController
@@ -20,13 +27,44 @@ public class IncidenciaController {
     @Autowired
     private IncidenciaService incidenciaService;
 
+    @Autowired
+    private BusquedaIncidenciasService busquedaService;
+
+    @Autowired
+    private DuplicadosIncidenciasService duplicadosService;
+
     /**
-     * GET /api/incidencias - Obtiene todas las incidencias
+     * GET /api/incidencias?after=&limit=20 - Obtiene las incidencias paginadas por cursor,
+     * de la más reciente a la más antigua
+     *
+     * Filtros opcionales: estado, categoria, severidad y productoId.
+     * orden=soluciones ordena por número de soluciones, de más a menos.
+     * Para la página siguiente se envía en after el nextCursor de la respuesta.
      */
     @GetMapping
-    public ResponseEntity<List<IncidenciaDTO>> obtenerTodas() {
-        List<IncidenciaDTO> incidencias = incidenciaService.obtenerTodas();
-        return ResponseEntity.ok(incidencias);
+    public ResponseEntity<CursorPage<IncidenciaDTO>> obtenerTodas(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String estado,
+            @RequestParam(required = false) String categoria,
+            @RequestParam(required = false) String severidad,
+            @RequestParam(required = false) Long productoId,
+            @RequestParam(required = false) String orden) {
+        CursorPage<IncidenciaDTO> pagina = incidenciaService.obtenerTodas(
+                after, limit, estado, categoria, severidad, productoId, orden);
+        return ResponseEntity.ok(pagina);
+    }
+
+    /**
+     * GET /api/incidencias/search?q=&after=&limit=20 - Busca incidencias por título y descripción,
+     * de la más relevante a la menos, con las coincidencias resaltadas
+     */
+    @GetMapping("/search")
+    public ResponseEntity<CursorPage<IncidenciaBusquedaDTO>> buscar(
+            @RequestParam String q,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(busquedaService.buscar(q, after, limit));
     }
 
     /**
@@ -42,8 +80,11 @@ public class IncidenciaController {
      * GET /api/incidencias/producto/{productoId} - Obtiene incidencias de un producto
      */
     @GetMapping("/producto/{productoId}")
-    public ResponseEntity<List<IncidenciaDTO>> obtenerPorProducto(@PathVariable Long productoId) {
-        List<IncidenciaDTO> incidencias = incidenciaService.obtenerPorProducto(productoId);
+    public ResponseEntity<CursorPage<IncidenciaDTO>> obtenerPorProducto(
+            @PathVariable Long productoId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<IncidenciaDTO> incidencias = incidenciaService.obtenerPorProducto(productoId, after, limit);
         return ResponseEntity.ok(incidencias);
     }
 
@@ -51,8 +92,11 @@ public class IncidenciaController {
      * GET /api/incidencias/usuario/{usuarioId} - Obtiene incidencias de un usuario
      */
     @GetMapping("/usuario/{usuarioId}")
-    public ResponseEntity<List<IncidenciaDTO>> obtenerPorUsuario(@PathVariable Long usuarioId) {
-        List<IncidenciaDTO> incidencias = incidenciaService.obtenerPorUsuario(usuarioId);
+    public ResponseEntity<CursorPage<IncidenciaDTO>> obtenerPorUsuario(
+            @PathVariable Long usuarioId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<IncidenciaDTO> incidencias = incidenciaService.obtenerPorUsuario(usuarioId, after, limit);
         return ResponseEntity.ok(incidencias);
     }
 
@@ -60,9 +104,11 @@ public class IncidenciaController {
      * GET /api/incidencias/estado/{estado} - Obtiene incidencias por estado
      */
     @GetMapping("/estado/{estado}")
-    public ResponseEntity<List<IncidenciaDTO>> obtenerPorEstado(@PathVariable String estado) {
-        Incidencia.Estado estadoEnum = Incidencia.Estado.valueOf(estado.toUpperCase());
-        List<IncidenciaDTO> incidencias = incidenciaService.obtenerPorEstado(estadoEnum);
+    public ResponseEntity<CursorPage<IncidenciaDTO>> obtenerPorEstado(
+            @PathVariable String estado,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<IncidenciaDTO> incidencias = incidenciaService.obtenerPorEstado(estado, after, limit);
         return ResponseEntity.ok(incidencias);
     }
 
@@ -75,6 +121,16 @@ public class IncidenciaController {
         return ResponseEntity.status(HttpStatus.CREATED).body(incidencia);
     }
 
+    /**
+     * POST /api/incidencias/duplicados - Busca incidencias del mismo producto parecidas a un borrador,
+     * para avisar antes de crearlo
+     */
+    @PostMapping("/duplicados")
+    public ResponseEntity<List<IncidenciaDuplicadaDTO>> buscarDuplicados(@Valid @RequestBody DuplicadosRequest request) {
+        return ResponseEntity.ok(duplicadosService.buscarDuplicados(
+                request.getTitulo(), request.getDescripcion(), request.getProductoId()));
+    }
+
     /**
      * PUT /api/incidencias/{id} - Actualiza una incidencia existente
      */
@@ -102,6 +158,14 @@ public class IncidenciaController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * GET /api/incidencias/stats - Número de incidencias por estado, categoría y severidad
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<IncidenciaEstadisticasDTO> obtenerEstadisticas() {
+        return ResponseEntity.ok(incidenciaService.obtenerEstadisticas());
+    }
+
     /**
      * GET /api/incidencias/stats/abiertas - Cuenta incidencias abiertas
      */
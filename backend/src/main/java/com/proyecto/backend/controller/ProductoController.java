@@ -1,25 +1,46 @@
 package com.proyecto.backend.controller;
 
+import com.proyecto.backend.dto.CursorPage;
+import com.proyecto.backend.dto.ImagenProductoDTO;
 import com.proyecto.backend.dto.ProductoCreateDTO;
 import com.proyecto.backend.dto.ProductoDTO;
+import com.proyecto.backend.dto.ProductoIncidenciasCountDTO;
 import com.proyecto.backend.dto.ProductoUpdateDTO;
-import com.proyecto.backend.model.Usuario;
-import com.proyecto.backend.repository.UsuarioRepository;
+import com.proyecto.backend.dto.SugerenciaProductoDTO;
+import com.proyecto.backend.security.UsuarioPrincipal;
 import com.proyecto.backend.service.ProductoService;
+import com.proyecto.backend.service.SugerenciasProductosService;
 import com.proyecto.backend.service.UsuarioService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/productos")
 public class ProductoController {
 
+    // Atributos de Tomcat para enviar un fichero con sendfile (copia en el kernel, sin pasar por la JVM)
+    private static final String SENDFILE_SOPORTADO = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FICHERO = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_INICIO = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_FIN = "org.apache.tomcat.sendfile.end";
+
     @Autowired
     private ProductoService productoService;
 
@@ -27,14 +48,16 @@ public class ProductoController {
     private UsuarioService usuarioService;
 
     @Autowired
-    private UsuarioRepository usuarioRepository;
+    private SugerenciasProductosService sugerenciasService;
 
     /**
-     * GET /api/productos - Obtiene todos los productos
+     * GET /api/productos?after=&limit=20 - Obtiene una página de productos
      */
     @GetMapping
-    public ResponseEntity<List<ProductoDTO>> obtenerTodos() {
-        List<ProductoDTO> productos = productoService.obtenerTodos();
+    public ResponseEntity<CursorPage<ProductoDTO>> obtenerTodos(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<ProductoDTO> productos = productoService.obtenerTodos(after, limit);
         return ResponseEntity.ok(productos);
     }
 
@@ -47,12 +70,62 @@ public class ProductoController {
         return ResponseEntity.ok(producto);
     }
 
+    /**
+     * GET /api/productos/{id}/imagen?size=256 - Obtiene la imagen de un producto en binario
+     *
+     * Con size se sirve la miniatura más pequeña que lo cubra (64, 256 o 1024 px),
+     * o el original si no existe. Devuelve Content-Type y Content-Length reales,
+     * un ETag fuerte (SHA-256) para responder 304 con If-None-Match, y admite
+     * peticiones Range (206 Partial Content).
+     * Las respuestas completas se envían con sendfile cuando Tomcat lo soporta.
+     */
+    @GetMapping("/{id}/imagen")
+    public ResponseEntity<Resource> obtenerImagen(@PathVariable Long id,
+                                                  @RequestParam(required = false) Integer size,
+                                                  WebRequest webRequest,
+                                                  HttpServletRequest request,
+                                                  HttpServletResponse response) throws IOException {
+        ImagenProductoDTO imagen = productoService.obtenerImagen(id, size);
+        String etag = "\"" + imagen.getHash() + "\"";
+        CacheControl cacheControl = CacheControl.noCache();
+
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        Resource recurso = imagen.getRecurso();
+        if ("GET".equals(request.getMethod())
+                && request.getHeader(HttpHeaders.RANGE) == null
+                && recurso.isFile()
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SOPORTADO))) {
+            File fichero = recurso.getFile();
+            response.setContentType(imagen.getTipo());
+            response.setContentLengthLong(fichero.length());
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            request.setAttribute(SENDFILE_FICHERO, fichero.getAbsolutePath());
+            request.setAttribute(SENDFILE_INICIO, 0L);
+            request.setAttribute(SENDFILE_FIN, fichero.length());
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(imagen.getTipo()))
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(recurso);
+    }
+
     /**
      * GET /api/productos/usuario/{usuarioId} - Obtiene productos de un usuario
      */
     @GetMapping("/usuario/{usuarioId}")
-    public ResponseEntity<List<ProductoDTO>> obtenerPorUsuario(@PathVariable Long usuarioId) {
-        List<ProductoDTO> productos = productoService.obtenerPorUsuario(usuarioId);
+    public ResponseEntity<CursorPage<ProductoDTO>> obtenerPorUsuario(
+            @PathVariable Long usuarioId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<ProductoDTO> productos = productoService.obtenerPorUsuario(usuarioId, after, limit);
         return ResponseEntity.ok(productos);
     }
 
@@ -74,20 +147,70 @@ public class ProductoController {
         return ResponseEntity.ok(producto);
     }
 
+    /**
+     * PUT /api/productos/{id}/imagen - Sube la imagen de un producto como multipart/form-data (campo "imagen")
+     * El fichero se copia en streaming al almacén de imágenes, sin pasar por Base64
+     */
+    @PutMapping(value = "/{id}/imagen", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ProductoDTO> subirImagen(@PathVariable Long id,
+                                                   @RequestParam("imagen") MultipartFile imagen) throws IOException {
+        try (InputStream contenido = imagen.getInputStream()) {
+            return ResponseEntity.ok(productoService.actualizarImagen(id, contenido));
+        }
+    }
+
+    /**
+     * PUT /api/productos/{id}/imagen - Sube la imagen de un producto como cuerpo binario
+     * (application/octet-stream o image/*). El cuerpo se copia en streaming al almacén de imágenes
+     */
+    @PutMapping(value = "/{id}/imagen", consumes = {MediaType.APPLICATION_OCTET_STREAM_VALUE, "image/*"})
+    public ResponseEntity<ProductoDTO> subirImagenBinaria(@PathVariable Long id,
+                                                          HttpServletRequest request) throws IOException {
+        try (InputStream contenido = request.getInputStream()) {
+            return ResponseEntity.ok(productoService.actualizarImagen(id, contenido));
+        }
+    }
+
     /**
      * DELETE /api/productos/{id} - Elimina un producto (SOLO ADMIN)
      * Las incidencias y soluciones se borran automáticamente
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> eliminar(@PathVariable Long id, Authentication authentication) {
-        // Obtener usuario autenticado de la BD
-        Usuario usuarioActual = usuarioRepository.findByUsername(authentication.getName())
-                .orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado"));
-
+    public ResponseEntity<Void> eliminar(@PathVariable Long id, @AuthenticationPrincipal UsuarioPrincipal usuarioActual) {
+        // ID y rol del usuario autenticado vienen en el token, sin consultar la BD
         productoService.eliminar(id, usuarioActual);
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * GET /api/productos/suggest?prefix=sam&limit=10 - Autocompletado: nombres, marcas y modelos
+     * con alguna palabra que empieza por el prefijo
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SugerenciaProductoDTO>> sugerir(
+            @RequestParam String prefix,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(sugerenciasService.sugerir(prefix, limit));
+    }
+
+    /**
+     * GET /api/productos/marcas - Obtiene las marcas distintas de los productos, en orden alfabético
+     */
+    @GetMapping("/marcas")
+    public ResponseEntity<List<String>> obtenerMarcas() {
+        return ResponseEntity.ok(sugerenciasService.obtenerMarcas());
+    }
+
+    /**
+     * GET /api/productos/incidencias/counts?ids=1,2,3 - Obtiene el número total y de abiertas
+     * de las incidencias de varios productos (por ejemplo, los de una página del listado)
+     */
+    @GetMapping("/incidencias/counts")
+    public ResponseEntity<List<ProductoIncidenciasCountDTO>> contarIncidenciasPorProductos(
+            @RequestParam List<Long> ids) {
+        return ResponseEntity.ok(productoService.contarIncidenciasPorProductos(ids));
+    }
+
     /**
      * GET /api/productos/{id}/incidencias/count - Obtiene el número de incidencias de un producto
      */
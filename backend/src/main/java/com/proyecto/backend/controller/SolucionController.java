@@ -1,12 +1,17 @@
 package com.proyecto.backend.controller;
 
+import com.proyecto.backend.dto.CursorPage;
 import com.proyecto.backend.dto.SolucionCreateDTO;
 import com.proyecto.backend.dto.SolucionDTO;
 import com.proyecto.backend.dto.SolucionUpdateDTO;
+import com.proyecto.backend.dto.SolucionesIncidenciaBusquedaDTO;
+import com.proyecto.backend.security.UsuarioPrincipal;
+import com.proyecto.backend.service.BusquedaSolucionesService;
 import com.proyecto.backend.service.SolucionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
@@ -19,15 +24,31 @@ public class SolucionController {
     @Autowired
     private SolucionService solucionService;
 
+    @Autowired
+    private BusquedaSolucionesService busquedaService;
+
     /**
-     * GET /api/soluciones - Obtiene todas las soluciones
+     * GET /api/soluciones?after=&limit=20 - Obtiene una página de soluciones
      */
     @GetMapping
-    public ResponseEntity<List<SolucionDTO>> obtenerTodas() {
-        List<SolucionDTO> soluciones = solucionService.obtenerTodas();
+    public ResponseEntity<CursorPage<SolucionDTO>> obtenerTodas(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<SolucionDTO> soluciones = solucionService.obtenerTodas(after, limit);
         return ResponseEntity.ok(soluciones);
     }
 
+    /**
+     * GET /api/soluciones/search?q=&limit=20 - Busca soluciones por su descripción, agrupadas
+     * por incidencia y ordenadas por relevancia y votos, con las coincidencias resaltadas
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<SolucionesIncidenciaBusquedaDTO>> buscar(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(busquedaService.buscar(q, limit));
+    }
+
     /**
      * GET /api/soluciones/{id} - Obtiene una solución por ID
      */
@@ -41,8 +62,11 @@ public class SolucionController {
      * GET /api/soluciones/incidencia/{incidenciaId} - Obtiene soluciones de una incidencia
      */
     @GetMapping("/incidencia/{incidenciaId}")
-    public ResponseEntity<List<SolucionDTO>> obtenerPorIncidencia(@PathVariable Long incidenciaId) {
-        List<SolucionDTO> soluciones = solucionService.obtenerPorIncidencia(incidenciaId);
+    public ResponseEntity<CursorPage<SolucionDTO>> obtenerPorIncidencia(
+            @PathVariable Long incidenciaId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<SolucionDTO> soluciones = solucionService.obtenerPorIncidencia(incidenciaId, after, limit);
         return ResponseEntity.ok(soluciones);
     }
 
@@ -50,8 +74,11 @@ public class SolucionController {
      * GET /api/soluciones/usuario/{usuarioId} - Obtiene soluciones de un usuario
      */
     @GetMapping("/usuario/{usuarioId}")
-    public ResponseEntity<List<SolucionDTO>> obtenerPorUsuario(@PathVariable Long usuarioId) {
-        List<SolucionDTO> soluciones = solucionService.obtenerPorUsuario(usuarioId);
+    public ResponseEntity<CursorPage<SolucionDTO>> obtenerPorUsuario(
+            @PathVariable Long usuarioId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<SolucionDTO> soluciones = solucionService.obtenerPorUsuario(usuarioId, after, limit);
         return ResponseEntity.ok(soluciones);
     }
 
@@ -83,21 +110,44 @@ public class SolucionController {
     }
 
     /**
-     * POST /api/soluciones/{id}/voto - Agrega un voto a una solución
+     * POST /api/soluciones/{id}/voto - Agrega el voto del usuario autenticado a una solución
+     * (un voto por usuario). Devuelve la solución con votado = true
      */
     @PostMapping("/{id}/voto")
-    public ResponseEntity<SolucionDTO> agregarVoto(@PathVariable Long id) {
-        SolucionDTO solucion = solucionService.agregarVoto(id);
+    public ResponseEntity<SolucionDTO> agregarVoto(@PathVariable Long id, @AuthenticationPrincipal UsuarioPrincipal usuarioActual) {
+        // El ID del usuario autenticado viene en el token, sin consultar la BD
+        SolucionDTO solucion = solucionService.agregarVoto(id, usuarioActual.id());
         return ResponseEntity.ok(solucion);
     }
 
     /**
-     * GET /api/soluciones/incidencia/{incidenciaId}/mas-votadas - Obtiene soluciones más votadas de una incidencia
+     * GET /api/soluciones/incidencia/{incidenciaId}/mas-votadas?top=10 - Obtiene las N soluciones
+     * más votadas de una incidencia
      */
     @GetMapping("/incidencia/{incidenciaId}/mas-votadas")
-    public ResponseEntity<List<SolucionDTO>> obtenerMasVotadasPorIncidencia(@PathVariable Long incidenciaId) {
-        List<SolucionDTO> soluciones = solucionService.obtenerMasVotadasPorIncidencia(incidenciaId);
+    public ResponseEntity<List<SolucionDTO>> obtenerMasVotadasPorIncidencia(
+            @PathVariable Long incidenciaId,
+            @RequestParam(required = false) Integer top) {
+        List<SolucionDTO> soluciones = solucionService.obtenerMasVotadasPorIncidencia(incidenciaId, top);
         return ResponseEntity.ok(soluciones);
     }
+
+    /**
+     * GET /api/soluciones/mas-votadas?top=10 - Obtiene las N soluciones más votadas de todas las incidencias
+     */
+    @GetMapping("/mas-votadas")
+    public ResponseEntity<List<SolucionDTO>> obtenerMasVotadas(@RequestParam(required = false) Integer top) {
+        List<SolucionDTO> soluciones = solucionService.obtenerMasVotadas(top);
+        return ResponseEntity.ok(soluciones);
+    }
+
+    /**
+     * GET /api/soluciones/mejores?incidenciaIds=1,2,3 - Obtiene la mejor solución de cada incidencia
+     * (por ejemplo, las de una página del listado)
+     */
+    @GetMapping("/mejores")
+    public ResponseEntity<List<SolucionDTO>> obtenerMejoresPorIncidencias(@RequestParam List<Long> incidenciaIds) {
+        return ResponseEntity.ok(solucionService.obtenerMejoresPorIncidencias(incidenciaIds));
+    }
 }
 
@@ -1,8 +1,11 @@
 package com.proyecto.backend.controller;
 
+import com.proyecto.backend.dto.CursorPage;
+import com.proyecto.backend.dto.RankingUsuarioDTO;
 import com.proyecto.backend.dto.UsuarioCreateDTO;
 import com.proyecto.backend.dto.UsuarioDTO;
 import com.proyecto.backend.dto.UsuarioUpdateDTO;
+import com.proyecto.backend.service.RankingService;
 import com.proyecto.backend.service.UsuarioService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -10,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+
 import java.util.List;
 
 @RestController
@@ -19,12 +23,17 @@ public class UsuarioController {
     @Autowired
     private UsuarioService usuarioService;
 
+    @Autowired
+    private RankingService rankingService;
+
     /**
-     * GET /api/usuarios - Obtiene todos los usuarios
+     * GET /api/usuarios?after=&limit=20 - Obtiene una página de usuarios
      */
     @GetMapping
-    public ResponseEntity<List<UsuarioDTO>> obtenerTodos() {
-        List<UsuarioDTO> usuarios = usuarioService.obtenerTodos();
+    public ResponseEntity<CursorPage<UsuarioDTO>> obtenerTodos(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<UsuarioDTO> usuarios = usuarioService.obtenerTodos(after, limit);
         return ResponseEntity.ok(usuarios);
     }
 
@@ -90,5 +99,25 @@ public class UsuarioController {
         long count = usuarioService.contarUsuarios();
         return ResponseEntity.ok(count);
     }
-}
 
+    /**
+     * GET /api/usuarios/ranking?metric=votos&top=10 - Obtiene los usuarios con más
+     * soluciones, votos recibidos, incidencias o productos
+     */
+    @GetMapping("/ranking")
+    public ResponseEntity<List<RankingUsuarioDTO>> obtenerRanking(
+            @RequestParam(required = false) String metric,
+            @RequestParam(required = false) Integer top) {
+        List<RankingUsuarioDTO> ranking = rankingService.obtenerRanking(metric, top);
+        return ResponseEntity.ok(ranking);
+    }
+
+    /**
+     * GET /api/usuarios/{id}/ranking - Obtiene los totales de un usuario
+     */
+    @GetMapping("/{id}/ranking")
+    public ResponseEntity<RankingUsuarioDTO> obtenerTotales(@PathVariable Long id) {
+        RankingUsuarioDTO totales = rankingService.obtenerTotales(id);
+        return ResponseEntity.ok(totales);
+    }
+}
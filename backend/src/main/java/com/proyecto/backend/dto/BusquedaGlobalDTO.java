@@ -0,0 +1,20 @@
+package com.proyecto.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Respuesta de GET /api/search: resultados de todas las fuentes mezclados por puntuación,
+ * y fuentes que no respondieron a tiempo o fallaron (sus resultados no están incluidos)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BusquedaGlobalDTO {
+
+    private List<ResultadoBusquedaDTO> resultados;
+    private List<String> fuentesNoDisponibles;
+}
@@ -28,6 +28,22 @@ public class ComentarioIncidenciaDTO {
         this.updatedAt = updatedAt;
     }
 
+    /**
+     * Constructor usado por las proyecciones JPQL (SELECT new ...),
+     * con los datos del usuario en columnas planas
+     */
+    public ComentarioIncidenciaDTO(Long id, String contenido, Long incidenciaId, Long usuarioId,
+                                   String usuarioUsername, String usuarioEmail, boolean esSolucion,
+                                   LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, contenido, incidenciaId, usuarioId, null, esSolucion, createdAt, updatedAt);
+        if (usuarioUsername != null) {
+            this.usuario = new UsuarioDTO();
+            this.usuario.setId(usuarioId);
+            this.usuario.setUsername(usuarioUsername);
+            this.usuario.setEmail(usuarioEmail);
+        }
+    }
+
     // Getters y Setters
     public Long getId() {
         return id;
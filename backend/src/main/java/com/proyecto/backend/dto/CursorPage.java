@@ -0,0 +1,23 @@
+package com.proyecto.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de resultados con paginación por cursor (keyset).
+ * nextCursor es opaco para el cliente: se envía tal cual en ?after= para pedir la siguiente página,
+ * o se sigue directamente el enlace next.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+    private String next;
+}
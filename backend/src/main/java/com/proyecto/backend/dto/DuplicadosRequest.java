@@ -0,0 +1,24 @@
+package com.proyecto.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+
+/**
+ * Borrador de incidencia para buscar posibles duplicados antes de crearla
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DuplicadosRequest {
+
+    @NotBlank(message = "El título es obligatorio")
+    private String titulo;
+
+    private String descripcion;
+
+    @Positive(message = "El ID del producto debe ser positivo")
+    private Long productoId;
+}
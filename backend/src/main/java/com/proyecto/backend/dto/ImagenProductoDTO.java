@@ -0,0 +1,16 @@
+package com.proyecto.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.core.io.Resource;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImagenProductoDTO {
+
+    private Resource recurso;
+    private String tipo;
+    private String hash;
+}
@@ -0,0 +1,21 @@
+package com.proyecto.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de la búsqueda de incidencias: la incidencia, su relevancia y
+ * el título y un fragmento de la descripción con las coincidencias entre &lt;mark&gt;
+ * (HTML escapado)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IncidenciaBusquedaDTO {
+
+    private IncidenciaDTO incidencia;
+    private double puntuacion;
+    private String tituloResaltado;
+    private String descripcionResaltada;
+}
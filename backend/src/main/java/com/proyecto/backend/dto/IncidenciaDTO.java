@@ -1,11 +1,13 @@
 package com.proyecto.backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.proyecto.backend.model.Incidencia;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -25,6 +27,22 @@ public class IncidenciaDTO {
     private String usuarioUsername;
     private Integer totalSoluciones;
 
+    // Incidencias parecidas del mismo producto; solo en la respuesta de POST /api/incidencias
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<IncidenciaDuplicadaDTO> posiblesDuplicados;
+
+    /**
+     * Constructor usado por las proyecciones JPQL (SELECT new ...), que devuelven
+     * los enums tal cual
+     */
+    public IncidenciaDTO(Long id, String titulo, String descripcion, Incidencia.Categoria categoria,
+                         Incidencia.Severidad severidad, Incidencia.Estado estado, LocalDateTime fechaCreacion,
+                         Long productoId, String productoNombre, Long usuarioId, String usuarioUsername,
+                         Integer totalSoluciones) {
+        this(id, titulo, descripcion, categoria.name(), severidad.name(), estado.name(), fechaCreacion,
+                productoId, productoNombre, usuarioId, usuarioUsername, totalSoluciones, null);
+    }
+
     public static IncidenciaDTO fromEntity(Incidencia incidencia) {
         IncidenciaDTO dto = new IncidenciaDTO();
         dto.setId(incidencia.getId());
@@ -36,7 +54,7 @@ public class IncidenciaDTO {
         dto.setFechaCreacion(incidencia.getFechaCreacion());
         dto.setUsuarioId(incidencia.getUsuario().getId());
         dto.setUsuarioUsername(incidencia.getUsuario().getUsername());
-        dto.setTotalSoluciones(incidencia.getSoluciones() != null ? incidencia.getSoluciones().size() : 0);
+        dto.setTotalSoluciones(incidencia.getTotalSoluciones());
 
         // Producto es opcional
         if (incidencia.getProducto() != null) {
@@ -0,0 +1,22 @@
+package com.proyecto.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Incidencia existente parecida a otra y similitud estimada entre ambas (de 0 a 1)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IncidenciaDuplicadaDTO {
+
+    private Long id;
+    private String titulo;
+    private String estado;
+    private LocalDateTime fechaCreacion;
+    private double similitud;
+}
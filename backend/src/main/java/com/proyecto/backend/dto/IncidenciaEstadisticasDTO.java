@@ -0,0 +1,22 @@
+package com.proyecto.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Recuento de incidencias por estado, categoría y severidad.
+ * Cada mapa incluye todos los valores del enum, con 0 si no hay incidencias.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IncidenciaEstadisticasDTO {
+
+    private long total;
+    private Map<String, Long> porEstado;
+    private Map<String, Long> porCategoria;
+    private Map<String, Long> porSeveridad;
+}
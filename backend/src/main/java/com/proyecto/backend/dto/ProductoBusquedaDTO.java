@@ -0,0 +1,20 @@
+package com.proyecto.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Producto encontrado en la búsqueda de texto: ID, nombre, marca, modelo y relevancia
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductoBusquedaDTO {
+
+    private Long id;
+    private String nombre;
+    private String marca;
+    private String modelo;
+    private double puntuacion;
+}
@@ -6,7 +6,6 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
-import java.util.Base64;
 
 @Data
 @NoArgsConstructor
@@ -17,7 +16,8 @@ public class ProductoDTO {
     private String nombre;
     private String marca;
     private String modelo;
-    private String imagenBase64;
+    private String imagenUrl;
+    private String imagenHash;
     private BigDecimal peso;
     private BigDecimal ancho;
     private BigDecimal largo;
@@ -42,12 +42,17 @@ public class ProductoDTO {
         dto.setUsuarioId(producto.getUsuario().getId());
         dto.setUsuarioUsername(producto.getUsuario().getUsername());
 
-        // Convertir imagen a Base64 si existe
-        if (producto.getImagen() != null) {
-            dto.setImagenBase64(Base64.getEncoder().encodeToString(producto.getImagen()));
+        // La imagen se sirve aparte en /api/productos/{id}/imagen
+        if (producto.getImagenHash() != null) {
+            dto.setImagenUrl(urlImagen(producto.getId()));
+            dto.setImagenHash(producto.getImagenHash());
         }
 
         return dto;
     }
+
+    public static String urlImagen(Long productoId) {
+        return "/api/productos/" + productoId + "/imagen";
+    }
 }
 
@@ -0,0 +1,18 @@
+package com.proyecto.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Número de incidencias de un producto: total y abiertas (ABIERTA o EN_PROGRESO)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductoIncidenciasCountDTO {
+
+    private Long productoId;
+    private long total;
+    private long abiertas;
+}
@@ -0,0 +1,21 @@
+package com.proyecto.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Totales de un usuario en el ranking de contribuidores
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankingUsuarioDTO {
+
+    private Long usuarioId;
+    private String username;
+    private long soluciones;
+    private long votos;
+    private long incidencias;
+    private long productos;
+}
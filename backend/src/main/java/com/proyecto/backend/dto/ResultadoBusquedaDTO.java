@@ -0,0 +1,22 @@
+package com.proyecto.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de la búsqueda global. El tipo indica la fuente (INCIDENCIA, SOLUCION, PRODUCTO
+ * o USUARIO) y a qué entidad se refiere el ID.
+ * El detalle puede llevar las coincidencias entre &lt;mark&gt; (HTML escapado).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoBusquedaDTO {
+
+    private String tipo;
+    private Long id;
+    private String titulo;
+    private String detalle;
+    private double puntuacion;
+}
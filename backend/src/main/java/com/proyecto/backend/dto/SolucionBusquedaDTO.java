@@ -0,0 +1,21 @@
+package com.proyecto.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Solución encontrada en la búsqueda: la solución, la relevancia de su texto, la puntuación
+ * final (relevancia y votos) y un fragmento de la descripción con las coincidencias entre
+ * &lt;mark&gt; (HTML escapado)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolucionBusquedaDTO {
+
+    private SolucionDTO solucion;
+    private double relevancia;
+    private double puntuacion;
+    private String descripcionResaltada;
+}
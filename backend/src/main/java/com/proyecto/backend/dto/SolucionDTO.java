@@ -1,5 +1,6 @@
 package com.proyecto.backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.proyecto.backend.model.Solucion;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -21,6 +22,19 @@ public class SolucionDTO {
     private Long usuarioId;
     private String usuarioUsername;
 
+    // Si el usuario que vota ya ha votado esta solución; solo en la respuesta de POST /{id}/voto
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean votado;
+
+    /**
+     * Constructor usado por las proyecciones JPQL (SELECT new ...)
+     */
+    public SolucionDTO(Long id, String descripcion, Integer votos, LocalDateTime fechaPublicacion,
+                       Long incidenciaId, String incidenciaTitulo, Long usuarioId, String usuarioUsername) {
+        this(id, descripcion, votos, fechaPublicacion, incidenciaId, incidenciaTitulo,
+                usuarioId, usuarioUsername, null);
+    }
+
     public static SolucionDTO fromEntity(Solucion solucion) {
         return new SolucionDTO(
                 solucion.getId(),
@@ -0,0 +1,22 @@
+package com.proyecto.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resultado de la búsqueda de soluciones agrupado por incidencia: la incidencia,
+ * la puntuación de su mejor solución y sus soluciones encontradas, de la mejor a la peor
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolucionesIncidenciaBusquedaDTO {
+
+    private Long incidenciaId;
+    private String incidenciaTitulo;
+    private double puntuacion;
+    private List<SolucionBusquedaDTO> soluciones;
+}
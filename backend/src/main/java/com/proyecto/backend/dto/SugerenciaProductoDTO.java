@@ -0,0 +1,19 @@
+package com.proyecto.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sugerencia de autocompletado de productos: un nombre, marca o modelo existente
+ * y el número de productos que lo tienen
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SugerenciaProductoDTO {
+
+    private String texto;
+    private String tipo;
+    private long productos;
+}
@@ -0,0 +1,15 @@
+package com.proyecto.backend.event;
+
+import com.proyecto.backend.service.RankingService;
+
+/**
+ * Cambio en los totales de un usuario (publicado por los servicios al escribir).
+ * RankingService lo aplica tras el commit de la transacción.
+ *
+ * @param usuarioId ID del usuario
+ * @param username Nombre actual del usuario
+ * @param metrica Total que cambia, o null si solo se registra el usuario o cambia su nombre
+ * @param delta Cantidad a sumar (negativa al eliminar)
+ */
+public record ActividadUsuarioEvent(Long usuarioId, String username, RankingService.Metrica metrica, long delta) {
+}
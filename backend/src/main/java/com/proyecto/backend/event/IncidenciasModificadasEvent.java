@@ -0,0 +1,13 @@
+package com.proyecto.backend.event;
+
+import java.util.Collection;
+
+/**
+ * Incidencias creadas, modificadas o eliminadas (también las borradas en cascada con su
+ * producto o usuario). IndicesIncidenciasService las vuelve a leer tras el commit para
+ * actualizar los índices de búsqueda y de duplicados.
+ *
+ * @param ids IDs de las incidencias
+ */
+public record IncidenciasModificadasEvent(Collection<Long> ids) {
+}
@@ -0,0 +1,12 @@
+package com.proyecto.backend.event;
+
+import java.util.Collection;
+
+/**
+ * Productos creados, modificados o eliminados. SugerenciasProductosService los vuelve
+ * a leer tras el commit para actualizar el índice de autocompletado y la lista de marcas.
+ *
+ * @param ids IDs de los productos
+ */
+public record ProductosModificadosEvent(Collection<Long> ids) {
+}
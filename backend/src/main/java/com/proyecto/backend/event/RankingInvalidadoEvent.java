@@ -0,0 +1,15 @@
+package com.proyecto.backend.event;
+
+/**
+ * Publicado por los borrados en cascada (producto, incidencia, usuario), que afectan
+ * a los totales de muchos usuarios a la vez: RankingService se reconstruye desde la base de datos.
+ *
+ * @param usuarioEliminadoId Usuario eliminado, que sale del ranking sin esperar a la reconstrucción;
+ *                           null si no se elimina ningún usuario
+ */
+public record RankingInvalidadoEvent(Long usuarioEliminadoId) {
+
+    public RankingInvalidadoEvent() {
+        this(null);
+    }
+}
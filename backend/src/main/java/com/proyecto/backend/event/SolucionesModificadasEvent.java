@@ -0,0 +1,13 @@
+package com.proyecto.backend.event;
+
+import java.util.Collection;
+
+/**
+ * Soluciones creadas, modificadas o eliminadas (también las borradas en cascada con su
+ * incidencia, producto o usuario). Los votos volcados por AcumuladorVotosService van en VotosVolcadosEvent.
+ * BusquedaSolucionesService las vuelve a leer tras el commit para actualizar el índice de búsqueda.
+ *
+ * @param ids IDs de las soluciones
+ */
+public record SolucionesModificadasEvent(Collection<Long> ids) {
+}
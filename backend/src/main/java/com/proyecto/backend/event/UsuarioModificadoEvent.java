@@ -0,0 +1,10 @@
+package com.proyecto.backend.event;
+
+/**
+ * Usuario modificado o eliminado. CustomUserDetailsService descarta tras el commit
+ * sus datos de inicio de sesión en caché.
+ *
+ * @param id ID del usuario
+ */
+public record UsuarioModificadoEvent(Long id) {
+}
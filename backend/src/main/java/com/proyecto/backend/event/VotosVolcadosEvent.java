@@ -0,0 +1,13 @@
+package com.proyecto.backend.event;
+
+import java.util.Collection;
+
+/**
+ * Soluciones cuyos votos ha escrito AcumuladorVotosService en la base de datos.
+ * Solo cambia el contador: BusquedaSolucionesService relee los votos de estas soluciones
+ * y los actualiza en el índice de búsqueda sin volver a indexar su texto.
+ *
+ * @param ids IDs de las soluciones
+ */
+public record VotosVolcadosEvent(Collection<Long> ids) {
+}
@@ -1,6 +1,8 @@
 package com.proyecto.backend.filter;
 
+import com.proyecto.backend.security.UsuarioPrincipal;
 import com.proyecto.backend.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -32,15 +34,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             if (authHeader != null && authHeader.startsWith(BEARER_PREFIX)) {
                 String token = authHeader.substring(BEARER_PREFIX.length());
 
-                if (jwtUtil.validateToken(token)) {
-                    String username = jwtUtil.getUsernameFromToken(token);
+                // Una sola verificación por petición (y ninguna si el token ya se verificó antes)
+                Claims claims = jwtUtil.parseAndVerify(token);
 
-                    if (username != null) {
-                        // Crear autenticación sin contraseña (solo usando el token)
-                        UsernamePasswordAuthenticationToken authentication =
-                                new UsernamePasswordAuthenticationToken(username, null, null);
-                        SecurityContextHolder.getContext().setAuthentication(authentication);
-                    }
+                UsuarioPrincipal principal = claims != null ? jwtUtil.getPrincipal(claims) : null;
+
+                if (principal != null) {
+                    // Crear autenticación sin contraseña ni consultas (ID y rol vienen en el token)
+                    UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
                 }
             }
         } catch (Exception e) {
@@ -33,12 +33,12 @@ public class ComentarioIncidencia {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt = LocalDateTime.now();
 
-    // Relaciones
-    @ManyToOne(fetch = FetchType.EAGER)
+    // Relaciones (LAZY: los listados usan la proyección de ComentarioIncidenciaRepository)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "incidencia_id", referencedColumnName = "id", insertable = false, updatable = false)
     private Incidencia incidencia;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "usuario_id", referencedColumnName = "id", insertable = false, updatable = false)
     private Usuario usuario;
 
@@ -10,7 +10,15 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "incidencias")
+@Table(name = "incidencias", indexes = {
+        // Índices para la paginación por cursor (ORDER BY fecha_creacion DESC, id DESC)
+        @Index(name = "idx_incidencias_fecha_id", columnList = "fecha_creacion, id"),
+        @Index(name = "idx_incidencias_estado_fecha_id", columnList = "estado, fecha_creacion, id"),
+        @Index(name = "idx_incidencias_producto_fecha_id", columnList = "producto_id, fecha_creacion, id"),
+        @Index(name = "idx_incidencias_usuario_fecha_id", columnList = "usuario_id, fecha_creacion, id"),
+        // Listado ordenado por número de soluciones (ORDER BY total_soluciones DESC, id DESC)
+        @Index(name = "idx_incidencias_soluciones_id", columnList = "total_soluciones, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -52,6 +60,12 @@ public class Incidencia {
     @OneToMany(mappedBy = "incidencia", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Solucion> soluciones = new ArrayList<>();
 
+    // Número de soluciones, desnormalizado. Solo lo modifican los UPDATE atómicos de
+    // IncidenciaRepository (por eso no es insertable ni actualizable desde la entidad)
+    @Column(name = "total_soluciones", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "INT NOT NULL DEFAULT 0")
+    private int totalSoluciones = 0;
+
     @PrePersist
     protected void onCreate() {
         fechaCreacion = LocalDateTime.now();
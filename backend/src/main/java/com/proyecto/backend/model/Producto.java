@@ -29,9 +29,13 @@ public class Producto {
     @Column(length = 50)
     private String modelo;
 
-    @Lob
-    @Column(columnDefinition = "LONGBLOB")
-    private byte[] imagen;
+    // Los bytes de la imagen viven en el ImageStore, identificados por su hash
+    // SHA-256 de la imagen, usado como ETag. Null si el producto no tiene imagen
+    @Column(name = "imagen_hash", length = 64)
+    private String imagenHash;
+
+    @Column(name = "imagen_tipo", length = 50)
+    private String imagenTipo;
 
     @Column(precision = 10, scale = 2)
     private BigDecimal peso;
@@ -0,0 +1,35 @@
+package com.proyecto.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Miniatura de la imagen de un producto en un tamaño fijo (lado mayor en px).
+ * Se genera en segundo plano; los bytes se guardan en el ImageStore bajo su hash.
+ */
+@Entity
+@Table(name = "productos_miniaturas",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"producto_id", "tamano"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductoMiniatura {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "producto_id", nullable = false)
+    private Long productoId;
+
+    @Column(nullable = false)
+    private Integer tamano;
+
+    @Column(nullable = false, length = 50)
+    private String tipo;
+
+    @Column(nullable = false, length = 64)
+    private String hash;
+}
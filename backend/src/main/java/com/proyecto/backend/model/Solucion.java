@@ -4,11 +4,19 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 
+// Solo se escriben las columnas modificadas: editar la descripción no pisa
+// los votos que AcumuladorVotosService suma con UPDATE atómicos
 @Entity
-@Table(name = "soluciones")
+@DynamicUpdate
+@Table(name = "soluciones", indexes = {
+        // Top N por votos de una incidencia y mejor solución (ORDER BY votos DESC, id): votos va en orden
+        // descendente para que MySQL recorra el índice en el orden de la consulta, sin filesort
+        @Index(name = "idx_soluciones_incidencia_votos_desc_id", columnList = "incidencia_id, votos DESC, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,50 @@
+package com.proyecto.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * Voto de un usuario a una solución. La clave única (usuario_id, solucion_id)
+ * garantiza un solo voto por usuario y solución. Las claves foráneas tienen ON DELETE CASCADE,
+ * así los votos desaparecen con la solución o el usuario por cualquier camino de borrado.
+ */
+@Entity
+@Table(name = "votos_soluciones",
+        uniqueConstraints = @UniqueConstraint(name = "uk_votos_soluciones_usuario_solucion",
+                columnNames = {"usuario_id", "solucion_id"}),
+        indexes = @Index(name = "idx_votos_soluciones_solucion", columnList = "solucion_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VotoSolucion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "usuario_id", nullable = false)
+    private Long usuarioId;
+
+    @Column(name = "solucion_id", nullable = false)
+    private Long solucionId;
+
+    @Column(nullable = false)
+    private LocalDateTime fecha;
+
+    // Relaciones solo para generar las claves foráneas; se escribe a través de los IDs
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "usuario_id", insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Usuario usuario;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "solucion_id", insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Solucion solucion;
+}
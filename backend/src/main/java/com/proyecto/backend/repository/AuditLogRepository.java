@@ -1,17 +1,23 @@
 package com.proyecto.backend.repository;
 
 import com.proyecto.backend.model.AuditLog;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
+public interface AuditLogRepository extends CursorRepository<AuditLog> {
     List<AuditLog> findByEntidad(String entidad);
     List<AuditLog> findByEntidadId(Long entidadId);
     List<AuditLog> findByUsuarioId(Long usuarioId);
     List<AuditLog> findByFechaOperacionBetween(LocalDateTime inicio, LocalDateTime fin);
+
+    // Paginación por cursor (ID ascendente, en orden de registro)
+    List<AuditLog> findByEntidadAndIdGreaterThanOrderByIdAsc(String entidad, Long id, Pageable pageable);
+    List<AuditLog> findByEntidadAndEntidadIdAndIdGreaterThanOrderByIdAsc(String entidad, Long entidadId, Long id, Pageable pageable);
+    List<AuditLog> findByUsuarioIdAndIdGreaterThanOrderByIdAsc(Long usuarioId, Long id, Pageable pageable);
+    List<AuditLog> findByFechaOperacionBetweenAndIdGreaterThanOrderByIdAsc(LocalDateTime inicio, LocalDateTime fin, Long id, Pageable pageable);
 }
 
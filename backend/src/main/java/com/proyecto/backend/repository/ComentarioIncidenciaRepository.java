@@ -1,16 +1,20 @@
 package com.proyecto.backend.repository;
 
+import com.proyecto.backend.dto.ComentarioIncidenciaDTO;
 import com.proyecto.backend.model.ComentarioIncidencia;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repositorio para ComentarioIncidencia
  */
 @Repository
-public interface ComentarioIncidenciaRepository extends JpaRepository<ComentarioIncidencia, Long> {
+public interface ComentarioIncidenciaRepository extends CursorRepository<ComentarioIncidencia> {
 
     /**
      * Obtiene todos los comentarios de una incidencia
@@ -31,4 +35,43 @@ public interface ComentarioIncidenciaRepository extends JpaRepository<Comentario
      * Obtiene comentarios que son soluciones de un usuario
      */
     List<ComentarioIncidencia> findByUsuarioIdAndEsSolucionTrue(Long usuarioId);
+
+    // ===== Proyecciones a ComentarioIncidenciaDTO: el usuario se une en la misma consulta =====
+
+    String SELECT_DTO = "SELECT new com.proyecto.backend.dto.ComentarioIncidenciaDTO(c.id, c.contenido, " +
+            "c.incidenciaId, c.usuarioId, u.username, u.email, c.esSolucion, c.createdAt, c.updatedAt) " +
+            "FROM ComentarioIncidencia c LEFT JOIN c.usuario u ";
+
+    /**
+     * Proyección de un comentario
+     */
+    @Query(SELECT_DTO + "WHERE c.id = :id")
+    Optional<ComentarioIncidenciaDTO> findDTOById(@Param("id") Long id);
+
+    /**
+     * Siguiente página de comentarios, después del ID indicado
+     */
+    @Query(SELECT_DTO + "WHERE c.id > :after ORDER BY c.id")
+    List<ComentarioIncidenciaDTO> findDTOPagina(@Param("after") Long after, Pageable pageable);
+
+    /**
+     * Siguiente página de comentarios de una incidencia
+     */
+    @Query(SELECT_DTO + "WHERE c.incidenciaId = :incidenciaId AND c.id > :after ORDER BY c.id")
+    List<ComentarioIncidenciaDTO> findDTOPaginaByIncidencia(@Param("incidenciaId") Long incidenciaId,
+                                                            @Param("after") Long after, Pageable pageable);
+
+    /**
+     * Siguiente página de comentarios de un usuario
+     */
+    @Query(SELECT_DTO + "WHERE c.usuarioId = :usuarioId AND c.id > :after ORDER BY c.id")
+    List<ComentarioIncidenciaDTO> findDTOPaginaByUsuario(@Param("usuarioId") Long usuarioId,
+                                                         @Param("after") Long after, Pageable pageable);
+
+    /**
+     * Siguiente página de soluciones de una incidencia
+     */
+    @Query(SELECT_DTO + "WHERE c.incidenciaId = :incidenciaId AND c.esSolucion = true AND c.id > :after ORDER BY c.id")
+    List<ComentarioIncidenciaDTO> findDTOPaginaSolucionesByIncidencia(@Param("incidenciaId") Long incidenciaId,
+                                                                      @Param("after") Long after, Pageable pageable);
 }
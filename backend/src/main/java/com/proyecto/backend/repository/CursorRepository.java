@@ -0,0 +1,18 @@
+package com.proyecto.backend.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.util.List;
+
+/**
+ * Repositorio base con paginación por cursor sobre el ID.
+ * El tamaño de la página lo marca el Pageable y, al devolver List, no se lanza ningún COUNT.
+ */
+@NoRepositoryBean
+public interface CursorRepository<T> extends JpaRepository<T, Long> {
+
+    // Siguiente página de todos los registros, después del ID indicado
+    List<T> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+}
@@ -1,16 +1,21 @@
 package com.proyecto.backend.repository;
 
+import com.proyecto.backend.dto.IncidenciaDTO;
 import com.proyecto.backend.model.Incidencia;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface IncidenciaRepository extends JpaRepository<Incidencia, Long> {
+public interface IncidenciaRepository extends JpaRepository<Incidencia, Long>, IncidenciaRepositoryCustom {
 
     // Buscar incidencias por estado
     List<Incidencia> findByEstado(Incidencia.Estado estado);
@@ -18,6 +23,19 @@ public interface IncidenciaRepository extends JpaRepository<Incidencia, Long> {
     // Buscar incidencias por producto
     List<Incidencia> findByProductoId(Long productoId);
 
+    // Contar incidencias de un producto
+    long countByProductoId(Long productoId);
+
+    // Contar incidencias de un producto en alguno de los estados indicados
+    long countByProductoIdAndEstadoIn(Long productoId, Collection<Incidencia.Estado> estados);
+
+    // Recuento total y en los estados indicados de varios productos, agrupado por producto.
+    // Los productos sin incidencias no aparecen en el resultado
+    @Query("SELECT i.producto.id, COUNT(i), SUM(CASE WHEN i.estado IN :estados THEN 1 ELSE 0 END) " +
+            "FROM Incidencia i WHERE i.producto.id IN :productoIds GROUP BY i.producto.id")
+    List<Object[]> contarPorProductos(@Param("productoIds") Collection<Long> productoIds,
+                                      @Param("estados") Collection<Incidencia.Estado> estados);
+
     // Buscar incidencias por usuario que las reportó
     List<Incidencia> findByUsuarioId(Long usuarioId);
 
@@ -34,29 +52,88 @@ public interface IncidenciaRepository extends JpaRepository<Incidencia, Long> {
     List<Incidencia> findByEstadoAndUsuarioId(Incidencia.Estado estado, Long usuarioId);
 
     // Consulta personalizada: Incidencias con más soluciones
-    @Query("SELECT i FROM Incidencia i LEFT JOIN i.soluciones s GROUP BY i ORDER BY COUNT(s) DESC")
-    List<Incidencia> findIncidenciasConMasSoluciones();
+    @Query("SELECT i FROM Incidencia i ORDER BY i.totalSoluciones DESC, i.id DESC")
+    List<Incidencia> findIncidenciasConMasSoluciones(Pageable pageable);
 
     // Consulta personalizada: Incidencias abiertas sin soluciones
-    @Query("SELECT i FROM Incidencia i WHERE i.estado = 'ABIERTA' AND i.soluciones IS EMPTY")
+    @Query("SELECT i FROM Incidencia i WHERE i.estado = 'ABIERTA' AND i.totalSoluciones = 0")
     List<Incidencia> findIncidenciasAbiertasSinSoluciones();
 
+    // ===== Mantenimiento de total_soluciones con UPDATE atómicos (sin leer-modificar-escribir) =====
+
+    // Suma delta (positivo o negativo) al número de soluciones de una incidencia
+    @Modifying
+    @Query(value = "UPDATE incidencias SET total_soluciones = total_soluciones + :delta WHERE id = :id",
+            nativeQuery = true)
+    int sumarTotalSoluciones(@Param("id") Long id, @Param("delta") int delta);
+
+    // Descuenta de cada incidencia las soluciones de un usuario (antes de borrarlas en cascada con él)
+    @Modifying
+    @Query(value = "UPDATE incidencias SET total_soluciones = total_soluciones - " +
+            "(SELECT COUNT(*) FROM soluciones s WHERE s.incidencia_id = incidencias.id AND s.usuario_id = :usuarioId) " +
+            "WHERE id IN (SELECT incidencia_id FROM soluciones WHERE usuario_id = :usuarioId)",
+            nativeQuery = true)
+    int descontarSolucionesDeUsuario(@Param("usuarioId") Long usuarioId);
+
+    // Recalcula total_soluciones donde no coincide con la tabla de soluciones
+    @Modifying
+    @Query(value = "UPDATE incidencias SET total_soluciones = " +
+            "(SELECT COUNT(*) FROM soluciones s WHERE s.incidencia_id = incidencias.id) " +
+            "WHERE total_soluciones <> (SELECT COUNT(*) FROM soluciones s WHERE s.incidencia_id = incidencias.id)",
+            nativeQuery = true)
+    int recalcularTotalSoluciones();
+
     // Consulta personalizada: Incidencias de un producto específico ordenadas por fecha
     @Query("SELECT i FROM Incidencia i WHERE i.producto.id = :productoId ORDER BY i.fechaCreacion DESC")
     List<Incidencia> findIncidenciasByProductoOrdenadas(@Param("productoId") Long productoId);
 
-    // Consulta personalizada: Buscar incidencias por título o descripción
-    @Query("SELECT i FROM Incidencia i WHERE " +
-            "LOWER(i.titulo) LIKE LOWER(CONCAT('%', :busqueda, '%')) OR " +
-            "LOWER(i.descripcion) LIKE LOWER(CONCAT('%', :busqueda, '%'))")
-    List<Incidencia> buscarPorTituloODescripcion(@Param("busqueda") String busqueda);
-
     // Consulta personalizada: Contar incidencias por estado
     @Query("SELECT i.estado, COUNT(i) FROM Incidencia i GROUP BY i.estado")
     List<Object[]> contarIncidenciasPorEstado();
 
-    // Incidencias recientes (últimas N)
-    @Query("SELECT i FROM Incidencia i ORDER BY i.fechaCreacion DESC")
-    List<Incidencia> findIncidenciasRecientes();
-}
+    // Número de incidencias reportadas por cada usuario (para construir el ranking)
+    @Query("SELECT i.usuario.id, COUNT(i) FROM Incidencia i GROUP BY i.usuario.id")
+    List<Object[]> contarPorUsuario();
+
+    // Recuento agrupado por estado, categoría y severidad (base de /api/incidencias/stats)
+    @Query("SELECT i.estado, i.categoria, i.severidad, COUNT(i) FROM Incidencia i " +
+            "GROUP BY i.estado, i.categoria, i.severidad")
+    List<Object[]> contarPorEstadoCategoriaYSeveridad();
+
+    // Incidencias recientes (últimas N, con N = tamaño de la página)
+    @Query("SELECT i FROM Incidencia i ORDER BY i.fechaCreacion DESC, i.id DESC")
+    List<Incidencia> findIncidenciasRecientes(Pageable pageable);
+
+    // ===== Proyecciones a IncidenciaDTO: usuario, producto y número de soluciones en una sola consulta =====
 
+    String SELECT_DTO = "SELECT new com.proyecto.backend.dto.IncidenciaDTO(i.id, i.titulo, i.descripcion, " +
+            "i.categoria, i.severidad, i.estado, i.fechaCreacion, p.id, p.nombre, u.id, u.username, " +
+            "i.totalSoluciones) FROM Incidencia i JOIN i.usuario u LEFT JOIN i.producto p ";
+
+    // Proyección de una incidencia
+    @Query(SELECT_DTO + "WHERE i.id = :id")
+    Optional<IncidenciaDTO> findDTOById(@Param("id") Long id);
+
+    // Proyección de varias incidencias (sin orden; p. ej. los resultados de una búsqueda)
+    @Query(SELECT_DTO + "WHERE i.id IN :ids")
+    List<IncidenciaDTO> findDTOByIds(@Param("ids") Collection<Long> ids);
+
+    // ===== Texto de las incidencias para los índices de búsqueda y de duplicados =====
+
+    // ID, título, descripción e ID del producto (o null) de las incidencias indicadas
+    @Query("SELECT i.id, i.titulo, i.descripcion, p.id FROM Incidencia i LEFT JOIN i.producto p WHERE i.id IN :ids")
+    List<Object[]> findTextosByIds(@Param("ids") Collection<Long> ids);
+
+    // ID, título, descripción e ID del producto del siguiente lote de incidencias, después del ID indicado
+    @Query("SELECT i.id, i.titulo, i.descripcion, p.id FROM Incidencia i LEFT JOIN i.producto p " +
+            "WHERE i.id > :after ORDER BY i.id")
+    List<Object[]> findTextosPagina(@Param("after") Long after, Pageable pageable);
+
+    // IDs de las incidencias de un producto (las que se borran en cascada con él)
+    @Query("SELECT i.id FROM Incidencia i WHERE i.producto.id = :productoId")
+    List<Long> findIdsByProductoId(@Param("productoId") Long productoId);
+
+    // IDs de las incidencias de un usuario (las que se borran en cascada con él)
+    @Query("SELECT i.id FROM Incidencia i WHERE i.usuario.id = :usuarioId")
+    List<Long> findIdsByUsuarioId(@Param("usuarioId") Long usuarioId);
+}
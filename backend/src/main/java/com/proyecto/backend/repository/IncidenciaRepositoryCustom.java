@@ -0,0 +1,31 @@
+package com.proyecto.backend.repository;
+
+import com.proyecto.backend.dto.IncidenciaDTO;
+import com.proyecto.backend.model.Incidencia;
+
+import java.util.List;
+
+public interface IncidenciaRepositoryCustom {
+
+    /**
+     * Orden de los listados: RECIENTES por (fechaCreacion, id) y SOLUCIONES por (totalSoluciones, id),
+     * ambos descendentes
+     */
+    enum Orden {
+        RECIENTES, SOLUCIONES
+    }
+
+    /**
+     * Obtiene una página de incidencias en el orden indicado, empezando después de la
+     * posición (cursorClave, cursorId). Los filtros nulos se ignoran.
+     * Devuelve directamente los DTOs (con usuario, producto y número de soluciones) en una sola consulta.
+     *
+     * @param cursorClave Fecha de creación (RECIENTES) o número de soluciones (SOLUCIONES) de la última
+     *                    incidencia de la página anterior, null para la primera página
+     * @param cursorId ID de la última incidencia de la página anterior, null para la primera página
+     * @param limite Número máximo de incidencias
+     */
+    List<IncidenciaDTO> buscarPagina(Incidencia.Estado estado, Incidencia.Categoria categoria,
+                                     Incidencia.Severidad severidad, Long productoId, Long usuarioId,
+                                     Orden orden, Object cursorClave, Long cursorId, int limite);
+}
@@ -0,0 +1,90 @@
+package com.proyecto.backend.repository;
+
+import com.proyecto.backend.dto.IncidenciaDTO;
+import com.proyecto.backend.model.Incidencia;
+import com.proyecto.backend.model.Producto;
+import com.proyecto.backend.model.Usuario;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Paginación por cursor (seek) de incidencias: en lugar de OFFSET se filtra por
+ * (fecha_creacion, id) &lt; cursor, o (total_soluciones, id) &lt; cursor, así el coste no depende
+ * de la profundidad de la página y se recorre el índice correspondiente.
+ */
+public class IncidenciaRepositoryImpl implements IncidenciaRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<IncidenciaDTO> buscarPagina(Incidencia.Estado estado, Incidencia.Categoria categoria,
+                                            Incidencia.Severidad severidad, Long productoId, Long usuarioId,
+                                            Orden orden, Object cursorClave, Long cursorId, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<IncidenciaDTO> query = cb.createQuery(IncidenciaDTO.class);
+        Root<Incidencia> incidencia = query.from(Incidencia.class);
+        Join<Incidencia, Usuario> usuario = incidencia.join("usuario", JoinType.INNER);
+        Join<Incidencia, Producto> producto = incidencia.join("producto", JoinType.LEFT);
+
+        List<Predicate> condiciones = new ArrayList<>();
+        if (estado != null) {
+            condiciones.add(cb.equal(incidencia.get("estado"), estado));
+        }
+        if (categoria != null) {
+            condiciones.add(cb.equal(incidencia.get("categoria"), categoria));
+        }
+        if (severidad != null) {
+            condiciones.add(cb.equal(incidencia.get("severidad"), severidad));
+        }
+        if (productoId != null) {
+            condiciones.add(cb.equal(producto.get("id"), productoId));
+        }
+        if (usuarioId != null) {
+            condiciones.add(cb.equal(usuario.get("id"), usuarioId));
+        }
+        if (cursorClave != null && cursorId != null) {
+            condiciones.add(orden == Orden.SOLUCIONES
+                    ? antesDe(cb, incidencia.<Integer>get("totalSoluciones"), (Integer) cursorClave,
+                            incidencia.<Long>get("id"), cursorId)
+                    : antesDe(cb, incidencia.<LocalDateTime>get("fechaCreacion"), (LocalDateTime) cursorClave,
+                            incidencia.<Long>get("id"), cursorId));
+        }
+        Expression<?> claveOrden = orden == Orden.SOLUCIONES
+                ? incidencia.get("totalSoluciones")
+                : incidencia.get("fechaCreacion");
+
+        query.select(cb.construct(IncidenciaDTO.class,
+                        incidencia.get("id"), incidencia.get("titulo"), incidencia.get("descripcion"),
+                        incidencia.get("categoria"), incidencia.get("severidad"), incidencia.get("estado"),
+                        incidencia.get("fechaCreacion"), producto.get("id"), producto.get("nombre"),
+                        usuario.get("id"), usuario.get("username"), incidencia.get("totalSoluciones")))
+                .where(condiciones.toArray(new Predicate[0]))
+                .orderBy(cb.desc(claveOrden), cb.desc(incidencia.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    /**
+     * clave &lt; valor OR (clave = valor AND id &lt; cursorId)
+     */
+    private static <T extends Comparable<? super T>> Predicate antesDe(CriteriaBuilder cb, Expression<T> clave, T valor,
+                                                                       Expression<Long> id, Long cursorId) {
+        return cb.or(
+                cb.lessThan(clave, valor),
+                cb.and(cb.equal(clave, valor), cb.lessThan(id, cursorId)));
+    }
+}
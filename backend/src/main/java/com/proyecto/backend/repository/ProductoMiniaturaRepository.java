@@ -0,0 +1,23 @@
+package com.proyecto.backend.repository;
+
+import com.proyecto.backend.model.ProductoMiniatura;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ProductoMiniaturaRepository extends JpaRepository<ProductoMiniatura, Long> {
+
+    // Miniatura más pequeña que cubre el tamaño pedido
+    Optional<ProductoMiniatura> findFirstByProductoIdAndTamanoGreaterThanEqualOrderByTamanoAsc(Long productoId, Integer tamano);
+
+    // Eliminar las miniaturas de un producto
+    void deleteByProductoId(Long productoId);
+
+    // Hashes de todas las miniaturas (para limpiar el almacén de imágenes)
+    @Query("SELECT m.hash FROM ProductoMiniatura m")
+    List<String> findAllHashes();
+}
@@ -1,19 +1,23 @@
 package com.proyecto.backend.repository;
 
 import com.proyecto.backend.model.Producto;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface ProductoRepository extends JpaRepository<Producto, Long> {
+public interface ProductoRepository extends CursorRepository<Producto> {
 
     // Buscar productos por usuario
     List<Producto> findByUsuarioId(Long usuarioId);
 
+    // Siguiente página de productos de un usuario
+    List<Producto> findByUsuarioIdAndIdGreaterThanOrderByIdAsc(Long usuarioId, Long id, Pageable pageable);
+
     // Buscar productos por nombre (búsqueda parcial)
     List<Producto> findByNombreContainingIgnoreCase(String nombre);
 
@@ -34,15 +38,20 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
     @Query("SELECT DISTINCT p FROM Producto p JOIN p.incidencias i WHERE p.usuario.id = :usuarioId AND i.estado = 'ABIERTA'")
     List<Producto> findProductosConIncidenciasAbiertasByUsuario(@Param("usuarioId") Long usuarioId);
 
-    // Consulta personalizada: Buscar productos por nombre, marca o modelo
-    @Query("SELECT p FROM Producto p WHERE " +
-            "LOWER(p.nombre) LIKE LOWER(CONCAT('%', :busqueda, '%')) OR " +
-            "LOWER(p.marca) LIKE LOWER(CONCAT('%', :busqueda, '%')) OR " +
-            "LOWER(p.modelo) LIKE LOWER(CONCAT('%', :busqueda, '%'))")
-    List<Producto> buscarPorNombreMarcaOModelo(@Param("busqueda") String busqueda);
+    // ID, nombre, marca y modelo de los productos indicados (para el índice de autocompletado)
+    @Query("SELECT p.id, p.nombre, p.marca, p.modelo FROM Producto p WHERE p.id IN :ids")
+    List<Object[]> findTextosByIds(@Param("ids") Collection<Long> ids);
+
+    // ID, nombre, marca y modelo del siguiente lote de productos, después del ID indicado
+    @Query("SELECT p.id, p.nombre, p.marca, p.modelo FROM Producto p WHERE p.id > :after ORDER BY p.id")
+    List<Object[]> findTextosPagina(@Param("after") Long after, Pageable pageable);
+
+    // Número de productos registrados por cada usuario (para construir el ranking)
+    @Query("SELECT p.usuario.id, COUNT(p) FROM Producto p GROUP BY p.usuario.id")
+    List<Object[]> contarPorUsuario();
 
-    // Obtener todas las marcas distintas
-    @Query("SELECT DISTINCT p.marca FROM Producto p WHERE p.marca IS NOT NULL ORDER BY p.marca")
-    List<String> findAllMarcasDistintas();
+    // Hashes de todas las imágenes de productos (para limpiar el almacén de imágenes)
+    @Query("SELECT DISTINCT p.imagenHash FROM Producto p WHERE p.imagenHash IS NOT NULL")
+    List<String> findAllImagenHashes();
 }
 
@@ -1,17 +1,20 @@
 package com.proyecto.backend.repository;
 
+import com.proyecto.backend.dto.SolucionDTO;
 import com.proyecto.backend.model.Solucion;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface SolucionRepository extends JpaRepository<Solucion, Long> {
+public interface SolucionRepository extends CursorRepository<Solucion> {
 
     // Buscar soluciones por incidencia
     List<Solucion> findByIncidenciaId(Long incidenciaId);
@@ -19,8 +22,11 @@ public interface SolucionRepository extends JpaRepository<Solucion, Long> {
     // Buscar soluciones por usuario que las escribió
     List<Solucion> findByUsuarioId(Long usuarioId);
 
-    // Buscar soluciones ordenadas por votos (descendente)
-    List<Solucion> findByIncidenciaIdOrderByVotosDesc(Long incidenciaId);
+    // Contar soluciones de una incidencia
+    long countByIncidenciaId(Long incidenciaId);
+
+    // Buscar soluciones ordenadas por votos (descendente), como máximo las del Pageable
+    List<Solucion> findByIncidenciaIdOrderByVotosDescIdAsc(Long incidenciaId, Pageable pageable);
 
     // Buscar soluciones publicadas después de una fecha
     List<Solucion> findByFechaPublicacionAfter(LocalDateTime fecha);
@@ -29,36 +35,111 @@ public interface SolucionRepository extends JpaRepository<Solucion, Long> {
     List<Solucion> findByVotosGreaterThan(Integer votos);
 
     // Consulta personalizada: Soluciones más votadas de todas las incidencias
-    @Query("SELECT s FROM Solucion s ORDER BY s.votos DESC")
-    List<Solucion> findSolucionesMasVotadas();
+    @Query("SELECT s FROM Solucion s ORDER BY s.votos DESC, s.id")
+    List<Solucion> findSolucionesMasVotadas(Pageable pageable);
 
     // Consulta personalizada: Soluciones de un usuario ordenadas por votos
     @Query("SELECT s FROM Solucion s WHERE s.usuario.id = :usuarioId ORDER BY s.votos DESC")
     List<Solucion> findSolucionesByUsuarioOrdenadas(@Param("usuarioId") Long usuarioId);
 
     // Consulta personalizada: Top N soluciones de una incidencia
-    @Query("SELECT s FROM Solucion s WHERE s.incidencia.id = :incidenciaId ORDER BY s.votos DESC")
-    List<Solucion> findTopSolucionesByIncidencia(@Param("incidenciaId") Long incidenciaId);
+    @Query("SELECT s FROM Solucion s WHERE s.incidencia.id = :incidenciaId ORDER BY s.votos DESC, s.id")
+    List<Solucion> findTopSolucionesByIncidencia(@Param("incidenciaId") Long incidenciaId, Pageable pageable);
+
+    // Número de soluciones y votos recibidos por cada autor (para construir el ranking)
+    @Query("SELECT s.usuario.id, COUNT(s), COALESCE(SUM(s.votos), 0) FROM Solucion s GROUP BY s.usuario.id")
+    List<Object[]> contarSolucionesYVotosPorUsuario();
 
-    // Consulta personalizada: Contar soluciones por usuario
-    @Query("SELECT s.usuario.id, s.usuario.username, COUNT(s) FROM Solucion s GROUP BY s.usuario.id, s.usuario.username ORDER BY COUNT(s) DESC")
-    List<Object[]> contarSolucionesPorUsuario();
+    // ID de la solución y de su autor, para las soluciones indicadas
+    @Query("SELECT s.id, s.usuario.id FROM Solucion s WHERE s.id IN :ids")
+    List<Object[]> findAutoresByIds(@Param("ids") Collection<Long> ids);
 
     // Consulta personalizada: Suma total de votos de un usuario
     @Query("SELECT COALESCE(SUM(s.votos), 0) FROM Solucion s WHERE s.usuario.id = :usuarioId")
     Integer sumaTotalVotosByUsuario(@Param("usuarioId") Long usuarioId);
 
+    // Votos de una solución, bloqueando su fila hasta el final de la transacción
+    @Query(value = "SELECT votos FROM soluciones WHERE id = :id FOR UPDATE", nativeQuery = true)
+    int findVotosBloqueando(@Param("id") Long id);
+
+    // Fija los votos de una solución
+    @Modifying
+    @Query(value = "UPDATE soluciones SET votos = :votos WHERE id = :id", nativeQuery = true)
+    int fijarVotos(@Param("id") Long id, @Param("votos") int votos);
+
     // Consulta personalizada: Incrementar votos de una solución
     @Modifying
     @Query("UPDATE Solucion s SET s.votos = s.votos + 1 WHERE s.id = :solucionId")
     void incrementarVotos(@Param("solucionId") Long solucionId);
 
-    // Consulta personalizada: Buscar soluciones por descripción
-    @Query("SELECT s FROM Solucion s WHERE LOWER(s.descripcion) LIKE LOWER(CONCAT('%', :busqueda, '%'))")
-    List<Solucion> buscarPorDescripcion(@Param("busqueda") String busqueda);
-
     // Soluciones recientes
     @Query("SELECT s FROM Solucion s ORDER BY s.fechaPublicacion DESC")
     List<Solucion> findSolucionesRecientes();
-}
 
+    // ===== Proyecciones a SolucionDTO: incidencia y usuario en la misma consulta, sin N+1 =====
+
+    String SELECT_DTO = "SELECT new com.proyecto.backend.dto.SolucionDTO(s.id, s.descripcion, s.votos, " +
+            "s.fechaPublicacion, i.id, i.titulo, u.id, u.username) " +
+            "FROM Solucion s JOIN s.incidencia i JOIN s.usuario u ";
+
+    // Proyección de una solución
+    @Query(SELECT_DTO + "WHERE s.id = :id")
+    Optional<SolucionDTO> findDTOById(@Param("id") Long id);
+
+    // Proyecciones de las soluciones indicadas, sin orden
+    @Query(SELECT_DTO + "WHERE s.id IN :ids")
+    List<SolucionDTO> findDTOByIds(@Param("ids") Collection<Long> ids);
+
+    // Siguiente página de soluciones, después del ID indicado
+    @Query(SELECT_DTO + "WHERE s.id > :after ORDER BY s.id")
+    List<SolucionDTO> findDTOPagina(@Param("after") Long after, Pageable pageable);
+
+    // Siguiente página de soluciones de una incidencia
+    @Query(SELECT_DTO + "WHERE i.id = :incidenciaId AND s.id > :after ORDER BY s.id")
+    List<SolucionDTO> findDTOPaginaByIncidencia(@Param("incidenciaId") Long incidenciaId,
+                                                @Param("after") Long after, Pageable pageable);
+
+    // Siguiente página de soluciones de un usuario
+    @Query(SELECT_DTO + "WHERE u.id = :usuarioId AND s.id > :after ORDER BY s.id")
+    List<SolucionDTO> findDTOPaginaByUsuario(@Param("usuarioId") Long usuarioId,
+                                             @Param("after") Long after, Pageable pageable);
+
+    // Top N soluciones de una incidencia ordenadas por votos (descendente).
+    // Se resuelve con el índice (incidencia_id, votos DESC, id) leyendo solo N filas
+    @Query(SELECT_DTO + "WHERE i.id = :incidenciaId ORDER BY s.votos DESC, s.id")
+    List<SolucionDTO> findDTOMasVotadasByIncidencia(@Param("incidenciaId") Long incidenciaId, Pageable pageable);
+
+    // Mejor solución (más votos; a igualdad, la más antigua) de cada incidencia indicada.
+    // Una sola consulta: para cada solución se comprueba con el índice (incidencia_id, votos DESC, id)
+    // que ninguna otra de su incidencia la supera
+    @Query(SELECT_DTO + "WHERE i.id IN :incidenciaIds AND NOT EXISTS (" +
+            "SELECT 1 FROM Solucion o WHERE o.incidencia.id = i.id " +
+            "AND (o.votos > s.votos OR (o.votos = s.votos AND o.id < s.id)))")
+    List<SolucionDTO> findDTOMejoresByIncidencias(@Param("incidenciaIds") Collection<Long> incidenciaIds);
+
+    // Soluciones más votadas de todas las incidencias
+    @Query(SELECT_DTO + "ORDER BY s.votos DESC, s.id")
+    List<SolucionDTO> findDTOMasVotadas(Pageable pageable);
+
+    // ===== Índice de búsqueda de soluciones =====
+
+    // ID, descripción y votos de las soluciones indicadas
+    @Query("SELECT s.id, s.descripcion, s.votos FROM Solucion s WHERE s.id IN :ids")
+    List<Object[]> findTextosByIds(@Param("ids") Collection<Long> ids);
+
+    // ID, descripción y votos del siguiente lote de soluciones, después del ID indicado
+    @Query("SELECT s.id, s.descripcion, s.votos FROM Solucion s WHERE s.id > :after ORDER BY s.id")
+    List<Object[]> findTextosPagina(@Param("after") Long after, Pageable pageable);
+
+    // ID y votos de las soluciones indicadas (al volcar votos, sin releer la descripción)
+    @Query("SELECT s.id, s.votos FROM Solucion s WHERE s.id IN :ids")
+    List<Object[]> findVotosByIds(@Param("ids") Collection<Long> ids);
+
+    // IDs de las soluciones de las incidencias indicadas (las que se borran en cascada con ellas)
+    @Query("SELECT s.id FROM Solucion s WHERE s.incidencia.id IN :incidenciaIds")
+    List<Long> findIdsByIncidenciaIds(@Param("incidenciaIds") Collection<Long> incidenciaIds);
+
+    // IDs de las soluciones de un usuario y de las de sus incidencias (las que se borran en cascada con él)
+    @Query("SELECT s.id FROM Solucion s WHERE s.usuario.id = :usuarioId OR s.incidencia.usuario.id = :usuarioId")
+    List<Long> findIdsByUsuarioOSusIncidencias(@Param("usuarioId") Long usuarioId);
+}
@@ -1,7 +1,7 @@
 package com.proyecto.backend.repository;
 
 import com.proyecto.backend.model.Usuario;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -10,7 +10,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
+public interface UsuarioRepository extends CursorRepository<Usuario> {
 
     // Buscar por username
     Optional<Usuario> findByUsername(String username);
@@ -30,20 +30,18 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     // Buscar usuarios que contengan un texto en su username (búsqueda parcial)
     List<Usuario> findByUsernameContainingIgnoreCase(String username);
 
-    // Consulta personalizada: Usuarios con más productos registrados
-    @Query("SELECT u FROM Usuario u LEFT JOIN u.productos p GROUP BY u ORDER BY COUNT(p) DESC")
-    List<Usuario> findUsuariosConMasProductos();
+    // Usuarios cuyo username empieza por un prefijo, en orden alfabético, como máximo los del Pageable.
+    // Recorre el índice único de username; la intercalación de MySQL no distingue mayúsculas
+    List<Usuario> findByUsernameStartingWithOrderByUsernameAsc(String prefijo, Pageable pageable);
 
-    // Consulta personalizada: Usuarios con más incidencias reportadas
-    @Query("SELECT u FROM Usuario u LEFT JOIN u.incidencias i GROUP BY u ORDER BY COUNT(i) DESC")
-    List<Usuario> findUsuariosConMasIncidencias();
+    // ID y username de todos los usuarios (para construir el ranking)
+    @Query("SELECT u.id, u.username FROM Usuario u")
+    List<Object[]> findIdsYUsernames();
 
-    // Consulta personalizada: Usuarios con más soluciones aportadas
-    @Query("SELECT u FROM Usuario u LEFT JOIN u.soluciones s GROUP BY u ORDER BY COUNT(s) DESC")
-    List<Usuario> findUsuariosConMasSoluciones();
-
-    // Consulta personalizada: Buscar usuario por username o email
-    @Query("SELECT u FROM Usuario u WHERE u.username = :valor OR u.email = :valor")
-    Optional<Usuario> findByUsernameOrEmail(@Param("valor") String valor);
+    // Consulta personalizada: Buscar usuario por username o email en una sola consulta.
+    // Puede haber dos (el username de uno es el email de otro): primero el que coincide por username
+    @Query("SELECT u FROM Usuario u WHERE u.username = :valor OR u.email = :valor " +
+            "ORDER BY CASE WHEN u.username = :valor THEN 0 ELSE 1 END")
+    List<Usuario> findByUsernameOrEmail(@Param("valor") String valor);
 }
 
@@ -0,0 +1,12 @@
+package com.proyecto.backend.repository;
+
+import com.proyecto.backend.model.VotoSolucion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface VotoSolucionRepository extends JpaRepository<VotoSolucion, Long> {
+
+    // Comprobar si un usuario ya votó una solución
+    boolean existsByUsuarioIdAndSolucionId(Long usuarioId, Long solucionId);
+}
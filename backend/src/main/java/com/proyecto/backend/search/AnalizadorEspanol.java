@@ -0,0 +1,130 @@
+package com.proyecto.backend.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Analizador de texto en español para el índice de búsqueda.
+ * Divide el texto en palabras, las pasa a minúsculas, elimina tildes y diéresis
+ * ("Batería" y "bateria" son el mismo término), descarta las palabras vacías
+ * y reduce plurales y género con un stemmer ligero ("baterías" -> "bateri", "luces" -> "luz").
+ */
+public final class AnalizadorEspanol {
+
+    /** Palabra del texto original y término del índice que le corresponde */
+    public record Token(String termino, int inicio, int fin) {
+    }
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+
+    // Sin tildes, tal como quedan tras normalizar
+    private static final Set<String> PALABRAS_VACIAS = Set.of(
+            "a", "al", "algo", "ante", "antes", "como", "con", "contra", "cual", "cuando", "de", "del",
+            "desde", "donde", "durante", "e", "el", "ella", "ellos", "en", "entre", "era", "es", "esa",
+            "ese", "eso", "esta", "estan", "este", "esto", "estos", "fue", "ha", "hay", "hasta", "la",
+            "las", "le", "les", "lo", "los", "mas", "me", "mi", "muy", "ni", "no", "nos", "o", "otra",
+            "otro", "para", "pero", "poco", "por", "porque", "que", "quien", "se", "si", "sin", "sobre",
+            "son", "su", "sus", "tambien", "te", "todo", "tu", "u", "un", "una", "uno", "unos", "y", "ya", "yo");
+
+    private AnalizadorEspanol() {
+    }
+
+    /**
+     * Términos del texto en orden, sin palabras vacías (con repeticiones)
+     */
+    public static List<String> terminos(String texto) {
+        List<String> terminos = new ArrayList<>();
+        for (Token token : tokens(texto)) {
+            terminos.add(token.termino());
+        }
+        return terminos;
+    }
+
+    /**
+     * Palabras del texto con su término y su posición en el texto original (para resaltarlas)
+     */
+    public static List<Token> tokens(String texto) {
+        List<Token> tokens = new ArrayList<>();
+        if (texto == null) {
+            return tokens;
+        }
+
+        int i = 0;
+        int longitud = texto.length();
+        while (i < longitud) {
+            while (i < longitud && !Character.isLetterOrDigit(texto.charAt(i))) {
+                i++;
+            }
+            int inicio = i;
+            while (i < longitud && Character.isLetterOrDigit(texto.charAt(i))) {
+                i++;
+            }
+            if (i > inicio) {
+                String termino = termino(texto.substring(inicio, i));
+                if (termino != null) {
+                    tokens.add(new Token(termino, inicio, i));
+                }
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Normaliza una palabra: minúsculas y sin tildes
+     */
+    public static String normalizar(String palabra) {
+        String minusculas = palabra.toLowerCase(Locale.ROOT);
+        return MARCAS_DIACRITICAS.matcher(Normalizer.normalize(minusculas, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    /**
+     * Término del índice para una palabra, o null si es una palabra vacía
+     */
+    private static String termino(String palabra) {
+        String normalizada = normalizar(palabra);
+        if (PALABRAS_VACIAS.contains(normalizada)) {
+            return null;
+        }
+        return raiz(normalizada);
+    }
+
+    /**
+     * Stemmer ligero: quita la vocal final de género y los plurales.
+     * Las palabras de menos de 4 letras (plurales de menos de 5) y los números se dejan como están,
+     * así "dato" y "datos" comparten raíz.
+     */
+    static String raiz(String palabra) {
+        int n = palabra.length();
+        if (n < 4 || !Character.isLetter(palabra.charAt(n - 1))) {
+            return palabra;
+        }
+        switch (palabra.charAt(n - 1)) {
+            case 'o':
+            case 'a':
+            case 'e':
+                return palabra.substring(0, n - 1);
+            case 's':
+                if (n < 5) {
+                    return palabra;
+                }
+                // "meses" -> "mes", "luces" -> "luz", "cables" -> "cabl", "datos" -> "dat"
+                if (palabra.endsWith("eses")) {
+                    return palabra.substring(0, n - 2);
+                }
+                if (palabra.endsWith("ces")) {
+                    return palabra.substring(0, n - 3) + "z";
+                }
+                char anterior = palabra.charAt(n - 2);
+                if (anterior == 'o' || anterior == 'a' || anterior == 'e') {
+                    return palabra.substring(0, n - 2);
+                }
+                return palabra;
+            default:
+                return palabra;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.proyecto.backend.search;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Mantiene al día los índices en memoria construidos a partir de una tabla.
+ * Las filas que se leen tienen el ID del documento en la primera columna y sus textos en las demás;
+ * cada fila se pasa a todos los índices registrados, así que la tabla se recorre una sola vez
+ * aunque la usen varios índices.
+ * La reconstrucción llena índices nuevos y los sustituye al terminar: mientras tanto las búsquedas
+ * usan los anteriores y las actualizaciones esperan a que termine.
+ */
+public class FuenteIndices {
+
+    /** Siguiente lote de filas, por ID ascendente, después del ID indicado */
+    @FunctionalInterface
+    public interface Paginador {
+        List<Object[]> siguientes(long despuesDeId, int tamano);
+    }
+
+    /** Índice registrado en la fuente; actual() devuelve el vigente */
+    public static final class Indice<I> {
+
+        private final Supplier<I> crear;
+        private final BiConsumer<I, Object[]> indexar;
+        private final ObjLongConsumer<I> eliminar;
+
+        private volatile I actual;
+
+        // Índice en construcción; solo se usa con el monitor de la fuente tomado
+        private I siguiente;
+
+        private Indice(Supplier<I> crear, BiConsumer<I, Object[]> indexar, ObjLongConsumer<I> eliminar) {
+            this.crear = crear;
+            this.indexar = indexar;
+            this.eliminar = eliminar;
+            this.actual = crear.get();
+        }
+
+        public I actual() {
+            return actual;
+        }
+
+        private void empezar() {
+            siguiente = crear.get();
+        }
+
+        private void cargar(Object[] fila) {
+            indexar.accept(siguiente, fila);
+        }
+
+        private void terminar() {
+            actual = siguiente;
+            siguiente = null;
+        }
+
+        private void reindexar(Object[] fila) {
+            indexar.accept(actual, fila);
+        }
+
+        private void quitar(long id) {
+            eliminar.accept(actual, id);
+        }
+    }
+
+    private final Paginador paginador;
+    private final Function<Collection<Long>, List<Object[]>> lector;
+    private final int tamanoLote;
+
+    private final List<Indice<?>> indices = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param paginador Lectura de la tabla por lotes, para reconstruir
+     * @param lector Lectura de las filas con los IDs indicados, para actualizar
+     * @param tamanoLote Filas por lote al reconstruir
+     */
+    public FuenteIndices(Paginador paginador, Function<Collection<Long>, List<Object[]>> lector, int tamanoLote) {
+        this.paginador = paginador;
+        this.lector = lector;
+        this.tamanoLote = tamanoLote;
+    }
+
+    /**
+     * Registra un índice alimentado por esta fuente. Empieza vacío hasta la primera reconstrucción.
+     *
+     * @param crear Crea un índice vacío
+     * @param indexar Añade o sustituye en el índice el documento de una fila
+     * @param eliminar Quita un documento del índice por su ID
+     */
+    public <I> Indice<I> registrar(Supplier<I> crear, BiConsumer<I, Object[]> indexar, ObjLongConsumer<I> eliminar) {
+        Indice<I> indice = new Indice<>(crear, indexar, eliminar);
+        indices.add(indice);
+        return indice;
+    }
+
+    /**
+     * Vuelve a leer los documentos indicados: los que siguen existiendo se reindexan
+     * y los demás se quitan de todos los índices
+     */
+    public synchronized void actualizar(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Set<Long> pendientes = new HashSet<>(ids);
+        for (Object[] fila : lector.apply(pendientes)) {
+            for (Indice<?> indice : indices) {
+                indice.reindexar(fila);
+            }
+            pendientes.remove((Long) fila[0]);
+        }
+        for (Long id : pendientes) {
+            for (Indice<?> indice : indices) {
+                indice.quitar(id);
+            }
+        }
+    }
+
+    /**
+     * Aplica al índice vigente un cambio que no necesita releer la tabla (por ejemplo un contador
+     * ya leído). Espera a que termine la reconstrucción en curso, así el cambio no se pierde
+     * al sustituir el índice.
+     */
+    public synchronized <I> void modificar(Indice<I> indice, Consumer<I> cambio) {
+        cambio.accept(indice.actual);
+    }
+
+    /**
+     * Construye de nuevo todos los índices recorriendo la tabla por lotes de ID
+     *
+     * @return Número de filas leídas
+     */
+    public synchronized long reconstruir() {
+        indices.forEach(Indice::empezar);
+        long ultimoId = 0;
+        long leidas = 0;
+        List<Object[]> lote;
+        do {
+            lote = paginador.siguientes(ultimoId, tamanoLote);
+            for (Object[] fila : lote) {
+                ultimoId = (Long) fila[0];
+                for (Indice<?> indice : indices) {
+                    indice.cargar(fila);
+                }
+            }
+            leidas += lote.size();
+        } while (lote.size() == tamanoLote);
+
+        indices.forEach(Indice::terminar);
+        return leidas;
+    }
+}
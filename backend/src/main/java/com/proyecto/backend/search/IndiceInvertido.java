@@ -0,0 +1,219 @@
+package com.proyecto.backend.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongToDoubleFunction;
+
+/**
+ * Índice invertido en memoria de documentos con varios campos de texto.
+ * Para cada término guarda los documentos que lo contienen y cuántas veces aparece en cada campo,
+ * y ordena los resultados por relevancia con BM25F: los campos se ponderan con los pesos
+ * del constructor (p. ej. el título cuenta más que la descripción).
+ * Admite lecturas concurrentes; las escrituras son exclusivas.
+ */
+public class IndiceInvertido {
+
+    /** Documento encontrado y su puntuación de relevancia */
+    public record Resultado(long id, double puntuacion) {
+    }
+
+    /** Orden de los resultados: de mayor a menor puntuación y, a igualdad, por ID ascendente */
+    public static final Comparator<Resultado> ORDEN = Comparator.comparingDouble(Resultado::puntuacion).reversed()
+            .thenComparingLong(Resultado::id);
+
+    // Parámetros habituales de BM25: saturación de la frecuencia y normalización por longitud
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final double[] pesos;
+
+    // término -> (documento -> apariciones en cada campo)
+    private final Map<String, Map<Long, int[]>> postings = new HashMap<>();
+
+    // documento -> número de términos de cada campo
+    private final Map<Long, int[]> longitudes = new HashMap<>();
+
+    // documento -> términos distintos, para quitarlo de postings al reindexarlo o eliminarlo
+    private final Map<Long, String[]> terminosPorDocumento = new HashMap<>();
+
+    private final long[] sumaLongitudes;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * @param pesos Peso de cada campo, en el orden en que se pasan los textos a indexar
+     */
+    public IndiceInvertido(double... pesos) {
+        this.pesos = pesos.clone();
+        this.sumaLongitudes = new long[pesos.length];
+    }
+
+    /**
+     * Añade un documento o sustituye su versión anterior
+     *
+     * @param id ID del documento
+     * @param textos Texto de cada campo (null si está vacío)
+     */
+    public void indexar(long id, String... textos) {
+        if (textos.length != pesos.length) {
+            throw new IllegalArgumentException("Se esperaban " + pesos.length + " campos y hay " + textos.length);
+        }
+
+        // El análisis se hace fuera del bloqueo
+        Map<String, int[]> frecuencias = new HashMap<>();
+        int[] longitud = new int[pesos.length];
+        for (int campo = 0; campo < textos.length; campo++) {
+            for (String termino : AnalizadorEspanol.terminos(textos[campo])) {
+                frecuencias.computeIfAbsent(termino, t -> new int[pesos.length])[campo]++;
+                longitud[campo]++;
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            quitar(id);
+            for (Map.Entry<String, int[]> frecuencia : frecuencias.entrySet()) {
+                postings.computeIfAbsent(frecuencia.getKey(), t -> new HashMap<>()).put(id, frecuencia.getValue());
+            }
+            longitudes.put(id, longitud);
+            terminosPorDocumento.put(id, frecuencias.keySet().toArray(new String[0]));
+            for (int campo = 0; campo < longitud.length; campo++) {
+                sumaLongitudes[campo] += longitud[campo];
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quita un documento del índice (no hace nada si no está)
+     */
+    public void eliminar(long id) {
+        lock.writeLock().lock();
+        try {
+            quitar(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Número de documentos indexados
+     */
+    public int tamano() {
+        lock.readLock().lock();
+        try {
+            return longitudes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Busca los documentos que contienen alguno de los términos, de más a menos relevante.
+     * Devuelve solo los que van después del cursor (puntuación e ID del último resultado de la
+     * página anterior), como máximo limite.
+     *
+     * @param terminos Términos de la consulta, ya analizados
+     * @param cursorPuntuacion Puntuación del último resultado anterior, o null para empezar por el primero
+     * @param cursorId ID del último resultado anterior
+     * @param limite Número máximo de resultados
+     */
+    public List<Resultado> buscar(Collection<String> terminos, Double cursorPuntuacion, long cursorId, int limite) {
+        return buscar(terminos, cursorPuntuacion, cursorId, limite, id -> 1.0);
+    }
+
+    /**
+     * Como {@link #buscar(Collection, Double, long, int)}, pero la relevancia de cada documento
+     * se multiplica por factor(id) antes de ordenar y quedarse con los limite mejores
+     * (p. ej. para que cuenten los votos de una solución)
+     *
+     * @param factor Multiplicador de la relevancia de cada documento; se llama fuera del bloqueo
+     */
+    public List<Resultado> buscar(Collection<String> terminos, Double cursorPuntuacion, long cursorId, int limite,
+                                  LongToDoubleFunction factor) {
+        Set<String> distintos = new LinkedHashSet<>(terminos);
+        Map<Long, Double> puntuaciones = new HashMap<>();
+
+        lock.readLock().lock();
+        try {
+            int numDocumentos = longitudes.size();
+            if (numDocumentos == 0) {
+                return new ArrayList<>();
+            }
+            double[] longitudMedia = new double[pesos.length];
+            for (int campo = 0; campo < pesos.length; campo++) {
+                longitudMedia[campo] = Math.max(1.0, (double) sumaLongitudes[campo] / numDocumentos);
+            }
+
+            for (String termino : distintos) {
+                Map<Long, int[]> documentos = postings.get(termino);
+                if (documentos == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (numDocumentos - documentos.size() + 0.5) / (documentos.size() + 0.5));
+                for (Map.Entry<Long, int[]> documento : documentos.entrySet()) {
+                    int[] frecuencia = documento.getValue();
+                    int[] longitud = longitudes.get(documento.getKey());
+                    // Frecuencia ponderada y normalizada por la longitud de cada campo
+                    double tf = 0;
+                    for (int campo = 0; campo < pesos.length; campo++) {
+                        if (frecuencia[campo] > 0) {
+                            tf += pesos[campo] * frecuencia[campo]
+                                    / (1 - B + B * longitud[campo] / longitudMedia[campo]);
+                        }
+                    }
+                    puntuaciones.merge(documento.getKey(), idf * tf * (K1 + 1) / (tf + K1), Double::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Los limite mejores después del cursor, con un montículo cuya cabeza es el peor de ellos
+        Resultado cursor = cursorPuntuacion != null ? new Resultado(cursorId, cursorPuntuacion) : null;
+        PriorityQueue<Resultado> mejores = new PriorityQueue<>(limite + 1, ORDEN.reversed());
+        for (Map.Entry<Long, Double> puntuacion : puntuaciones.entrySet()) {
+            long id = puntuacion.getKey();
+            Resultado resultado = new Resultado(id, puntuacion.getValue() * factor.applyAsDouble(id));
+            if (cursor != null && ORDEN.compare(resultado, cursor) <= 0) {
+                continue;
+            }
+            mejores.add(resultado);
+            if (mejores.size() > limite) {
+                mejores.poll();
+            }
+        }
+
+        List<Resultado> resultados = new ArrayList<>(mejores);
+        resultados.sort(ORDEN);
+        return resultados;
+    }
+
+    private void quitar(long id) {
+        String[] terminos = terminosPorDocumento.remove(id);
+        if (terminos == null) {
+            return;
+        }
+        for (String termino : terminos) {
+            Map<Long, int[]> documentos = postings.get(termino);
+            documentos.remove(id);
+            if (documentos.isEmpty()) {
+                postings.remove(termino);
+            }
+        }
+        int[] longitud = longitudes.remove(id);
+        for (int campo = 0; campo < longitud.length; campo++) {
+            sumaLongitudes[campo] -= longitud[campo];
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.proyecto.backend.search;
+
+import com.proyecto.backend.util.HashUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice MinHash/LSH en memoria para encontrar textos casi iguales.
+ * Cada texto se reduce a su conjunto de shingles (términos sueltos y parejas de términos
+ * consecutivos, tras el AnalizadorEspanol) y este a una firma de BANDAS * FILAS valores MinHash:
+ * la fracción de valores que coinciden entre dos firmas estima la similitud de Jaccard
+ * de sus conjuntos. Las firmas se reparten en buckets por bandas (LSH), de modo que solo
+ * se comparan los documentos que coinciden en alguna banda completa, y por partición
+ * (p. ej. el producto): documentos de particiones distintas nunca se comparan.
+ * Con 16 bandas de 4 filas, un par con similitud 0,5 es candidato con probabilidad ~0,64
+ * y uno con similitud 0,7, con probabilidad ~0,99.
+ */
+public class IndiceMinHash {
+
+    /** Documento parecido y similitud estimada (de 0 a 1) */
+    public record Similar(long id, double similitud) {
+    }
+
+    private static final int BANDAS = 16;
+    private static final int FILAS = 4;
+    private static final int NUM_HASHES = BANDAS * FILAS;
+
+    // Semillas fijas: las firmas no cambian entre arranques
+    private static final long[] SEMILLAS = new SplittableRandom(0x5EED_1DE5L).longs(NUM_HASHES).toArray();
+
+    private record Documento(long particion, long[] firma) {
+    }
+
+    private final Map<Long, Documento> documentos = new HashMap<>();
+
+    // (partición, banda, valores de la banda) -> documentos con esa banda
+    private final Map<Long, Set<Long>> buckets = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Añade un documento o sustituye su versión anterior
+     *
+     * @param id ID del documento
+     * @param particion Partición del documento; solo se compara con los de la misma
+     * @param texto Texto del documento
+     */
+    public void indexar(long id, long particion, String texto) {
+        long[] firma = firma(texto);
+
+        lock.writeLock().lock();
+        try {
+            quitar(id);
+            if (firma == null) {
+                return;
+            }
+            documentos.put(id, new Documento(particion, firma));
+            for (int banda = 0; banda < BANDAS; banda++) {
+                buckets.computeIfAbsent(bucket(particion, banda, firma), b -> new HashSet<>()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quita un documento del índice (no hace nada si no está)
+     */
+    public void eliminar(long id) {
+        lock.writeLock().lock();
+        try {
+            quitar(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Número de documentos indexados
+     */
+    public int tamano() {
+        lock.readLock().lock();
+        try {
+            return documentos.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Documentos de la partición parecidos al texto, del más al menos parecido
+     *
+     * @param particion Partición en la que buscar
+     * @param texto Texto a comparar
+     * @param umbral Similitud mínima estimada (de 0 a 1)
+     * @param limite Número máximo de resultados
+     */
+    public List<Similar> buscar(long particion, String texto, double umbral, int limite) {
+        List<Similar> similares = new ArrayList<>();
+        long[] firma = firma(texto);
+        if (firma == null) {
+            return similares;
+        }
+
+        lock.readLock().lock();
+        try {
+            Set<Long> candidatos = new HashSet<>();
+            for (int banda = 0; banda < BANDAS; banda++) {
+                Set<Long> bucket = buckets.get(bucket(particion, banda, firma));
+                if (bucket != null) {
+                    candidatos.addAll(bucket);
+                }
+            }
+            for (Long candidato : candidatos) {
+                Documento documento = documentos.get(candidato);
+                // Otra partición con el mismo hash de bucket
+                if (documento.particion() != particion) {
+                    continue;
+                }
+                int iguales = 0;
+                for (int i = 0; i < NUM_HASHES; i++) {
+                    if (documento.firma()[i] == firma[i]) {
+                        iguales++;
+                    }
+                }
+                double similitud = (double) iguales / NUM_HASHES;
+                if (similitud >= umbral) {
+                    similares.add(new Similar(candidato, similitud));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        similares.sort(Comparator.comparingDouble(Similar::similitud).reversed().thenComparingLong(Similar::id));
+        return similares.size() > limite ? new ArrayList<>(similares.subList(0, limite)) : similares;
+    }
+
+    private void quitar(long id) {
+        Documento documento = documentos.remove(id);
+        if (documento == null) {
+            return;
+        }
+        for (int banda = 0; banda < BANDAS; banda++) {
+            long clave = bucket(documento.particion(), banda, documento.firma());
+            Set<Long> bucket = buckets.get(clave);
+            bucket.remove(id);
+            if (bucket.isEmpty()) {
+                buckets.remove(clave);
+            }
+        }
+    }
+
+    /**
+     * Firma MinHash del texto, o null si no tiene ningún término
+     */
+    static long[] firma(String texto) {
+        List<String> terminos = AnalizadorEspanol.terminos(texto);
+        if (terminos.isEmpty()) {
+            return null;
+        }
+
+        long[] firma = new long[NUM_HASHES];
+        Arrays.fill(firma, Long.MAX_VALUE);
+        for (int i = 0; i < terminos.size(); i++) {
+            anadirShingle(firma, hash(terminos.get(i)));
+            if (i > 0) {
+                anadirShingle(firma, hash(terminos.get(i - 1) + ' ' + terminos.get(i)));
+            }
+        }
+        return firma;
+    }
+
+    private static void anadirShingle(long[] firma, long shingle) {
+        for (int i = 0; i < NUM_HASHES; i++) {
+            long valor = HashUtils.mezclar(shingle ^ SEMILLAS[i]);
+            if (valor < firma[i]) {
+                firma[i] = valor;
+            }
+        }
+    }
+
+    private static long bucket(long particion, int banda, long[] firma) {
+        long clave = HashUtils.mezclar(particion * 31 + banda);
+        for (int i = banda * FILAS; i < (banda + 1) * FILAS; i++) {
+            clave = HashUtils.mezclar(clave ^ firma[i]);
+        }
+        return clave;
+    }
+
+    /**
+     * Hash FNV-1a de 64 bits de un shingle
+     */
+    private static long hash(String shingle) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < shingle.length(); i++) {
+            hash ^= shingle.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,195 @@
+package com.proyecto.backend.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Índice de prefijos en memoria para autocompletar los valores de varios campos
+ * (p. ej. nombre, marca y modelo de los productos).
+ * Cada valor distinto de un campo se guarda una vez con el número de documentos que lo tienen,
+ * bajo una clave por cada palabra en la que empieza ("Galaxy S21" se encuentra por "gal" y por "s2").
+ * Las claves van en un ConcurrentSkipListMap: las sugerencias de un prefijo son un rango
+ * contiguo del mapa y se leen sin bloqueo mientras se escribe.
+ */
+public class IndicePrefijos {
+
+    /** Valor sugerido, campo al que pertenece y número de documentos que lo tienen */
+    public record Sugerencia(String texto, int campo, int documentos) {
+    }
+
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+
+    // Separa en la clave la palabra indexada del campo y el valor normalizado completo
+    private static final char SEPARADOR = '\u0000';
+
+    private static final class Entrada {
+        final String texto;
+        final String normalizado;
+        final int campo;
+        volatile int documentos;
+
+        Entrada(String texto, String normalizado, int campo) {
+            this.texto = texto;
+            this.normalizado = normalizado;
+            this.campo = campo;
+        }
+    }
+
+    // Candidato de una búsqueda: a igualdad, primero los valores que empiezan por el prefijo
+    private record Candidata(Entrada entrada, boolean alInicio, int documentos) {
+    }
+
+    private static final Comparator<Candidata> ORDEN = Comparator
+            .comparing(Candidata::alInicio).reversed()
+            .thenComparing(Comparator.comparingInt(Candidata::documentos).reversed())
+            .thenComparing(c -> c.entrada().normalizado);
+
+    private final int numCampos;
+
+    // Estado de escritura, protegido por el monitor del índice
+    private final Map<Long, String[]> documentos = new HashMap<>();
+    private final Map<String, Entrada> entradas = new HashMap<>();
+
+    private final ConcurrentSkipListMap<String, Entrada> prefijos = new ConcurrentSkipListMap<>();
+
+    public IndicePrefijos(int numCampos) {
+        this.numCampos = numCampos;
+    }
+
+    /**
+     * Añade un documento o sustituye su versión anterior
+     *
+     * @param id ID del documento
+     * @param textos Valor de cada campo (null si no tiene)
+     */
+    public synchronized void indexar(long id, String... textos) {
+        if (textos.length != numCampos) {
+            throw new IllegalArgumentException("Se esperaban " + numCampos + " campos y hay " + textos.length);
+        }
+        quitar(id);
+        String[] valores = new String[numCampos];
+        for (int campo = 0; campo < numCampos; campo++) {
+            if (textos[campo] != null && !textos[campo].isBlank()) {
+                valores[campo] = textos[campo].strip();
+                anadir(campo, valores[campo]);
+            }
+        }
+        documentos.put(id, valores);
+    }
+
+    /**
+     * Quita un documento del índice (no hace nada si no está)
+     */
+    public synchronized void eliminar(long id) {
+        quitar(id);
+    }
+
+    /**
+     * Valores distintos de un campo, ordenados alfabéticamente
+     */
+    public synchronized List<String> valores(int campo) {
+        List<String> valores = new ArrayList<>();
+        for (Entrada entrada : entradas.values()) {
+            if (entrada.campo == campo) {
+                valores.add(entrada.texto);
+            }
+        }
+        valores.sort(String.CASE_INSENSITIVE_ORDER);
+        return valores;
+    }
+
+    /**
+     * Valores que tienen alguna palabra que empieza por el prefijo (sin distinguir mayúsculas
+     * ni tildes). Primero los que empiezan por él y después los más frecuentes.
+     *
+     * @param prefijo Texto escrito por el usuario
+     * @param limite Número máximo de sugerencias
+     */
+    public List<Sugerencia> sugerir(String prefijo, int limite) {
+        String normalizado = normalizar(prefijo);
+        if (normalizado.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<Entrada> vistas = Collections.newSetFromMap(new IdentityHashMap<>());
+        PriorityQueue<Candidata> mejores = new PriorityQueue<>(limite + 1, ORDEN.reversed());
+        for (Entrada entrada : prefijos.subMap(normalizado, normalizado + Character.MAX_VALUE).values()) {
+            if (!vistas.add(entrada)) {
+                continue;
+            }
+            mejores.add(new Candidata(entrada, entrada.normalizado.startsWith(normalizado), entrada.documentos));
+            if (mejores.size() > limite) {
+                mejores.poll();
+            }
+        }
+
+        List<Candidata> ordenadas = new ArrayList<>(mejores);
+        ordenadas.sort(ORDEN);
+        List<Sugerencia> sugerencias = new ArrayList<>(ordenadas.size());
+        for (Candidata candidata : ordenadas) {
+            sugerencias.add(new Sugerencia(candidata.entrada().texto, candidata.entrada().campo, candidata.documentos()));
+        }
+        return sugerencias;
+    }
+
+    private void anadir(int campo, String texto) {
+        String normalizado = normalizar(texto);
+        Entrada entrada = entradas.get(clave(campo, normalizado));
+        if (entrada == null) {
+            entrada = new Entrada(texto, normalizado, campo);
+            entradas.put(clave(campo, normalizado), entrada);
+            for (int inicio : iniciosDePalabra(normalizado)) {
+                prefijos.put(normalizado.substring(inicio) + SEPARADOR + clave(campo, normalizado), entrada);
+            }
+        }
+        entrada.documentos++;
+    }
+
+    private void quitar(long id) {
+        String[] valores = documentos.remove(id);
+        if (valores == null) {
+            return;
+        }
+        for (int campo = 0; campo < numCampos; campo++) {
+            if (valores[campo] == null) {
+                continue;
+            }
+            String normalizado = normalizar(valores[campo]);
+            Entrada entrada = entradas.get(clave(campo, normalizado));
+            if (--entrada.documentos == 0) {
+                entradas.remove(clave(campo, normalizado));
+                for (int inicio : iniciosDePalabra(normalizado)) {
+                    prefijos.remove(normalizado.substring(inicio) + SEPARADOR + clave(campo, normalizado));
+                }
+            }
+        }
+    }
+
+    private static String clave(int campo, String normalizado) {
+        return campo + String.valueOf(SEPARADOR) + normalizado;
+    }
+
+    private static List<Integer> iniciosDePalabra(String texto) {
+        List<Integer> inicios = new ArrayList<>();
+        for (int i = 0; i < texto.length(); i++) {
+            if (Character.isLetterOrDigit(texto.charAt(i))
+                    && (i == 0 || !Character.isLetterOrDigit(texto.charAt(i - 1)))) {
+                inicios.add(i);
+            }
+        }
+        return inicios;
+    }
+
+    private static String normalizar(String texto) {
+        return ESPACIOS.matcher(AnalizadorEspanol.normalizar(texto).strip()).replaceAll(" ");
+    }
+}
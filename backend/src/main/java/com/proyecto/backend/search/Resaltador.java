@@ -0,0 +1,96 @@
+package com.proyecto.backend.search;
+
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Marca con &lt;mark&gt; las palabras de un texto que coinciden con los términos de una búsqueda.
+ * El resto del texto se escapa, así el resultado se puede insertar como HTML sin riesgo.
+ */
+public final class Resaltador {
+
+    private static final String ELIPSIS = "…";
+
+    private Resaltador() {
+    }
+
+    /**
+     * Resalta el texto completo
+     *
+     * @param texto Texto original
+     * @param terminos Términos de la búsqueda, ya analizados
+     */
+    public static String resaltar(String texto, Set<String> terminos) {
+        if (texto == null) {
+            return null;
+        }
+        return resaltar(texto, AnalizadorEspanol.tokens(texto), terminos, 0, texto.length());
+    }
+
+    /**
+     * Fragmento del texto de unos longitud caracteres alrededor de la primera coincidencia,
+     * o el principio del texto si no hay ninguna
+     *
+     * @param texto Texto original
+     * @param terminos Términos de la búsqueda, ya analizados
+     * @param longitud Longitud aproximada del fragmento
+     */
+    public static String fragmento(String texto, Set<String> terminos, int longitud) {
+        if (texto == null) {
+            return null;
+        }
+        List<AnalizadorEspanol.Token> tokens = AnalizadorEspanol.tokens(texto);
+        if (texto.length() <= longitud) {
+            return resaltar(texto, tokens, terminos, 0, texto.length());
+        }
+
+        int primera = 0;
+        for (AnalizadorEspanol.Token token : tokens) {
+            if (terminos.contains(token.termino())) {
+                primera = token.inicio();
+                break;
+            }
+        }
+
+        // La coincidencia queda en el primer cuarto del fragmento, sin cortar palabras
+        int inicio = Math.max(0, Math.min(primera - longitud / 4, texto.length() - longitud));
+        while (inicio > 0 && inicio < primera && !Character.isWhitespace(texto.charAt(inicio - 1))) {
+            inicio++;
+        }
+        int fin = Math.min(texto.length(), inicio + longitud);
+        while (fin < texto.length() && fin > inicio && !Character.isWhitespace(texto.charAt(fin))) {
+            fin--;
+        }
+        if (fin <= primera) {
+            fin = Math.min(texto.length(), inicio + longitud);
+        }
+
+        String fragmento = resaltar(texto, tokens, terminos, inicio, fin).strip();
+        return (inicio > 0 ? ELIPSIS : "") + fragmento + (fin < texto.length() ? ELIPSIS : "");
+    }
+
+    private static String resaltar(String texto, List<AnalizadorEspanol.Token> tokens, Set<String> terminos,
+                                   int inicio, int fin) {
+        StringBuilder resultado = new StringBuilder();
+        int posicion = inicio;
+        for (AnalizadorEspanol.Token token : tokens) {
+            if (token.inicio() < inicio || token.fin() > fin || !terminos.contains(token.termino())) {
+                continue;
+            }
+            resultado.append(escapar(texto.substring(posicion, token.inicio())))
+                    .append("<mark>")
+                    .append(escapar(texto.substring(token.inicio(), token.fin())))
+                    .append("</mark>");
+            posicion = token.fin();
+        }
+        resultado.append(escapar(texto.substring(posicion, fin)));
+        return resultado.toString();
+    }
+
+    // Solo los caracteres especiales de HTML: las letras con tilde se dejan tal cual
+    private static String escapar(String texto) {
+        return HtmlUtils.htmlEscape(texto, "UTF-8");
+    }
+}
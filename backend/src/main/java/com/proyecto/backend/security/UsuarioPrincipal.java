@@ -0,0 +1,37 @@
+package com.proyecto.backend.security;
+
+import com.proyecto.backend.model.Usuario;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * Usuario autenticado de una petición, construido por JwtAuthenticationFilter solo con los
+ * claims del token (sin consultar la base de datos). Los controladores lo reciben con
+ * {@code @AuthenticationPrincipal}.
+ * El rol es el que tenía el usuario al iniciar sesión: un cambio de rol se aplica con el siguiente token.
+ *
+ * @param id ID del usuario
+ * @param username Nombre de usuario
+ * @param role Rol del usuario
+ */
+public record UsuarioPrincipal(Long id, String username, Usuario.Role role) implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public boolean esAdmin() {
+        return role == Usuario.Role.ADMIN;
+    }
+
+    /**
+     * Autoridades de Spring Security (ROLE_USER o ROLE_ADMIN), como en CustomUserDetailsService
+     */
+    public List<GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+}
@@ -0,0 +1,178 @@
+package com.proyecto.backend.service;
+
+import com.proyecto.backend.event.VotosVolcadosEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Acumula en memoria los votos de las soluciones y los escribe por lotes.
+ * Cada solución tiene un LongAdder, así muchos votos simultáneos a la misma solución no
+ * compiten por un único contador ni por la fila en la base de datos. Cada
+ * app.votos.intervalo-volcado-ms los incrementos pendientes se suman a soluciones.votos
+ * con UPDATE ... SET votos = votos + ? en un único batch, y se publica
+ * VotosVolcadosEvent con las soluciones afectadas.
+ */
+@Service
+public class AcumuladorVotosService {
+
+    private static final Logger log = LoggerFactory.getLogger(AcumuladorVotosService.class);
+
+    private static final String SQL_SUMAR_VOTOS = "UPDATE soluciones SET votos = votos + ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final ConcurrentHashMap<Long, LongAdder> pendientes = new ConcurrentHashMap<>();
+
+    // Al cerrar, los beans que escuchan los eventos ya pueden estar destruidos
+    private volatile boolean cerrando;
+
+    /**
+     * Registra un voto para una solución. No accede a la base de datos.
+     * Dentro de una transacción el voto se suma tras su commit: si se deshace no cuenta.
+     * Debe registrarse antes de publicar el ActividadUsuarioEvent del voto, para que se sume
+     * antes de que RankingService numere los eventos de la transacción.
+     */
+    public void registrar(Long solucionId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sumar(solucionId, 1);
+                }
+            });
+        } else {
+            sumar(solucionId, 1);
+        }
+    }
+
+    /**
+     * Votos registrados de una solución que todavía no se han escrito en la base de datos
+     */
+    public long pendientes(Long solucionId) {
+        LongAdder votos = pendientes.get(solucionId);
+        return votos != null ? votos.sum() : 0;
+    }
+
+    /**
+     * Votos pendientes de cada solución con alguno
+     */
+    public Map<Long, Long> pendientes() {
+        Map<Long, Long> copia = new HashMap<>();
+        pendientes.forEach((solucionId, votos) -> {
+            long suma = votos.sum();
+            if (suma != 0) {
+                copia.put(solucionId, suma);
+            }
+        });
+        return copia;
+    }
+
+    /**
+     * Ejecuta la acción sin ningún volcado en curso: cada voto que ya no está pendiente
+     * está escrito en la base de datos
+     */
+    public synchronized <T> T sinVolcar(Supplier<T> accion) {
+        return accion.get();
+    }
+
+    /**
+     * Descarta los votos pendientes de una solución eliminada o cuyos votos se fijan a mano
+     *
+     * @return Votos descartados
+     */
+    public long descartar(Long solucionId) {
+        LongAdder votos = pendientes.remove(solucionId);
+        // Lo que sumar() añada a este contador a partir de ahora lo traslada a uno nuevo
+        return votos != null ? votos.sumThenReset() : 0;
+    }
+
+    /**
+     * Escribe en la base de datos los votos pendientes. Si la escritura falla,
+     * los votos vuelven a los contadores y se reintentan en el siguiente volcado.
+     */
+    @Scheduled(fixedDelayString = "${app.votos.intervalo-volcado-ms:250}")
+    public synchronized void volcar() {
+        List<Object[]> lote = new ArrayList<>();
+        for (Map.Entry<Long, LongAdder> entrada : pendientes.entrySet()) {
+            Long solucionId = entrada.getKey();
+            LongAdder votos = entrada.getValue();
+            long delta = votos.sumThenReset();
+            if (delta != 0) {
+                lote.add(new Object[]{delta, solucionId});
+            } else if (pendientes.remove(solucionId, votos)) {
+                // Sin votos desde el volcado anterior: se retira el contador. Lo que llegara
+                // entre la lectura y la retirada se pasa a un contador nuevo
+                trasladar(solucionId, votos);
+            }
+        }
+        if (lote.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(SQL_SUMAR_VOTOS, lote));
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron guardar los votos de {} soluciones, se reintentará: {}", lote.size(), e.getMessage());
+            for (Object[] fila : lote) {
+                sumar((Long) fila[1], (Long) fila[0]);
+            }
+            return;
+        }
+        if (!cerrando) {
+            eventPublisher.publishEvent(new VotosVolcadosEvent(lote.stream().map(fila -> (Long) fila[1]).toList()));
+        }
+    }
+
+    /**
+     * Escribe los votos pendientes antes de cerrar la aplicación
+     */
+    @PreDestroy
+    public void cerrar() {
+        cerrando = true;
+        volcar();
+    }
+
+    private void sumar(Long solucionId, long votos) {
+        LongAdder contador = pendientes.get(solucionId);
+        if (contador == null) {
+            contador = pendientes.computeIfAbsent(solucionId, id -> new LongAdder());
+        }
+        contador.add(votos);
+        // Si volcar() retiró el contador mientras tanto, su contenido se pasa al vigente.
+        // sumThenReset vacía cada celda de forma atómica, así cada voto se traslada una sola vez
+        if (pendientes.get(solucionId) != contador) {
+            trasladar(solucionId, contador);
+        }
+    }
+
+    private void trasladar(Long solucionId, LongAdder retirado) {
+        long resto = retirado.sumThenReset();
+        if (resto != 0) {
+            sumar(solucionId, resto);
+        }
+    }
+}
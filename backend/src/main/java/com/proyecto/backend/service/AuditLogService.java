@@ -1,12 +1,16 @@
 package com.proyecto.backend.service;
 
+import com.proyecto.backend.dto.CursorPage;
 import com.proyecto.backend.model.AuditLog;
 import com.proyecto.backend.repository.AuditLogRepository;
+import com.proyecto.backend.util.CursorCodec;
+import com.proyecto.backend.util.Paginacion;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Function;
 
 @Service
 public class AuditLogService {
@@ -42,31 +46,43 @@ public class AuditLogService {
     }
 
     /**
-     * Obtiene el historial de auditoría de una entidad
+     * Obtiene una página del historial de auditoría de una entidad
      */
-    public List<AuditLog> obtenerHistorialEntidad(String entidad, Long entidadId) {
-        return auditLogRepository.findByEntidadId(entidadId);
+    public CursorPage<AuditLog> obtenerHistorialEntidad(String entidad, Long entidadId, String after, Integer limit) {
+        int limite = Paginacion.limite(limit);
+        List<AuditLog> logs = auditLogRepository.findByEntidadAndEntidadIdAndIdGreaterThanOrderByIdAsc(
+                entidad, entidadId, CursorCodec.decodificarId(after), Paginacion.siguientes(limite));
+        return Paginacion.paginaPorId(logs, limite, AuditLog::getId, Function.identity());
     }
 
     /**
-     * Obtiene el historial de operaciones de un usuario
+     * Obtiene una página del historial de operaciones de un usuario
      */
-    public List<AuditLog> obtenerHistorialUsuario(Long usuarioId) {
-        return auditLogRepository.findByUsuarioId(usuarioId);
+    public CursorPage<AuditLog> obtenerHistorialUsuario(Long usuarioId, String after, Integer limit) {
+        int limite = Paginacion.limite(limit);
+        List<AuditLog> logs = auditLogRepository.findByUsuarioIdAndIdGreaterThanOrderByIdAsc(
+                usuarioId, CursorCodec.decodificarId(after), Paginacion.siguientes(limite));
+        return Paginacion.paginaPorId(logs, limite, AuditLog::getId, Function.identity());
     }
 
     /**
-     * Obtiene auditorías dentro de un rango de fechas
+     * Obtiene una página de auditorías dentro de un rango de fechas
      */
-    public List<AuditLog> obtenerPorRangoFechas(LocalDateTime inicio, LocalDateTime fin) {
-        return auditLogRepository.findByFechaOperacionBetween(inicio, fin);
+    public CursorPage<AuditLog> obtenerPorRangoFechas(LocalDateTime inicio, LocalDateTime fin, String after, Integer limit) {
+        int limite = Paginacion.limite(limit);
+        List<AuditLog> logs = auditLogRepository.findByFechaOperacionBetweenAndIdGreaterThanOrderByIdAsc(
+                inicio, fin, CursorCodec.decodificarId(after), Paginacion.siguientes(limite));
+        return Paginacion.paginaPorId(logs, limite, AuditLog::getId, Function.identity());
     }
 
     /**
-     * Obtiene todas las auditorías de un tipo de entidad
+     * Obtiene una página de las auditorías de un tipo de entidad
      */
-    public List<AuditLog> obtenerPorEntidad(String entidad) {
-        return auditLogRepository.findByEntidad(entidad);
+    public CursorPage<AuditLog> obtenerPorEntidad(String entidad, String after, Integer limit) {
+        int limite = Paginacion.limite(limit);
+        List<AuditLog> logs = auditLogRepository.findByEntidadAndIdGreaterThanOrderByIdAsc(
+                entidad, CursorCodec.decodificarId(after), Paginacion.siguientes(limite));
+        return Paginacion.paginaPorId(logs, limite, AuditLog::getId, Function.identity());
     }
 }
 
@@ -0,0 +1,179 @@
+package com.proyecto.backend.service;
+
+import com.proyecto.backend.dto.BusquedaGlobalDTO;
+import com.proyecto.backend.dto.IncidenciaBusquedaDTO;
+import com.proyecto.backend.dto.ProductoBusquedaDTO;
+import com.proyecto.backend.dto.ResultadoBusquedaDTO;
+import com.proyecto.backend.dto.SolucionBusquedaDTO;
+import com.proyecto.backend.dto.SolucionesIncidenciaBusquedaDTO;
+import com.proyecto.backend.exception.ValidationException;
+import com.proyecto.backend.model.Usuario;
+import com.proyecto.backend.repository.UsuarioRepository;
+import com.proyecto.backend.util.Paginacion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Búsqueda global en incidencias, soluciones, productos y usuarios.
+ * Cada fuente se consulta en paralelo en busquedaExecutor y se espera como mucho
+ * app.busqueda.timeout-ms desde el inicio de la petición: la respuesta tarda lo que la fuente
+ * más lenta, y una fuente que no llega a tiempo se cancela y se devuelve como no disponible
+ * sin retrasar a las demás.
+ */
+@Service
+public class BusquedaGlobalService {
+
+    private static final Logger log = LoggerFactory.getLogger(BusquedaGlobalService.class);
+
+    // Constante de Reciprocal Rank Fusion: suaviza la ventaja de los primeros puestos
+    private static final int K_FUSION = 60;
+
+    /** Fuentes de la búsqueda, en el orden en que se desempatan sus resultados */
+    public enum Fuente {
+        INCIDENCIA, SOLUCION, PRODUCTO, USUARIO
+    }
+
+    @Autowired
+    private BusquedaIncidenciasService busquedaIncidenciasService;
+
+    @Autowired
+    private BusquedaSolucionesService busquedaSolucionesService;
+
+    @Autowired
+    private SugerenciasProductosService sugerenciasProductosService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    @Qualifier("busquedaExecutor")
+    private ThreadPoolTaskExecutor busquedaExecutor;
+
+    // Espera máxima por las fuentes, contada desde que se lanzan
+    @Value("${app.busqueda.timeout-ms:500}")
+    private long timeoutMs;
+
+    /**
+     * Busca el texto en todas las fuentes y mezcla sus resultados.
+     * Las puntuaciones de cada fuente no son comparables entre sí, así que los resultados se
+     * ordenan por su posición en su fuente (Reciprocal Rank Fusion: 1 / (K_FUSION + posición)).
+     *
+     * @param q Texto a buscar
+     * @param limit Número de resultados por fuente y en total, null para el valor por defecto
+     * @throws ValidationException Si no hay texto o el límite no es válido
+     */
+    public BusquedaGlobalDTO buscar(String q, Integer limit) {
+        if (q == null || q.isBlank()) {
+            throw new ValidationException("Debe indicar el texto a buscar");
+        }
+        int limite = Paginacion.limite(limit);
+        String texto = q.strip();
+
+        long plazo = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        Map<Fuente, Future<List<ResultadoBusquedaDTO>>> consultas = new EnumMap<>(Fuente.class);
+        List<String> noDisponibles = new ArrayList<>();
+        for (Fuente fuente : Fuente.values()) {
+            try {
+                consultas.put(fuente, busquedaExecutor.submit(() -> consultar(fuente, texto, limite)));
+            } catch (RejectedExecutionException e) {
+                log.warn("Búsqueda global: cola llena, se omite la fuente {}", fuente);
+                noDisponibles.add(fuente.name());
+            }
+        }
+
+        List<ResultadoBusquedaDTO> resultados = new ArrayList<>();
+        for (Map.Entry<Fuente, Future<List<ResultadoBusquedaDTO>>> consulta : consultas.entrySet()) {
+            Fuente fuente = consulta.getKey();
+            try {
+                List<ResultadoBusquedaDTO> deFuente = consulta.getValue()
+                        .get(Math.max(0, plazo - System.nanoTime()), TimeUnit.NANOSECONDS);
+                for (int posicion = 0; posicion < deFuente.size(); posicion++) {
+                    ResultadoBusquedaDTO resultado = deFuente.get(posicion);
+                    resultado.setPuntuacion(1.0 / (K_FUSION + posicion + 1));
+                    resultados.add(resultado);
+                }
+            } catch (TimeoutException e) {
+                consulta.getValue().cancel(true);
+                log.warn("Búsqueda global: la fuente {} no respondió en {} ms", fuente, timeoutMs);
+                noDisponibles.add(fuente.name());
+            } catch (ExecutionException e) {
+                log.warn("Búsqueda global: error en la fuente {}", fuente, e.getCause());
+                noDisponibles.add(fuente.name());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                consulta.getValue().cancel(true);
+                noDisponibles.add(fuente.name());
+            }
+        }
+
+        // Ordenación estable: a igual posición, en el orden de las fuentes
+        resultados.sort(Comparator.comparingDouble(ResultadoBusquedaDTO::getPuntuacion).reversed());
+        if (resultados.size() > limite) {
+            resultados = new ArrayList<>(resultados.subList(0, limite));
+        }
+        return new BusquedaGlobalDTO(resultados, noDisponibles);
+    }
+
+    /**
+     * Resultados de una fuente, del mejor al peor
+     */
+    private List<ResultadoBusquedaDTO> consultar(Fuente fuente, String texto, int limite) {
+        List<ResultadoBusquedaDTO> resultados = new ArrayList<>();
+        switch (fuente) {
+            case INCIDENCIA:
+                for (IncidenciaBusquedaDTO r : busquedaIncidenciasService.buscar(texto, null, limite).getItems()) {
+                    resultados.add(new ResultadoBusquedaDTO(fuente.name(), r.getIncidencia().getId(),
+                            r.getIncidencia().getTitulo(), r.getDescripcionResaltada(), 0));
+                }
+                break;
+            case SOLUCION:
+                // Una por incidencia: su mejor solución
+                for (SolucionesIncidenciaBusquedaDTO grupo : busquedaSolucionesService.buscar(texto, limite)) {
+                    SolucionBusquedaDTO mejor = grupo.getSoluciones().get(0);
+                    resultados.add(new ResultadoBusquedaDTO(fuente.name(), mejor.getSolucion().getId(),
+                            grupo.getIncidenciaTitulo(), mejor.getDescripcionResaltada(), 0));
+                }
+                break;
+            case PRODUCTO:
+                for (ProductoBusquedaDTO p : sugerenciasProductosService.buscar(texto, limite)) {
+                    resultados.add(new ResultadoBusquedaDTO(fuente.name(), p.getId(), p.getNombre(),
+                            detalleProducto(p), 0));
+                }
+                break;
+            case USUARIO:
+                for (Usuario u : usuarioRepository.findByUsernameStartingWithOrderByUsernameAsc(
+                        texto, PageRequest.of(0, limite))) {
+                    resultados.add(new ResultadoBusquedaDTO(fuente.name(), u.getId(), u.getUsername(), null, 0));
+                }
+                break;
+        }
+        return resultados;
+    }
+
+    // Marca y modelo, si los tiene
+    private static String detalleProducto(ProductoBusquedaDTO producto) {
+        String detalle = Stream.of(producto.getMarca(), producto.getModelo())
+                .filter(valor -> valor != null && !valor.isBlank())
+                .collect(Collectors.joining(" "));
+        return detalle.isEmpty() ? null : detalle;
+    }
+}
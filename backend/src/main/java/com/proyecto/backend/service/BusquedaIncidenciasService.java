@@ -0,0 +1,112 @@
+package com.proyecto.backend.service;
+
+import com.proyecto.backend.dto.CursorPage;
+import com.proyecto.backend.dto.IncidenciaBusquedaDTO;
+import com.proyecto.backend.dto.IncidenciaDTO;
+import com.proyecto.backend.exception.ValidationException;
+import com.proyecto.backend.repository.IncidenciaRepository;
+import com.proyecto.backend.search.AnalizadorEspanol;
+import com.proyecto.backend.search.FuenteIndices;
+import com.proyecto.backend.search.IndiceInvertido;
+import com.proyecto.backend.search.Resaltador;
+import com.proyecto.backend.util.CursorCodec;
+import com.proyecto.backend.util.Paginacion;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Búsqueda de texto completo en el título y la descripción de las incidencias.
+ * Usa un índice invertido en memoria (sin LIKE '%...%' sobre la tabla) que mantiene
+ * al día IndicesIncidenciasService. Los resultados se ordenan por relevancia
+ * (BM25, el título pesa el doble) y se paginan con cursor sobre (puntuación, id).
+ */
+@Service
+public class BusquedaIncidenciasService {
+
+    private static final double PESO_TITULO = 2.0;
+    private static final double PESO_DESCRIPCION = 1.0;
+    private static final int LONGITUD_FRAGMENTO = 160;
+
+    @Autowired
+    private IncidenciaRepository incidenciaRepository;
+
+    @Autowired
+    private IndicesIncidenciasService indicesIncidencias;
+
+    private FuenteIndices.Indice<IndiceInvertido> indice;
+
+    @PostConstruct
+    void init() {
+        // fila: id, título, descripción, ID del producto
+        indice = indicesIncidencias.registrar(() -> new IndiceInvertido(PESO_TITULO, PESO_DESCRIPCION),
+                (destino, fila) -> destino.indexar((Long) fila[0], (String) fila[1], (String) fila[2]),
+                IndiceInvertido::eliminar);
+    }
+
+    /**
+     * Busca incidencias por su título y descripción, de la más relevante a la menos.
+     * Ignora mayúsculas, tildes, plurales y palabras vacías.
+     *
+     * @param q Texto a buscar
+     * @param after Cursor devuelto en la página anterior, null para la primera
+     * @param limit Tamaño de página, null para el tamaño por defecto
+     * @throws ValidationException Si no hay texto o el cursor o el límite no son válidos
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<IncidenciaBusquedaDTO> buscar(String q, String after, Integer limit) {
+        if (q == null || q.isBlank()) {
+            throw new ValidationException("Debe indicar el texto a buscar");
+        }
+        int limite = Paginacion.limite(limit);
+
+        Double cursorPuntuacion = null;
+        long cursorId = 0;
+        if (after != null && !after.isBlank()) {
+            String[] partes = CursorCodec.decodificar(after, 2);
+            try {
+                cursorPuntuacion = Double.valueOf(partes[0]);
+                cursorId = Long.parseLong(partes[1]);
+            } catch (NumberFormatException e) {
+                throw new ValidationException("Cursor no válido", e);
+            }
+        }
+
+        List<String> terminos = AnalizadorEspanol.terminos(q);
+        List<IndiceInvertido.Resultado> resultados = terminos.isEmpty()
+                ? List.of()
+                : indice.actual().buscar(terminos, cursorPuntuacion, cursorId, limite + 1);
+
+        List<IncidenciaBusquedaDTO> encontradas = new ArrayList<>();
+        if (!resultados.isEmpty()) {
+            Map<Long, IncidenciaDTO> incidencias = new HashMap<>();
+            for (IncidenciaDTO incidencia : incidenciaRepository.findDTOByIds(
+                    resultados.stream().map(IndiceInvertido.Resultado::id).toList())) {
+                incidencias.put(incidencia.getId(), incidencia);
+            }
+            Set<String> resaltar = new HashSet<>(terminos);
+            for (IndiceInvertido.Resultado resultado : resultados) {
+                IncidenciaDTO incidencia = incidencias.get(resultado.id());
+                if (incidencia == null) {
+                    continue;
+                }
+                encontradas.add(new IncidenciaBusquedaDTO(incidencia, resultado.puntuacion(),
+                        Resaltador.resaltar(incidencia.getTitulo(), resaltar),
+                        Resaltador.fragmento(incidencia.getDescripcion(), resaltar, LONGITUD_FRAGMENTO)));
+            }
+        }
+
+        return Paginacion.pagina(encontradas, limite,
+                r -> CursorCodec.codificar(r.getPuntuacion(), r.getIncidencia().getId()),
+                Function.identity());
+    }
+}
@@ -0,0 +1,205 @@
+package com.proyecto.backend.service;
+
+import com.proyecto.backend.dto.SolucionBusquedaDTO;
+import com.proyecto.backend.dto.SolucionDTO;
+import com.proyecto.backend.dto.SolucionesIncidenciaBusquedaDTO;
+import com.proyecto.backend.event.SolucionesModificadasEvent;
+import com.proyecto.backend.event.VotosVolcadosEvent;
+import com.proyecto.backend.exception.ValidationException;
+import com.proyecto.backend.repository.SolucionRepository;
+import com.proyecto.backend.search.AnalizadorEspanol;
+import com.proyecto.backend.search.FuenteIndices;
+import com.proyecto.backend.search.IndiceInvertido;
+import com.proyecto.backend.search.Resaltador;
+import com.proyecto.backend.util.Paginacion;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongToDoubleFunction;
+
+/**
+ * Búsqueda de texto completo en la descripción de las soluciones, con los resultados
+ * agrupados por incidencia. Usa un índice invertido en memoria (sin LIKE '%...%' sobre la tabla)
+ * que se construye al arrancar y se actualiza tras el commit de cada escritura con
+ * SolucionesModificadasEvent.
+ * Junto al texto se guardan los votos de cada solución, de modo que el índice pondera
+ * los votos (más los pendientes de volcar) antes de quedarse con las MAXIMO_CANDIDATAS mejores.
+ * Cuando AcumuladorVotosService vuelca votos (VotosVolcadosEvent) solo se releen y se
+ * sustituyen los votos, sin volver a indexar el texto.
+ */
+@Service
+public class BusquedaSolucionesService {
+
+    private static final Logger log = LoggerFactory.getLogger(BusquedaSolucionesService.class);
+
+    private static final int TAMANO_LOTE = 1_000;
+    private static final int LONGITUD_FRAGMENTO = 160;
+
+    // Soluciones más relevantes que se leen para formar los grupos
+    private static final int MAXIMO_CANDIDATAS = 500;
+
+    // Soluciones que se devuelven de cada incidencia
+    private static final int SOLUCIONES_POR_INCIDENCIA = 3;
+
+    // Peso de los votos: la relevancia se multiplica por 1 + PESO_VOTOS * ln(1 + votos)
+    // (x1 sin votos, x1,6 con 10, x2,2 con 100)
+    private static final double PESO_VOTOS = 0.25;
+
+    @Autowired
+    private SolucionRepository solucionRepository;
+
+    @Autowired
+    private AcumuladorVotosService acumuladorVotos;
+
+    /** Índice de texto de las soluciones y sus votos en la base de datos al indexarlas */
+    private static final class IndiceSoluciones {
+
+        final IndiceInvertido texto = new IndiceInvertido(1.0);
+        final Map<Long, Integer> votos = new ConcurrentHashMap<>();
+
+        // fila: id, descripción, votos
+        void indexar(Object[] fila) {
+            votos.put((Long) fila[0], (Integer) fila[2]);
+            texto.indexar((Long) fila[0], (String) fila[1]);
+        }
+
+        // fila: id, votos. Las soluciones que no están en el índice se ignoran
+        void actualizarVotos(Object[] fila) {
+            votos.computeIfPresent((Long) fila[0], (id, anteriores) -> (Integer) fila[1]);
+        }
+
+        void eliminar(long id) {
+            texto.eliminar(id);
+            votos.remove(id);
+        }
+    }
+
+    private FuenteIndices fuente;
+    private FuenteIndices.Indice<IndiceSoluciones> indice;
+
+    @PostConstruct
+    void init() {
+        fuente = new FuenteIndices(
+                (despuesDe, tamano) -> solucionRepository.findTextosPagina(despuesDe, PageRequest.of(0, tamano)),
+                solucionRepository::findTextosByIds, TAMANO_LOTE);
+        indice = fuente.registrar(IndiceSoluciones::new, IndiceSoluciones::indexar, IndiceSoluciones::eliminar);
+    }
+
+    /**
+     * Busca soluciones por su descripción y las agrupa por incidencia. Las soluciones se puntúan
+     * por relevancia del texto y votos; cada incidencia, por su mejor solución.
+     * Ignora mayúsculas, tildes, plurales y palabras vacías.
+     *
+     * @param q Texto a buscar
+     * @param limit Número de incidencias, null para el valor por defecto (máximo Paginacion.LIMITE_MAXIMO)
+     * @return Incidencias de la mejor a la peor, con como máximo SOLUCIONES_POR_INCIDENCIA soluciones cada una
+     * @throws ValidationException Si no hay texto o el límite no es válido
+     */
+    @Transactional(readOnly = true)
+    public List<SolucionesIncidenciaBusquedaDTO> buscar(String q, Integer limit) {
+        if (q == null || q.isBlank()) {
+            throw new ValidationException("Debe indicar el texto a buscar");
+        }
+        int limite = Paginacion.limite(limit);
+
+        List<String> terminos = AnalizadorEspanol.terminos(q);
+        IndiceSoluciones actual = indice.actual();
+        // Los votos cuentan antes de quedarse con las mejores, no solo al ordenarlas
+        LongToDoubleFunction factor = id ->
+                factorVotos(actual.votos.getOrDefault(id, 0) + acumuladorVotos.pendientes(id));
+        List<IndiceInvertido.Resultado> resultados = terminos.isEmpty()
+                ? List.of()
+                : actual.texto.buscar(terminos, null, 0, MAXIMO_CANDIDATAS, factor);
+        if (resultados.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, SolucionDTO> soluciones = new HashMap<>();
+        for (SolucionDTO solucion : solucionRepository.findDTOByIds(
+                resultados.stream().map(IndiceInvertido.Resultado::id).toList())) {
+            soluciones.put(solucion.getId(), solucion);
+        }
+
+        Set<String> resaltar = new HashSet<>(terminos);
+        List<SolucionBusquedaDTO> encontradas = new ArrayList<>();
+        for (IndiceInvertido.Resultado resultado : resultados) {
+            SolucionDTO solucion = soluciones.get(resultado.id());
+            // Eliminada entre la búsqueda en el índice y la consulta
+            if (solucion == null) {
+                continue;
+            }
+            long votos = Math.max(0, solucion.getVotos() + acumuladorVotos.pendientes(solucion.getId()));
+            solucion.setVotos((int) votos);
+            // La puntuación del índice ya incluye los votos
+            encontradas.add(new SolucionBusquedaDTO(solucion, resultado.puntuacion() / factorVotos(votos),
+                    resultado.puntuacion(),
+                    Resaltador.fragmento(solucion.getDescripcion(), resaltar, LONGITUD_FRAGMENTO)));
+        }
+
+        // Las incidencias quedan en el orden de su mejor solución
+        Map<Long, SolucionesIncidenciaBusquedaDTO> grupos = new LinkedHashMap<>();
+        for (SolucionBusquedaDTO encontrada : encontradas) {
+            SolucionDTO solucion = encontrada.getSolucion();
+            SolucionesIncidenciaBusquedaDTO grupo = grupos.get(solucion.getIncidenciaId());
+            if (grupo == null) {
+                if (grupos.size() == limite) {
+                    continue;
+                }
+                grupo = new SolucionesIncidenciaBusquedaDTO(solucion.getIncidenciaId(),
+                        solucion.getIncidenciaTitulo(), encontrada.getPuntuacion(), new ArrayList<>());
+                grupos.put(solucion.getIncidenciaId(), grupo);
+            }
+            if (grupo.getSoluciones().size() < SOLUCIONES_POR_INCIDENCIA) {
+                grupo.getSoluciones().add(encontrada);
+            }
+        }
+        return new ArrayList<>(grupos.values());
+    }
+
+    /**
+     * Actualiza en el índice las soluciones modificadas
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarSoluciones(SolucionesModificadasEvent evento) {
+        fuente.actualizar(evento.ids());
+    }
+
+    /**
+     * Actualiza en el índice los votos volcados. La lectura se hace antes de tomar el monitor
+     * de la fuente; con él solo se sustituyen los contadores.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alVolcarVotos(VotosVolcadosEvent evento) {
+        List<Object[]> filas = solucionRepository.findVotosByIds(evento.ids());
+        fuente.modificar(indice, actual -> filas.forEach(actual::actualizarVotos));
+    }
+
+    /**
+     * Construye el índice desde la base de datos
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        long cargadas = fuente.reconstruir();
+        log.info("Índice de búsqueda de soluciones construido con {} soluciones", cargadas);
+    }
+
+    private static double factorVotos(long votos) {
+        return 1 + PESO_VOTOS * Math.log1p(Math.max(0, votos));
+    }
+}
@@ -1,12 +1,15 @@
 package com.proyecto.backend.service;
 
 import com.proyecto.backend.dto.ComentarioIncidenciaDTO;
+import com.proyecto.backend.dto.CursorPage;
 import com.proyecto.backend.dto.ComentarioIncidenciaCreateDTO;
 import com.proyecto.backend.dto.UsuarioDTO;
 import com.proyecto.backend.model.ComentarioIncidencia;
 import com.proyecto.backend.model.Usuario;
 import com.proyecto.backend.repository.ComentarioIncidenciaRepository;
 import com.proyecto.backend.repository.UsuarioRepository;
+import com.proyecto.backend.util.CursorCodec;
+import com.proyecto.backend.util.Paginacion;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -14,7 +17,7 @@ import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 /**
  * Servicio para gestionar comentarios en incidencias
@@ -29,52 +32,51 @@ public class ComentarioIncidenciaService {
     private UsuarioRepository usuarioRepository;
 
     /**
-     * Obtiene todos los comentarios
+     * Obtiene una página de comentarios ordenados por ID
      */
-    public List<ComentarioIncidenciaDTO> obtenerTodos() {
-        return comentarioRepository.findAll()
-                .stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
+    public CursorPage<ComentarioIncidenciaDTO> obtenerTodos(String after, Integer limit) {
+        int limite = Paginacion.limite(limit);
+        List<ComentarioIncidenciaDTO> comentarios = comentarioRepository.findDTOPagina(
+                CursorCodec.decodificarId(after), Paginacion.siguientes(limite));
+        return Paginacion.paginaPorId(comentarios, limite, ComentarioIncidenciaDTO::getId, Function.identity());
     }
 
     /**
      * Obtiene un comentario por ID
      */
     public ComentarioIncidenciaDTO obtenerPorId(Long id) {
-        ComentarioIncidencia comentario = comentarioRepository.findById(id)
+        return comentarioRepository.findDTOById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Comentario no encontrado"));
-        return convertirADTO(comentario);
     }
 
     /**
-     * Obtiene comentarios de una incidencia
+     * Obtiene una página de comentarios de una incidencia
      */
-    public List<ComentarioIncidenciaDTO> obtenerPorIncidencia(Long incidenciaId) {
-        return comentarioRepository.findByIncidenciaId(incidenciaId)
-                .stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
+    public CursorPage<ComentarioIncidenciaDTO> obtenerPorIncidencia(Long incidenciaId, String after, Integer limit) {
+        int limite = Paginacion.limite(limit);
+        List<ComentarioIncidenciaDTO> comentarios = comentarioRepository.findDTOPaginaByIncidencia(
+                incidenciaId, CursorCodec.decodificarId(after), Paginacion.siguientes(limite));
+        return Paginacion.paginaPorId(comentarios, limite, ComentarioIncidenciaDTO::getId, Function.identity());
     }
 
     /**
-     * Obtiene comentarios de un usuario
+     * Obtiene una página de comentarios de un usuario
      */
-    public List<ComentarioIncidenciaDTO> obtenerPorUsuario(Long usuarioId) {
-        return comentarioRepository.findByUsuarioId(usuarioId)
-                .stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
+    public CursorPage<ComentarioIncidenciaDTO> obtenerPorUsuario(Long usuarioId, String after, Integer limit) {
+        int limite = Paginacion.limite(limit);
+        List<ComentarioIncidenciaDTO> comentarios = comentarioRepository.findDTOPaginaByUsuario(
+                usuarioId, CursorCodec.decodificarId(after), Paginacion.siguientes(limite));
+        return Paginacion.paginaPorId(comentarios, limite, ComentarioIncidenciaDTO::getId, Function.identity());
     }
 
     /**
-     * Obtiene soluciones de una incidencia
+     * Obtiene una página de soluciones de una incidencia
      */
-    public List<ComentarioIncidenciaDTO> obtenerSolucionesIncidencia(Long incidenciaId) {
-        return comentarioRepository.findByIncidenciaIdAndEsSolucionTrue(incidenciaId)
-                .stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
+    public CursorPage<ComentarioIncidenciaDTO> obtenerSolucionesIncidencia(Long incidenciaId, String after, Integer limit) {
+        int limite = Paginacion.limite(limit);
+        List<ComentarioIncidenciaDTO> comentarios = comentarioRepository.findDTOPaginaSolucionesByIncidencia(
+                incidenciaId, CursorCodec.decodificarId(after), Paginacion.siguientes(limite));
+        return Paginacion.paginaPorId(comentarios, limite, ComentarioIncidenciaDTO::getId, Function.identity());
     }
 
     /**
@@ -94,6 +96,8 @@ public class ComentarioIncidenciaService {
         comentario.setUpdatedAt(LocalDateTime.now());
 
         ComentarioIncidencia guardado = comentarioRepository.save(comentario);
+        // El usuario ya está cargado: se asigna para que el DTO lo incluya sin otra consulta
+        guardado.setUsuario(usuario);
         return convertirADTO(guardado);
     }
 
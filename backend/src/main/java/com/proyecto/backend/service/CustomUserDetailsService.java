@@ -1,8 +1,10 @@
 package com.proyecto.backend.service;
 
+import com.proyecto.backend.event.UsuarioModificadoEvent;
 import com.proyecto.backend.model.Usuario;
 import com.proyecto.backend.repository.UsuarioRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
@@ -10,19 +12,51 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * Carga los usuarios para el inicio de sesión.
+ * Los datos de cada usuario (username, hash de la contraseña y rol) se guardan en una caché
+ * acotada por tamaño y por tiempo, por el username o email con el que inicia sesión;
+ * UsuarioService la invalida con UsuarioModificadoEvent al modificar o eliminar un usuario.
+ */
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    // Número máximo de usuarios en caché
+    @Value("${app.usuarios.cache-tamano:1000}")
+    private int tamanoCache;
+
+    // Vida de cada entrada; las modificaciones del usuario la invalidan antes
+    @Value("${app.usuarios.cache-ttl-ms:300000}")
+    private long ttlMs;
+
+    private record UsuarioEnCache(Long id, String username, String password, Usuario.Role role, long caducaEn) {
+    }
+
+    // Por username o email, del menos al más usado recientemente; protegido por su propio monitor
+    private final Map<String, UsuarioEnCache> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, UsuarioEnCache> eldest) {
+            return size() > tamanoCache;
+        }
+    };
+
+    // Cambia con cada invalidación: un usuario leído antes de ella no se guarda en caché
+    private long version;
+
     /**
      * Carga los detalles del usuario por nombre de usuario O email
-     * Permite login tanto con username como con email
+     * Permite login tanto con username como con email, en una sola consulta
      *
      * @param usernameOrEmail Nombre de usuario o email
      * @return UserDetails del usuario
@@ -30,37 +64,74 @@ public class CustomUserDetailsService implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
-        // Primero intentar buscar por username
-        Usuario usuario = usuarioRepository.findByUsername(usernameOrEmail)
-                .orElseGet(() ->
-                    // Si no encuentra por username, buscar por email
-                    usuarioRepository.findByEmail(usernameOrEmail)
-                        .orElseThrow(() -> new UsernameNotFoundException(
-                            "Usuario con username o email '" + usernameOrEmail + "' no encontrado"))
-                );
+        long versionLeida;
+        synchronized (cache) {
+            UsuarioEnCache enCache = cache.get(usernameOrEmail);
+            if (enCache != null && enCache.caducaEn() > System.currentTimeMillis()) {
+                return toUserDetails(enCache);
+            }
+            versionLeida = version;
+        }
+
+        // Si coinciden dos usuarios, primero el que tiene ese username
+        List<Usuario> usuarios = usuarioRepository.findByUsernameOrEmail(usernameOrEmail);
+        if (usuarios.isEmpty()) {
+            throw new UsernameNotFoundException(
+                    "Usuario con username o email '" + usernameOrEmail + "' no encontrado");
+        }
+        Usuario usuario = usuarios.get(0);
+        UsuarioEnCache leido = new UsuarioEnCache(usuario.getId(), usuario.getUsername(), usuario.getPassword(),
+                usuario.getRole(), System.currentTimeMillis() + ttlMs);
 
+        synchronized (cache) {
+            if (versionLeida == version) {
+                cache.put(usernameOrEmail, leido);
+            }
+        }
+        return toUserDetails(leido);
+    }
+
+    /**
+     * Descarta de la caché las entradas de un usuario (por username y por email)
+     */
+    public void invalidar(Long usuarioId) {
+        synchronized (cache) {
+            version++;
+            cache.values().removeIf(enCache -> enCache.id().equals(usuarioId));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarUsuario(UsuarioModificadoEvent evento) {
+        invalidar(evento.id());
+    }
+
+    /**
+     * Construye un User nuevo en cada llamada: el AuthenticationManager borra la contraseña
+     * del que devuelve tras autenticar, así que no puede compartirse entre inicios de sesión
+     */
+    private UserDetails toUserDetails(UsuarioEnCache usuario) {
         return new User(
-                usuario.getUsername(),
-                usuario.getPassword(),
+                usuario.username(),
+                usuario.password(),
                 true, // enabled
                 true, // accountNonExpired
                 true, // credentialsNonExpired
                 true, // accountNonLocked
-                getAuthorities(usuario)
+                getAuthorities(usuario.role())
         );
     }
 
     /**
      * Convierte el rol del usuario en autoridades de Spring Security
      */
-    private Collection<? extends GrantedAuthority> getAuthorities(Usuario usuario) {
+    private Collection<? extends GrantedAuthority> getAuthorities(Usuario.Role role) {
         Collection<GrantedAuthority> authorities = new ArrayList<>();
 
-        if (usuario.getRole() != null) {
-            authorities.add(new SimpleGrantedAuthority("ROLE_" + usuario.getRole().name()));
+        if (role != null) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + role.name()));
         }
 
         return authorities;
     }
 }
-
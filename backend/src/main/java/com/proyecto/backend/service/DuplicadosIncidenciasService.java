@@ -0,0 +1,95 @@
+package com.proyecto.backend.service;
+
+import com.proyecto.backend.dto.IncidenciaDTO;
+import com.proyecto.backend.dto.IncidenciaDuplicadaDTO;
+import com.proyecto.backend.repository.IncidenciaRepository;
+import com.proyecto.backend.search.FuenteIndices;
+import com.proyecto.backend.search.IndiceMinHash;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Detección de incidencias casi duplicadas: las del mismo producto con un título y
+ * una descripción muy parecidos. Usa un índice MinHash/LSH en memoria, particionado por
+ * producto, que mantiene al día IndicesIncidenciasService.
+ */
+@Service
+public class DuplicadosIncidenciasService {
+
+    // Partición de las incidencias sin producto (los IDs de producto son positivos)
+    private static final long SIN_PRODUCTO = 0L;
+
+    @Autowired
+    private IncidenciaRepository incidenciaRepository;
+
+    @Autowired
+    private IndicesIncidenciasService indicesIncidencias;
+
+    // Similitud estimada mínima para considerar una incidencia posible duplicado
+    @Value("${app.incidencias.duplicados-umbral:0.5}")
+    private double umbral;
+
+    @Value("${app.incidencias.duplicados-maximo:5}")
+    private int maximo;
+
+    private FuenteIndices.Indice<IndiceMinHash> indice;
+
+    @PostConstruct
+    void init() {
+        indice = indicesIncidencias.registrar(IndiceMinHash::new, DuplicadosIncidenciasService::indexar,
+                IndiceMinHash::eliminar);
+    }
+
+    /**
+     * Busca incidencias existentes del mismo producto parecidas a un borrador,
+     * de la más a la menos parecida
+     *
+     * @param titulo Título del borrador
+     * @param descripcion Descripción del borrador (opcional)
+     * @param productoId Producto del borrador, o null si no tiene
+     */
+    @Transactional(readOnly = true)
+    public List<IncidenciaDuplicadaDTO> buscarDuplicados(String titulo, String descripcion, Long productoId) {
+        List<IndiceMinHash.Similar> similares = indice.actual().buscar(particion(productoId), texto(titulo, descripcion),
+                umbral, maximo);
+        List<IncidenciaDuplicadaDTO> duplicados = new ArrayList<>();
+        if (similares.isEmpty()) {
+            return duplicados;
+        }
+
+        Map<Long, IncidenciaDTO> incidencias = new HashMap<>();
+        for (IncidenciaDTO incidencia : incidenciaRepository.findDTOByIds(
+                similares.stream().map(IndiceMinHash.Similar::id).toList())) {
+            incidencias.put(incidencia.getId(), incidencia);
+        }
+        for (IndiceMinHash.Similar similar : similares) {
+            IncidenciaDTO incidencia = incidencias.get(similar.id());
+            if (incidencia != null) {
+                duplicados.add(new IncidenciaDuplicadaDTO(incidencia.getId(), incidencia.getTitulo(),
+                        incidencia.getEstado(), incidencia.getFechaCreacion(), similar.similitud()));
+            }
+        }
+        return duplicados;
+    }
+
+    // fila: id, título, descripción, ID del producto
+    private static void indexar(IndiceMinHash indice, Object[] fila) {
+        indice.indexar((Long) fila[0], particion((Long) fila[3]), texto((String) fila[1], (String) fila[2]));
+    }
+
+    private static long particion(Long productoId) {
+        return productoId != null ? productoId : SIN_PRODUCTO;
+    }
+
+    private static String texto(String titulo, String descripcion) {
+        return descripcion != null ? titulo + "\n" + descripcion : titulo;
+    }
+}
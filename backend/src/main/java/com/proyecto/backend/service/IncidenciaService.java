@@ -1,28 +1,54 @@
 package com.proyecto.backend.service;
 
+import com.proyecto.backend.dto.CursorPage;
 import com.proyecto.backend.dto.IncidenciaCreateDTO;
 import com.proyecto.backend.dto.IncidenciaDTO;
+import com.proyecto.backend.dto.IncidenciaDuplicadaDTO;
+import com.proyecto.backend.dto.IncidenciaEstadisticasDTO;
 import com.proyecto.backend.dto.IncidenciaUpdateDTO;
+import com.proyecto.backend.event.ActividadUsuarioEvent;
+import com.proyecto.backend.event.IncidenciasModificadasEvent;
+import com.proyecto.backend.event.RankingInvalidadoEvent;
+import com.proyecto.backend.event.SolucionesModificadasEvent;
 import com.proyecto.backend.exception.BusinessLogicException;
 import com.proyecto.backend.exception.ResourceNotFoundException;
+import com.proyecto.backend.exception.ValidationException;
 import com.proyecto.backend.model.Incidencia;
 import com.proyecto.backend.model.Producto;
 import com.proyecto.backend.model.Usuario;
 import com.proyecto.backend.repository.IncidenciaRepository;
+import com.proyecto.backend.repository.IncidenciaRepositoryCustom.Orden;
 import com.proyecto.backend.repository.ProductoRepository;
+import com.proyecto.backend.repository.SolucionRepository;
 import com.proyecto.backend.repository.UsuarioRepository;
+import com.proyecto.backend.util.CursorCodec;
+import com.proyecto.backend.util.Paginacion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
 
 @Service
 @Transactional
 public class IncidenciaService {
 
+    private static final Logger log = LoggerFactory.getLogger(IncidenciaService.class);
+
     @Autowired
     private IncidenciaRepository incidenciaRepository;
 
@@ -32,69 +58,132 @@ public class IncidenciaService {
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    @Autowired
+    private SolucionRepository solucionRepository;
+
     @Autowired
     private AuditLogService auditLogService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private DuplicadosIncidenciasService duplicadosService;
+
+    // Vida de las estadísticas en caché; las escrituras de incidencias las invalidan antes
+    @Value("${app.incidencias.estadisticas-ttl-ms:30000}")
+    private long estadisticasTtlMs;
+
+    // Protegidas por el monitor del servicio
+    private EstadisticasEnCache estadisticasEnCache;
+
+    // Cambia con cada invalidación: unas estadísticas calculadas antes de ella no se guardan en caché
+    private long versionEstadisticas;
+
+    private record EstadisticasEnCache(IncidenciaEstadisticasDTO estadisticas, long caducaEn) {
+    }
+
     /**
-     * Obtiene todas las incidencias
+     * Obtiene una página de incidencias, de la más reciente a la más antigua
+     * (paginación por cursor sobre (fechaCreacion, id)) o, con orden=SOLUCIONES,
+     * de la que tiene más soluciones a la que menos (cursor sobre (totalSoluciones, id))
+     *
+     * @param after Cursor devuelto en la página anterior, null para la primera
+     * @param limit Tamaño de página, null para el tamaño por defecto
+     * @param estado Filtro opcional por estado
+     * @param categoria Filtro opcional por categoría
+     * @param severidad Filtro opcional por severidad
+     * @param productoId Filtro opcional por producto
+     * @param orden RECIENTES (por defecto) o SOLUCIONES
+     * @throws ValidationException Si el cursor, el límite, el orden o algún filtro no son válidos
      */
-    public List<IncidenciaDTO> obtenerTodas() {
-        return incidenciaRepository.findAll()
-                .stream()
-                .map(IncidenciaDTO::fromEntity)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<IncidenciaDTO> obtenerTodas(String after, Integer limit, String estado,
+                                                  String categoria, String severidad, Long productoId,
+                                                  String orden) {
+        Orden ordenListado = parsearEnum(Orden.class, orden, "orden");
+        return pagina(after, limit,
+                parsearEnum(Incidencia.Estado.class, estado, "estado"),
+                parsearEnum(Incidencia.Categoria.class, categoria, "categoria"),
+                parsearEnum(Incidencia.Severidad.class, severidad, "severidad"),
+                productoId, null, ordenListado != null ? ordenListado : Orden.RECIENTES);
     }
 
     /**
      * Obtiene una incidencia por ID
      */
+    @Transactional(readOnly = true)
     public IncidenciaDTO obtenerPorId(Long id) {
-        Incidencia incidencia = incidenciaRepository.findById(id)
+        return incidenciaRepository.findDTOById(id)
                 .orElseThrow(() -> ResourceNotFoundException.withId("Incidencia", id));
-        return IncidenciaDTO.fromEntity(incidencia);
     }
 
     /**
-     * Obtiene todas las incidencias de un producto
+     * Obtiene una página de las incidencias de un producto
      */
-    public List<IncidenciaDTO> obtenerPorProducto(Long productoId) {
-        productoRepository.findById(productoId)
-                .orElseThrow(() -> ResourceNotFoundException.withId("Producto", productoId));
-
-        return incidenciaRepository.findByProductoId(productoId)
-                .stream()
-                .map(IncidenciaDTO::fromEntity)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<IncidenciaDTO> obtenerPorProducto(Long productoId, String after, Integer limit) {
+        if (!productoRepository.existsById(productoId)) {
+            throw ResourceNotFoundException.withId("Producto", productoId);
+        }
+
+        return pagina(after, limit, null, null, null, productoId, null, Orden.RECIENTES);
     }
 
     /**
-     * Obtiene todas las incidencias de un usuario
+     * Obtiene una página de las incidencias de un usuario
      */
-    public List<IncidenciaDTO> obtenerPorUsuario(Long usuarioId) {
-        usuarioRepository.findById(usuarioId)
-                .orElseThrow(() -> ResourceNotFoundException.withId("Usuario", usuarioId));
-
-        return incidenciaRepository.findByUsuarioId(usuarioId)
-                .stream()
-                .map(IncidenciaDTO::fromEntity)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<IncidenciaDTO> obtenerPorUsuario(Long usuarioId, String after, Integer limit) {
+        if (!usuarioRepository.existsById(usuarioId)) {
+            throw ResourceNotFoundException.withId("Usuario", usuarioId);
+        }
+
+        return pagina(after, limit, null, null, null, null, usuarioId, Orden.RECIENTES);
     }
 
     /**
-     * Obtiene incidencias por estado
+     * Obtiene una página de incidencias por estado
      */
-    public List<IncidenciaDTO> obtenerPorEstado(Incidencia.Estado estado) {
-        return incidenciaRepository.findByEstado(estado)
-                .stream()
-                .map(IncidenciaDTO::fromEntity)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<IncidenciaDTO> obtenerPorEstado(String estado, String after, Integer limit) {
+        return pagina(after, limit, parsearEnum(Incidencia.Estado.class, estado, "estado"),
+                null, null, null, null, Orden.RECIENTES);
+    }
+
+    private CursorPage<IncidenciaDTO> pagina(String after, Integer limit, Incidencia.Estado estado,
+                                             Incidencia.Categoria categoria, Incidencia.Severidad severidad,
+                                             Long productoId, Long usuarioId, Orden orden) {
+        int limite = Paginacion.limite(limit);
+
+        Object cursorClave = null;
+        Long cursorId = null;
+        if (after != null && !after.isBlank()) {
+            String[] partes = CursorCodec.decodificar(after, 2);
+            try {
+                cursorClave = orden == Orden.SOLUCIONES
+                        ? Integer.valueOf(partes[0])
+                        : LocalDateTime.parse(partes[0]);
+                cursorId = Long.parseLong(partes[1]);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new ValidationException("Cursor no válido", e);
+            }
+        }
+
+        List<IncidenciaDTO> incidencias = incidenciaRepository.buscarPagina(estado, categoria, severidad,
+                productoId, usuarioId, orden, cursorClave, cursorId, limite + 1);
+        return Paginacion.pagina(incidencias, limite,
+                i -> orden == Orden.SOLUCIONES
+                        ? CursorCodec.codificar(i.getTotalSoluciones(), i.getId())
+                        : CursorCodec.codificar(i.getFechaCreacion(), i.getId()),
+                Function.identity());
     }
 
     /**
      * Crea una nueva incidencia
      *
      * @param createDTO Datos de la incidencia
-     * @return Incidencia creada
+     * @return Incidencia creada, con las incidencias parecidas del mismo producto que ya existían
      * @throws ResourceNotFoundException Si el producto o usuario no existen
      */
     public IncidenciaDTO crear(IncidenciaCreateDTO createDTO) {
@@ -119,7 +208,15 @@ public class IncidenciaService {
             productoNombre = producto.getNombre();
         }
 
+        // Antes de guardar: la nueva incidencia aún no está en el índice de duplicados
+        List<IncidenciaDuplicadaDTO> posiblesDuplicados = duplicadosService.buscarDuplicados(
+                createDTO.getTitulo(), createDTO.getDescripcion(), createDTO.getProductoId());
+
         Incidencia incidenciaGuardada = incidenciaRepository.save(incidencia);
+        invalidarEstadisticas();
+        eventPublisher.publishEvent(new ActividadUsuarioEvent(
+                usuario.getId(), usuario.getUsername(), RankingService.Metrica.INCIDENCIAS, 1));
+        eventPublisher.publishEvent(new IncidenciasModificadasEvent(List.of(incidenciaGuardada.getId())));
 
         // Registrar en auditoría
         auditLogService.registrarOperacion(
@@ -131,7 +228,9 @@ public class IncidenciaService {
                 "Incidencia creada: " + incidenciaGuardada.getTitulo() + " (Producto: " + productoNombre + ", Categoría: " + createDTO.getCategoria() + ", Severidad: " + createDTO.getSeveridad() + ")"
         );
 
-        return IncidenciaDTO.fromEntity(incidenciaGuardada);
+        IncidenciaDTO incidenciaDTO = IncidenciaDTO.fromEntity(incidenciaGuardada);
+        incidenciaDTO.setPosiblesDuplicados(posiblesDuplicados);
+        return incidenciaDTO;
     }
 
     /**
@@ -150,15 +249,18 @@ public class IncidenciaService {
                 .orElseThrow(() -> ResourceNotFoundException.withId("Incidencia", id));
 
         String cambios = "";
+        boolean cambiaTexto = false;
 
         if (updateDTO.getTitulo() != null && !updateDTO.getTitulo().isEmpty()) {
             cambios += "Título: " + incidencia.getTitulo() + " -> " + updateDTO.getTitulo() + "; ";
             incidencia.setTitulo(updateDTO.getTitulo());
+            cambiaTexto = true;
         }
 
         if (updateDTO.getDescripcion() != null && !updateDTO.getDescripcion().isEmpty()) {
             cambios += "Descripción actualizada; ";
             incidencia.setDescripcion(updateDTO.getDescripcion());
+            cambiaTexto = true;
         }
 
         if (updateDTO.getCategoria() != null && !updateDTO.getCategoria().isEmpty()) {
@@ -178,7 +280,7 @@ public class IncidenciaService {
             Incidencia.Estado nuevoEstado = Incidencia.Estado.valueOf(updateDTO.getEstado());
 
             // Si la incidencia tiene soluciones, solo permite cerrarla
-            if (incidencia.getSoluciones() != null && !incidencia.getSoluciones().isEmpty()) {
+            if (incidencia.getTotalSoluciones() > 0) {
                 if (nuevoEstado != Incidencia.Estado.CERRADA) {
                     throw new BusinessLogicException(
                             "No se puede cambiar el estado a " + nuevoEstado +
@@ -192,6 +294,10 @@ public class IncidenciaService {
         }
 
         Incidencia incidenciaActualizada = incidenciaRepository.save(incidencia);
+        invalidarEstadisticas();
+        if (cambiaTexto) {
+            eventPublisher.publishEvent(new IncidenciasModificadasEvent(List.of(id)));
+        }
 
         // Registrar en auditoría
         auditLogService.registrarOperacion(
@@ -217,7 +323,13 @@ public class IncidenciaService {
                 .orElseThrow(() -> ResourceNotFoundException.withId("Incidencia", id));
 
         Usuario usuario = incidencia.getUsuario();
+        List<Long> solucionIds = solucionRepository.findIdsByIncidenciaIds(List.of(id));
         incidenciaRepository.deleteById(id);
+        invalidarEstadisticas();
+        // Sus soluciones (de cualquier usuario) se borran en cascada
+        eventPublisher.publishEvent(new RankingInvalidadoEvent());
+        eventPublisher.publishEvent(new IncidenciasModificadasEvent(List.of(id)));
+        eventPublisher.publishEvent(new SolucionesModificadasEvent(solucionIds));
 
         // Registrar en auditoría
         auditLogService.registrarOperacion(
@@ -239,25 +351,118 @@ public class IncidenciaService {
         return actualizar(id, updateDTO);
     }
 
+    /**
+     * Obtiene el número de incidencias por estado, categoría y severidad.
+     * Se calcula con una única consulta agrupada y se guarda en caché durante
+     * app.incidencias.estadisticas-ttl-ms, salvo que antes se cree, modifique o elimine una incidencia.
+     */
+    @Transactional(readOnly = true)
+    public IncidenciaEstadisticasDTO obtenerEstadisticas() {
+        long version;
+        synchronized (this) {
+            EstadisticasEnCache enCache = estadisticasEnCache;
+            if (enCache != null && System.currentTimeMillis() < enCache.caducaEn()) {
+                return enCache.estadisticas();
+            }
+            version = versionEstadisticas;
+        }
+
+        Map<String, Long> porEstado = contadores(Incidencia.Estado.values());
+        Map<String, Long> porCategoria = contadores(Incidencia.Categoria.values());
+        Map<String, Long> porSeveridad = contadores(Incidencia.Severidad.values());
+        long total = 0;
+        for (Object[] fila : incidenciaRepository.contarPorEstadoCategoriaYSeveridad()) {
+            long cantidad = (Long) fila[3];
+            porEstado.merge(((Incidencia.Estado) fila[0]).name(), cantidad, Long::sum);
+            porCategoria.merge(((Incidencia.Categoria) fila[1]).name(), cantidad, Long::sum);
+            porSeveridad.merge(((Incidencia.Severidad) fila[2]).name(), cantidad, Long::sum);
+            total += cantidad;
+        }
+
+        IncidenciaEstadisticasDTO estadisticas =
+                new IncidenciaEstadisticasDTO(total, porEstado, porCategoria, porSeveridad);
+        // Si una escritura invalidó la caché mientras se consultaba, este resultado ya no se guarda
+        synchronized (this) {
+            if (version == versionEstadisticas) {
+                estadisticasEnCache = new EstadisticasEnCache(estadisticas, System.currentTimeMillis() + estadisticasTtlMs);
+            }
+        }
+        return estadisticas;
+    }
+
     /**
      * Cuenta el número de incidencias abiertas
      */
+    @Transactional(readOnly = true)
     public long contarAbiertas() {
-        return incidenciaRepository.findByEstado(Incidencia.Estado.ABIERTA).size();
+        return obtenerEstadisticas().getPorEstado().get(Incidencia.Estado.ABIERTA.name());
     }
 
     /**
      * Cuenta el número de incidencias en progreso
      */
+    @Transactional(readOnly = true)
     public long contarEnProgreso() {
-        return incidenciaRepository.findByEstado(Incidencia.Estado.EN_PROGRESO).size();
+        return obtenerEstadisticas().getPorEstado().get(Incidencia.Estado.EN_PROGRESO.name());
     }
 
     /**
      * Cuenta el número de incidencias cerradas
      */
+    @Transactional(readOnly = true)
     public long contarCerradas() {
-        return incidenciaRepository.findByEstado(Incidencia.Estado.CERRADA).size();
+        return obtenerEstadisticas().getPorEstado().get(Incidencia.Estado.CERRADA.name());
+    }
+
+    /**
+     * Al arrancar, corrige total_soluciones en las incidencias en las que no coincide con
+     * la tabla de soluciones (por ejemplo, las creadas antes de existir la columna)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recalcularTotalSoluciones() {
+        int corregidas = incidenciaRepository.recalcularTotalSoluciones();
+        if (corregidas > 0) {
+            log.info("Recalculado el número de soluciones de {} incidencias", corregidas);
+        }
+    }
+
+    /**
+     * Descarta las estadísticas en caché. Se repite tras el commit para que una lectura
+     * concurrente no deje en caché datos anteriores a la escritura.
+     */
+    public void invalidarEstadisticas() {
+        descartarEstadisticas();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    descartarEstadisticas();
+                }
+            });
+        }
+    }
+
+    private synchronized void descartarEstadisticas() {
+        versionEstadisticas++;
+        estadisticasEnCache = null;
     }
-}
 
+    private static Map<String, Long> contadores(Enum<?>[] valores) {
+        Map<String, Long> contadores = new LinkedHashMap<>();
+        for (Enum<?> valor : valores) {
+            contadores.put(valor.name(), 0L);
+        }
+        return contadores;
+    }
+
+    private static <E extends Enum<E>> E parsearEnum(Class<E> tipo, String valor, String campo) {
+        if (valor == null || valor.isBlank()) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(tipo, valor.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Valor no válido para " + campo + ": " + valor);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.proyecto.backend.service;
+
+import com.proyecto.backend.event.IncidenciasModificadasEvent;
+import com.proyecto.backend.repository.IncidenciaRepository;
+import com.proyecto.backend.search.FuenteIndices;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.function.BiConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Índices en memoria de las incidencias (búsqueda de texto y detección de duplicados).
+ * Los servicios registran aquí sus índices; al arrancar se construyen todos recorriendo
+ * la tabla una sola vez y, tras el commit de cada escritura, IncidenciasModificadasEvent
+ * relee una vez las incidencias afectadas y las actualiza en todos.
+ */
+@Service
+public class IndicesIncidenciasService {
+
+    private static final Logger log = LoggerFactory.getLogger(IndicesIncidenciasService.class);
+
+    private static final int TAMANO_LOTE = 1_000;
+
+    @Autowired
+    private IncidenciaRepository incidenciaRepository;
+
+    private FuenteIndices fuente;
+
+    @PostConstruct
+    void init() {
+        fuente = new FuenteIndices(
+                (despuesDe, tamano) -> incidenciaRepository.findTextosPagina(despuesDe, PageRequest.of(0, tamano)),
+                incidenciaRepository::findTextosByIds, TAMANO_LOTE);
+    }
+
+    /**
+     * Registra un índice de incidencias. Cada fila tiene el ID, el título, la descripción
+     * y el ID del producto (null si no tiene).
+     *
+     * @see FuenteIndices#registrar
+     */
+    public <I> FuenteIndices.Indice<I> registrar(Supplier<I> crear, BiConsumer<I, Object[]> indexar,
+                                                 ObjLongConsumer<I> eliminar) {
+        return fuente.registrar(crear, indexar, eliminar);
+    }
+
+    /**
+     * Actualiza en todos los índices las incidencias modificadas
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarIncidencias(IncidenciasModificadasEvent evento) {
+        fuente.actualizar(evento.ids());
+    }
+
+    /**
+     * Construye todos los índices desde la base de datos
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        long cargadas = fuente.reconstruir();
+        log.info("Índices de incidencias construidos con {} incidencias", cargadas);
+    }
+}
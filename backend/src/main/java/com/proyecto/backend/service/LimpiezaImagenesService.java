@@ -0,0 +1,56 @@
+package com.proyecto.backend.service;
+
+import com.proyecto.backend.repository.ProductoMiniaturaRepository;
+import com.proyecto.backend.repository.ProductoRepository;
+import com.proyecto.backend.storage.ImageStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Elimina del ImageStore las imágenes que ya no referencia ningún producto ni miniatura.
+ * Solo borra ficheros con más de un día sin usarse, para no competir con una subida
+ * que todavía no ha hecho commit.
+ */
+@Service
+public class LimpiezaImagenesService {
+
+    private static final Logger log = LoggerFactory.getLogger(LimpiezaImagenesService.class);
+
+    private static final Duration ANTIGUEDAD_MINIMA = Duration.ofDays(1);
+
+    @Autowired
+    private ImageStore imageStore;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ProductoMiniaturaRepository miniaturaRepository;
+
+    @Scheduled(cron = "${app.imagenes.limpieza-cron:0 30 4 * * *}")
+    public void limpiar() {
+        // Se toma la fecha antes de leer las referencias: lo guardado después no se toca
+        Instant limite = Instant.now().minus(ANTIGUEDAD_MINIMA);
+
+        Set<String> referenciadas = new HashSet<>(productoRepository.findAllImagenHashes());
+        referenciadas.addAll(miniaturaRepository.findAllHashes());
+
+        try {
+            int eliminadas = imageStore.eliminarNoReferenciadas(referenciadas, limite);
+            if (eliminadas > 0) {
+                log.info("Eliminadas {} imágenes sin referencias", eliminadas);
+            }
+        } catch (IOException e) {
+            log.warn("Error limpiando el almacén de imágenes: {}", e.getMessage());
+        }
+    }
+}
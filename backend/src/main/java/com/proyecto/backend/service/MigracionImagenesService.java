@@ -0,0 +1,187 @@
+package com.proyecto.backend.service;
+
+import com.proyecto.backend.storage.ImageStore;
+import com.proyecto.backend.util.ImagenUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Copia al ImageStore las imágenes que quedaban en LONGBLOB en la base de datos
+ * (columna productos.imagen, tabla productos_imagenes y columna productos_miniaturas.imagen).
+ * Se ejecuta al arrancar, por lotes pequeños y leyendo cada imagen en streaming para no cargar
+ * muchos LONGBLOB en memoria a la vez. Una fila está migrada cuando su hash está en el ImageStore,
+ * así que las filas ya copiadas no se vuelven a leer.
+ *
+ * Los LONGBLOB no se borran salvo que se active app.imagenes.eliminar-blobs-antiguos, y solo
+ * después de comprobar que todas las filas están en el ImageStore; si falta alguna, el arranque falla.
+ */
+@Service
+public class MigracionImagenesService {
+
+    private static final Logger log = LoggerFactory.getLogger(MigracionImagenesService.class);
+
+    private static final int TAMANO_LOTE = 20;
+
+    // Filas con imagen en la base de datos, con el hash que debe estar en el ImageStore
+    private static final String PRODUCTOS_IMAGENES = "SELECT pi.producto_id, p.imagen_hash FROM productos_imagenes pi"
+            + " JOIN productos p ON p.id = pi.producto_id"
+            + " WHERE pi.imagen IS NOT NULL AND pi.producto_id > ? ORDER BY pi.producto_id LIMIT ?";
+    private static final String PRODUCTOS = "SELECT id, imagen_hash FROM productos"
+            + " WHERE imagen IS NOT NULL AND id > ? ORDER BY id LIMIT ?";
+    private static final String MINIATURAS = "SELECT id, hash FROM productos_miniaturas"
+            + " WHERE imagen IS NOT NULL AND id > ? ORDER BY id LIMIT ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ImageStore imageStore;
+
+    // Paso irreversible: borrar las columnas y la tabla antiguas una vez verificada la copia
+    @Value("${app.imagenes.eliminar-blobs-antiguos:false}")
+    private boolean eliminarAntiguas;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrarImagenesAntiguas() {
+        boolean hayProductosImagenes = existeColumna("productos_imagenes", "imagen");
+        boolean hayProductos = existeColumna("productos", "imagen");
+        boolean hayMiniaturas = existeColumna("productos_miniaturas", "imagen");
+
+        // productos_imagenes es más reciente que productos.imagen: se copia primero
+        if (hayProductosImagenes) {
+            migrarProductos("productos_imagenes", PRODUCTOS_IMAGENES,
+                    "SELECT imagen FROM productos_imagenes WHERE producto_id = ?");
+        }
+        if (hayProductos) {
+            migrarProductos("productos", PRODUCTOS, "SELECT imagen FROM productos WHERE id = ?");
+        }
+        if (hayMiniaturas) {
+            migrarMiniaturas();
+        }
+
+        if (!eliminarAntiguas) {
+            return;
+        }
+        int sinMigrar = (hayProductosImagenes ? recorrerPendientes(PRODUCTOS_IMAGENES, null) : 0)
+                + (hayProductos ? recorrerPendientes(PRODUCTOS, null) : 0)
+                + (hayMiniaturas ? recorrerPendientes(MINIATURAS, null) : 0);
+        if (sinMigrar > 0) {
+            throw new IllegalStateException(sinMigrar + " imágenes no están en el almacén de imágenes:"
+                    + " no se eliminan las columnas antiguas");
+        }
+        if (hayProductos) {
+            jdbcTemplate.execute("ALTER TABLE productos DROP COLUMN imagen");
+        }
+        if (hayProductosImagenes) {
+            jdbcTemplate.execute("DROP TABLE productos_imagenes");
+        }
+        if (hayMiniaturas) {
+            jdbcTemplate.execute("ALTER TABLE productos_miniaturas DROP COLUMN imagen");
+        }
+        log.info("Eliminadas las imágenes antiguas de la base de datos tras verificar su copia");
+    }
+
+    /**
+     * Copia las imágenes originales de una tabla con columna imagen indexada por el ID del producto
+     */
+    private void migrarProductos(String tabla, String consulta, String lectura) {
+        int migradas = recorrerPendientes(consulta, productoId -> {
+            String hash = guardarDesde(lectura, productoId);
+            jdbcTemplate.update("UPDATE productos SET imagen_hash = ?, imagen_tipo = ? WHERE id = ?",
+                    hash, detectarTipo(hash), productoId);
+        });
+
+        if (migradas > 0) {
+            log.info("Migradas {} imágenes de {} al almacén de imágenes", migradas, tabla);
+        }
+    }
+
+    private void migrarMiniaturas() {
+        int migradas = recorrerPendientes(MINIATURAS, miniaturaId -> {
+            String hash = guardarDesde("SELECT imagen FROM productos_miniaturas WHERE id = ?", miniaturaId);
+            jdbcTemplate.update("UPDATE productos_miniaturas SET hash = ? WHERE id = ?", hash, miniaturaId);
+        });
+
+        if (migradas > 0) {
+            log.info("Migradas {} miniaturas al almacén de imágenes", migradas);
+        }
+    }
+
+    /**
+     * Recorre por lotes de ID las filas devueltas por la consulta (ID y hash) y aplica la acción,
+     * lote a lote en su transacción, a las que aún no están en el ImageStore
+     * @param migrar Acción sobre cada ID pendiente, o null para solo contarlas
+     * @return Número de filas que no estaban en el ImageStore
+     */
+    private int recorrerPendientes(String consulta, LongConsumer migrar) {
+        int pendientes = 0;
+        long ultimoId = 0;
+        while (true) {
+            List<Object[]> filas = jdbcTemplate.query(consulta,
+                    (rs, i) -> new Object[]{rs.getLong(1), rs.getString(2)}, ultimoId, TAMANO_LOTE);
+            if (filas.isEmpty()) {
+                return pendientes;
+            }
+            List<Long> lote = new ArrayList<>();
+            for (Object[] fila : filas) {
+                String hash = (String) fila[1];
+                if (hash == null || imageStore.abrir(hash).isEmpty()) {
+                    lote.add((Long) fila[0]);
+                }
+            }
+            if (migrar != null && !lote.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> lote.forEach(migrar::accept));
+            }
+            pendientes += lote.size();
+            ultimoId = (Long) filas.get(filas.size() - 1)[0];
+        }
+    }
+
+    private boolean existeColumna(String tabla, String columna) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) conexion -> {
+            try (ResultSet columnas = conexion.getMetaData().getColumns(conexion.getCatalog(), null, tabla, columna)) {
+                return columnas.next();
+            }
+        }));
+    }
+
+    private String guardarDesde(String lectura, long id) {
+        return jdbcTemplate.query(lectura, rs -> {
+            rs.next();
+            try (InputStream imagen = rs.getBinaryStream(1)) {
+                return imageStore.guardar(imagen, Long.MAX_VALUE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, id);
+    }
+
+    private String detectarTipo(String hash) {
+        Resource recurso = imageStore.abrir(hash).orElseThrow();
+        try (InputStream entrada = recurso.getInputStream()) {
+            return ImagenUtils.detectarTipo(entrada.readNBytes(12));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
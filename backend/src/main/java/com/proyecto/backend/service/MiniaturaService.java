@@ -0,0 +1,241 @@
+package com.proyecto.backend.service;
+
+import com.proyecto.backend.model.ProductoMiniatura;
+import com.proyecto.backend.repository.ProductoMiniaturaRepository;
+import com.proyecto.backend.repository.ProductoRepository;
+import com.proyecto.backend.storage.ImageStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Genera y sirve miniaturas de las imágenes de productos.
+ * El redimensionado se hace en segundo plano (imagenExecutor) tras el commit
+ * de la transacción que guardó la imagen. El original se lee del ImageStore
+ * y las miniaturas se guardan también en él.
+ * Si el executor está saturado, la generación queda pendiente y se reintenta periódicamente;
+ * mientras tanto se sirve el original.
+ */
+@Service
+public class MiniaturaService {
+
+    private static final Logger log = LoggerFactory.getLogger(MiniaturaService.class);
+
+    /** Tamaños generados (lado mayor en píxeles) */
+    public static final int[] TAMANOS = {64, 256, 1024};
+
+    // Evita decodificar imágenes enormes que agotarían la memoria
+    private static final long MAX_PIXELES = 40_000_000L;
+
+    @Autowired
+    private ProductoMiniaturaRepository miniaturaRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ImageStore imageStore;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("imagenExecutor")
+    private ThreadPoolTaskExecutor imagenExecutor;
+
+    // Generaciones rechazadas por el executor: hash de la imagen por ID de producto
+    private final Map<Long, String> pendientes = new ConcurrentHashMap<>();
+
+    /**
+     * Obtiene la miniatura más pequeña que cubra el tamaño pedido
+     */
+    public Optional<ProductoMiniatura> buscar(Long productoId, int tamano) {
+        return miniaturaRepository.findFirstByProductoIdAndTamanoGreaterThanEqualOrderByTamanoAsc(productoId, tamano);
+    }
+
+    /**
+     * Elimina las miniaturas de un producto
+     */
+    public void eliminar(Long productoId) {
+        miniaturaRepository.deleteByProductoId(productoId);
+    }
+
+    /**
+     * Programa la generación de las miniaturas de una imagen.
+     * Si hay una transacción activa, se lanza después del commit.
+     * Sustituye a las miniaturas anteriores del producto.
+     *
+     * @param productoId ID del producto
+     * @param hashOriginal Hash de la imagen original en el ImageStore
+     */
+    public void programarGeneracion(Long productoId, String hashOriginal) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enviar(productoId, hashOriginal);
+                }
+            });
+        } else {
+            enviar(productoId, hashOriginal);
+        }
+    }
+
+    /**
+     * Reenvía al executor las generaciones que rechazó por estar saturado.
+     * Las que se vuelven a rechazar siguen pendientes hasta la próxima pasada.
+     */
+    @Scheduled(fixedDelayString = "${app.imagenes.reintento-miniaturas-ms:30000}")
+    public void reintentarPendientes() {
+        for (Map.Entry<Long, String> pendiente : pendientes.entrySet()) {
+            // Solo si nadie la ha sustituido por una imagen más reciente entretanto
+            if (pendientes.remove(pendiente.getKey(), pendiente.getValue())
+                    && !enviar(pendiente.getKey(), pendiente.getValue())) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Envía la generación al executor; si la rechaza, la deja pendiente
+     *
+     * @return false si el executor la rechazó
+     */
+    private boolean enviar(Long productoId, String hashOriginal) {
+        try {
+            imagenExecutor.execute(() -> generar(productoId, hashOriginal));
+            return true;
+        } catch (TaskRejectedException e) {
+            log.warn("Executor de miniaturas saturado: se reintentará el producto {}", productoId);
+            pendientes.put(productoId, hashOriginal);
+            return false;
+        }
+    }
+
+    private void generar(Long productoId, String hashOriginal) {
+        Optional<Resource> original = imageStore.abrir(hashOriginal);
+        if (original.isEmpty()) {
+            return;
+        }
+
+        List<ProductoMiniatura> miniaturas;
+        try {
+            miniaturas = redimensionar(productoId, original.get());
+        } catch (IOException | RuntimeException e) {
+            log.warn("No se pudieron generar miniaturas del producto {}: {}", productoId, e.getMessage());
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // Si la imagen cambió mientras se generaban, estas miniaturas ya no valen
+            boolean vigente = productoRepository.findById(productoId)
+                    .map(p -> hashOriginal.equals(p.getImagenHash()))
+                    .orElse(false);
+            if (!vigente) {
+                return;
+            }
+            miniaturaRepository.deleteByProductoId(productoId);
+            miniaturaRepository.flush();
+            miniaturaRepository.saveAll(miniaturas);
+        });
+    }
+
+    private List<ProductoMiniatura> redimensionar(Long productoId, Resource original) throws IOException {
+        List<ProductoMiniatura> miniaturas = new ArrayList<>();
+        BufferedImage imagen = leer(original);
+        if (imagen == null) {
+            // Formato no soportado por ImageIO (webp, avif...): se servirá el original
+            return miniaturas;
+        }
+
+        int ladoMayor = Math.max(imagen.getWidth(), imagen.getHeight());
+        boolean conAlfa = imagen.getColorModel().hasAlpha();
+        String formato = conAlfa ? "png" : "jpg";
+        String tipo = conAlfa ? "image/png" : "image/jpeg";
+
+        for (int tamano : TAMANOS) {
+            // No se amplían imágenes: para tamaños mayores se sirve el original
+            if (tamano >= ladoMayor) {
+                break;
+            }
+            ByteArrayOutputStream salida = new ByteArrayOutputStream();
+            ImageIO.write(escalar(imagen, tamano, conAlfa), formato, salida);
+            String hash = imageStore.guardar(salida.toByteArray());
+            miniaturas.add(new ProductoMiniatura(null, productoId, tamano, tipo, hash));
+        }
+        return miniaturas;
+    }
+
+    private static BufferedImage leer(Resource original) throws IOException {
+        try (InputStream datos = original.getInputStream();
+             ImageInputStream entrada = ImageIO.createImageInputStream(datos)) {
+            Iterator<ImageReader> lectores = ImageIO.getImageReaders(entrada);
+            if (!lectores.hasNext()) {
+                return null;
+            }
+            ImageReader lector = lectores.next();
+            try {
+                lector.setInput(entrada);
+                if ((long) lector.getWidth(0) * lector.getHeight(0) > MAX_PIXELES) {
+                    return null;
+                }
+                return lector.read(0);
+            } finally {
+                lector.dispose();
+            }
+        }
+    }
+
+    /**
+     * Escala la imagen para que su lado mayor mida el tamaño indicado.
+     * Reduce a la mitad en cada paso para mantener la calidad con interpolación bilineal.
+     */
+    private static BufferedImage escalar(BufferedImage origen, int tamano, boolean conAlfa) {
+        double escala = (double) tamano / Math.max(origen.getWidth(), origen.getHeight());
+        int anchoFinal = Math.max(1, (int) Math.round(origen.getWidth() * escala));
+        int altoFinal = Math.max(1, (int) Math.round(origen.getHeight() * escala));
+        int tipoImagen = conAlfa ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        BufferedImage actual = origen;
+        int ancho = origen.getWidth();
+        int alto = origen.getHeight();
+        do {
+            ancho = Math.max(ancho / 2, anchoFinal);
+            alto = Math.max(alto / 2, altoFinal);
+            BufferedImage paso = new BufferedImage(ancho, alto, tipoImagen);
+            Graphics2D g = paso.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(actual, 0, 0, ancho, alto, null);
+            g.dispose();
+            actual = paso;
+        } while (ancho != anchoFinal || alto != altoFinal);
+
+        return actual;
+    }
+}
@@ -1,43 +1,104 @@
 package com.proyecto.backend.service;
 
+import com.proyecto.backend.dto.CursorPage;
+import com.proyecto.backend.dto.ImagenProductoDTO;
 import com.proyecto.backend.dto.ProductoCreateDTO;
 import com.proyecto.backend.dto.ProductoDTO;
+import com.proyecto.backend.dto.ProductoIncidenciasCountDTO;
 import com.proyecto.backend.dto.ProductoUpdateDTO;
+import com.proyecto.backend.event.ActividadUsuarioEvent;
+import com.proyecto.backend.event.IncidenciasModificadasEvent;
+import com.proyecto.backend.event.ProductosModificadosEvent;
+import com.proyecto.backend.event.RankingInvalidadoEvent;
+import com.proyecto.backend.event.SolucionesModificadasEvent;
 import com.proyecto.backend.exception.BusinessLogicException;
 import com.proyecto.backend.exception.ResourceNotFoundException;
+import com.proyecto.backend.exception.ValidationException;
 import com.proyecto.backend.model.Incidencia;
 import com.proyecto.backend.model.Producto;
+import com.proyecto.backend.model.ProductoMiniatura;
 import com.proyecto.backend.model.Usuario;
+import com.proyecto.backend.repository.IncidenciaRepository;
 import com.proyecto.backend.repository.ProductoRepository;
+import com.proyecto.backend.repository.SolucionRepository;
 import com.proyecto.backend.repository.UsuarioRepository;
+import com.proyecto.backend.security.UsuarioPrincipal;
+import com.proyecto.backend.storage.ImageStore;
+import com.proyecto.backend.util.CursorCodec;
+import com.proyecto.backend.util.ImagenUtils;
+import com.proyecto.backend.util.Paginacion;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
 public class ProductoService {
 
+    // Estados que cuentan como incidencia abierta
+    private static final List<Incidencia.Estado> ESTADOS_ABIERTOS =
+            List.of(Incidencia.Estado.ABIERTA, Incidencia.Estado.EN_PROGRESO);
+
     @Autowired
     private ProductoRepository productoRepository;
 
+    @Autowired
+    private ImageStore imageStore;
+
     @Autowired
     private UsuarioRepository usuarioRepository;
 
     @Autowired
     private AuditLogService auditLogService;
 
+    @Autowired
+    private MiniaturaService miniaturaService;
+
+    @Autowired
+    private IncidenciaService incidenciaService;
+
+    @Autowired
+    private IncidenciaRepository incidenciaRepository;
+
+    @Autowired
+    private SolucionRepository solucionRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.imagenes.tamano-maximo:10485760}")
+    private long tamanoMaximoImagen;
+
     /**
-     * Obtiene todos los productos
+     * Obtiene una página de productos ordenados por ID
+     *
+     * @param after Cursor de la página anterior, null para la primera
+     * @param limit Tamaño de página, null para el tamaño por defecto
      */
-    public List<ProductoDTO> obtenerTodos() {
-        return productoRepository.findAll()
-                .stream()
-                .map(ProductoDTO::fromEntity)
-                .collect(Collectors.toList());
+    public CursorPage<ProductoDTO> obtenerTodos(String after, Integer limit) {
+        int limite = Paginacion.limite(limit);
+        List<Producto> productos = productoRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorCodec.decodificarId(after), Paginacion.siguientes(limite));
+        return Paginacion.paginaPorId(productos, limite, Producto::getId, ProductoDTO::fromEntity);
     }
 
     /**
@@ -50,16 +111,16 @@ public class ProductoService {
     }
 
     /**
-     * Obtiene todos los productos de un usuario
+     * Obtiene una página de los productos de un usuario
      */
-    public List<ProductoDTO> obtenerPorUsuario(Long usuarioId) {
+    public CursorPage<ProductoDTO> obtenerPorUsuario(Long usuarioId, String after, Integer limit) {
         usuarioRepository.findById(usuarioId)
                 .orElseThrow(() -> ResourceNotFoundException.withId("Usuario", usuarioId));
 
-        return productoRepository.findByUsuarioId(usuarioId)
-                .stream()
-                .map(ProductoDTO::fromEntity)
-                .collect(Collectors.toList());
+        int limite = Paginacion.limite(limit);
+        List<Producto> productos = productoRepository.findByUsuarioIdAndIdGreaterThanOrderByIdAsc(
+                usuarioId, CursorCodec.decodificarId(after), Paginacion.siguientes(limite));
+        return Paginacion.paginaPorId(productos, limite, Producto::getId, ProductoDTO::fromEntity);
     }
 
     /**
@@ -80,6 +141,13 @@ public class ProductoService {
         producto.setUsuario(usuario);
 
         Producto productoGuardado = productoRepository.save(producto);
+        eventPublisher.publishEvent(new ActividadUsuarioEvent(
+                usuario.getId(), usuario.getUsername(), RankingService.Metrica.PRODUCTOS, 1));
+        eventPublisher.publishEvent(new ProductosModificadosEvent(List.of(productoGuardado.getId())));
+
+        if (createDTO.getImagenBase64() != null && !createDTO.getImagenBase64().isEmpty()) {
+            guardarImagen(productoGuardado, Base64.getDecoder().decode(createDTO.getImagenBase64()));
+        }
 
         // Registrar en auditoría
         auditLogService.registrarOperacion(
@@ -108,19 +176,24 @@ public class ProductoService {
 
         String cambios = "";
 
+        boolean cambiaTexto = false;
+
         if (updateDTO.getNombre() != null && !updateDTO.getNombre().isEmpty()) {
             cambios += "Nombre: " + producto.getNombre() + " -> " + updateDTO.getNombre() + "; ";
             producto.setNombre(updateDTO.getNombre());
+            cambiaTexto = true;
         }
 
         if (updateDTO.getMarca() != null && !updateDTO.getMarca().isEmpty()) {
             cambios += "Marca: " + producto.getMarca() + " -> " + updateDTO.getMarca() + "; ";
             producto.setMarca(updateDTO.getMarca());
+            cambiaTexto = true;
         }
 
         if (updateDTO.getModelo() != null && !updateDTO.getModelo().isEmpty()) {
             cambios += "Modelo: " + producto.getModelo() + " -> " + updateDTO.getModelo() + "; ";
             producto.setModelo(updateDTO.getModelo());
+            cambiaTexto = true;
         }
 
         if (updateDTO.getPeso() != null) {
@@ -156,10 +229,13 @@ public class ProductoService {
         // Procesar imagen Base64 si existe
         if (updateDTO.getImagenBase64() != null && !updateDTO.getImagenBase64().isEmpty()) {
             cambios += "Imagen actualizada; ";
-            producto.setImagen(java.util.Base64.getDecoder().decode(updateDTO.getImagenBase64()));
+            guardarImagen(producto, Base64.getDecoder().decode(updateDTO.getImagenBase64()));
         }
 
         Producto productoActualizado = productoRepository.save(producto);
+        if (cambiaTexto) {
+            eventPublisher.publishEvent(new ProductosModificadosEvent(List.of(id)));
+        }
 
         // Registrar en auditoría
         auditLogService.registrarOperacion(
@@ -175,17 +251,65 @@ public class ProductoService {
     }
 
     /**
-     * Elimina un producto (SOLO ADMIN)
+     * Sustituye la imagen de un producto leyéndola en streaming.
+     * Los bytes van directamente al ImageStore sin cargarse en memoria, fuera de cualquier
+     * transacción: la conexión a la base de datos solo se usa para actualizar la fila al final.
+     *
+     * @param id ID del producto
+     * @param contenido Cuerpo de la subida (fichero multipart o binario)
+     * @return Producto actualizado
+     * @throws ResourceNotFoundException Si el producto no existe
+     * @throws ValidationException Si supera el tamaño máximo o no es una imagen
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ProductoDTO actualizarImagen(Long id, InputStream contenido) throws IOException {
+        if (!productoRepository.existsById(id)) {
+            throw ResourceNotFoundException.withId("Producto", id);
+        }
+
+        String hash = imageStore.guardar(contenido, tamanoMaximoImagen);
+        String tipo = detectarTipo(hash);
+        if (!tipo.startsWith("image/")) {
+            // El fichero queda sin referencias y lo borrará LimpiezaImagenesService
+            throw new ValidationException("El fichero subido no es una imagen válida");
+        }
+
+        return transactionTemplate.execute(status -> {
+            // El producto pudo eliminarse durante la subida
+            Producto producto = productoRepository.findById(id)
+                    .orElseThrow(() -> ResourceNotFoundException.withId("Producto", id));
+            producto.setImagenHash(hash);
+            producto.setImagenTipo(tipo);
+            miniaturaService.eliminar(id);
+            miniaturaService.programarGeneracion(id, hash);
+            Producto productoActualizado = productoRepository.save(producto);
+
+            // Registrar en auditoría
+            auditLogService.registrarOperacion(
+                    "UPDATE",
+                    "Producto",
+                    productoActualizado.getId(),
+                    producto.getUsuario().getId(),
+                    producto.getUsuario().getUsername(),
+                    "Imagen actualizada; "
+            );
+
+            return ProductoDTO.fromEntity(productoActualizado);
+        });
+    }
+
+    /**
+     * Elimina un producto (SOLO ADMIN) a petición del usuario autenticado
      * Las incidencias y soluciones se borran automáticamente (cascada)
      *
      * @param id ID del producto a eliminar
-     * @param usuarioActual Usuario que solicita la eliminación
+     * @param usuarioActual Usuario autenticado, con el ID y el rol de su token
      * @throws ResourceNotFoundException Si el producto no existe
      * @throws BusinessLogicException Si el usuario no es ADMIN
      */
-    public void eliminar(Long id, Usuario usuarioActual) {
+    public void eliminar(Long id, UsuarioPrincipal usuarioActual) {
         // Validar que sea ADMIN
-        if (usuarioActual.getRole() != Usuario.Role.ADMIN) {
+        if (!usuarioActual.esAdmin()) {
             throw new BusinessLogicException(
                     "No tiene permisos para eliminar productos. Solo los administradores pueden hacerlo."
             );
@@ -198,41 +322,137 @@ public class ProductoService {
         // en Producto.incidencias
 
         Usuario usuario = producto.getUsuario();
+        // Los ficheros de imagen pueden estar compartidos con otros productos;
+        // los que queden sin referencias los borra LimpiezaImagenesService
+        miniaturaService.eliminar(id);
+        List<Long> incidenciaIds = incidenciaRepository.findIdsByProductoId(id);
+        List<Long> solucionIds = incidenciaIds.isEmpty()
+                ? List.of()
+                : solucionRepository.findIdsByIncidenciaIds(incidenciaIds);
         productoRepository.deleteById(id);
+        incidenciaService.invalidarEstadisticas();
+        // Sus incidencias y soluciones (de cualquier usuario) se borran en cascada
+        eventPublisher.publishEvent(new RankingInvalidadoEvent());
+        eventPublisher.publishEvent(new IncidenciasModificadasEvent(incidenciaIds));
+        eventPublisher.publishEvent(new SolucionesModificadasEvent(solucionIds));
+        eventPublisher.publishEvent(new ProductosModificadosEvent(List.of(id)));
 
         // Registrar en auditoría
         auditLogService.registrarOperacion(
                 "DELETE",
                 "Producto",
                 id,
-                usuarioActual.getId(),
-                usuarioActual.getUsername(),
+                usuarioActual.id(),
+                usuarioActual.username(),
                 "Producto eliminado: " + producto.getNombre() +
                 " (Incidencias y soluciones eliminadas automáticamente)"
         );
     }
 
+    /**
+     * Obtiene la imagen de un producto con su tipo y hash
+     *
+     * @param id ID del producto
+     * @param tamano Tamaño deseado en píxeles (lado mayor), o null para el original
+     * @return Miniatura más pequeña que cubra el tamaño, o la imagen original si no la hay
+     * @throws ResourceNotFoundException Si el producto no existe o no tiene imagen
+     */
+    public ImagenProductoDTO obtenerImagen(Long id, Integer tamano) {
+        Producto producto = productoRepository.findById(id)
+                .orElseThrow(() -> ResourceNotFoundException.withId("Producto", id));
+
+        if (producto.getImagenHash() == null) {
+            throw new ResourceNotFoundException("El producto con ID " + id + " no tiene imagen");
+        }
+
+        if (tamano != null) {
+            Optional<ProductoMiniatura> miniatura = miniaturaService.buscar(id, tamano);
+            if (miniatura.isPresent()) {
+                ProductoMiniatura m = miniatura.get();
+                Optional<Resource> recurso = imageStore.abrir(m.getHash());
+                if (recurso.isPresent()) {
+                    return new ImagenProductoDTO(recurso.get(), m.getTipo(), m.getHash());
+                }
+            }
+        }
+
+        Resource recurso = imageStore.abrir(producto.getImagenHash())
+                .orElseThrow(() -> new ResourceNotFoundException("El producto con ID " + id + " no tiene imagen"));
+        String tipo = producto.getImagenTipo() != null ? producto.getImagenTipo() : ImagenUtils.TIPO_POR_DEFECTO;
+        return new ImagenProductoDTO(recurso, tipo, producto.getImagenHash());
+    }
+
+    /**
+     * Guarda la imagen en el ImageStore, actualiza su hash SHA-256 y su
+     * Content-Type en el producto y programa sus miniaturas
+     */
+    private void guardarImagen(Producto producto, byte[] imagen) {
+        producto.setImagenHash(imageStore.guardar(imagen));
+        producto.setImagenTipo(ImagenUtils.detectarTipo(imagen));
+        miniaturaService.eliminar(producto.getId());
+        miniaturaService.programarGeneracion(producto.getId(), producto.getImagenHash());
+    }
+
+    /**
+     * Detecta el Content-Type de una imagen ya guardada leyendo solo su cabecera
+     */
+    private String detectarTipo(String hash) throws IOException {
+        Resource recurso = imageStore.abrir(hash)
+                .orElseThrow(() -> new IllegalStateException("Imagen " + hash + " no encontrada tras guardarla"));
+        try (InputStream entrada = recurso.getInputStream()) {
+            return ImagenUtils.detectarTipo(entrada.readNBytes(12));
+        }
+    }
+
     /**
      * Obtiene el número de incidencias de un producto
      */
+    @Transactional(readOnly = true)
     public long contarIncidencias(Long productoId) {
-        Producto producto = productoRepository.findById(productoId)
-                .orElseThrow(() -> ResourceNotFoundException.withId("Producto", productoId));
-        return producto.getIncidencias() != null ? producto.getIncidencias().size() : 0;
+        if (!productoRepository.existsById(productoId)) {
+            throw ResourceNotFoundException.withId("Producto", productoId);
+        }
+        return incidenciaRepository.countByProductoId(productoId);
     }
 
     /**
      * Obtiene el número de incidencias abiertas de un producto
      */
+    @Transactional(readOnly = true)
     public long contarIncidenciasAbiertas(Long productoId) {
-        Producto producto = productoRepository.findById(productoId)
-                .orElseThrow(() -> ResourceNotFoundException.withId("Producto", productoId));
-
-        return producto.getIncidencias() != null ?
-                producto.getIncidencias()
-                        .stream()
-                        .filter(i -> i.getEstado() == Incidencia.Estado.ABIERTA ||
-                                   i.getEstado() == Incidencia.Estado.EN_PROGRESO)
-                        .count() : 0;
+        if (!productoRepository.existsById(productoId)) {
+            throw ResourceNotFoundException.withId("Producto", productoId);
+        }
+        return incidenciaRepository.countByProductoIdAndEstadoIn(productoId, ESTADOS_ABIERTOS);
+    }
+
+    /**
+     * Obtiene el número total y de abiertas de las incidencias de varios productos
+     * con una única consulta agrupada. Pensado para una página de productos.
+     *
+     * @param productoIds IDs de los productos (como máximo Paginacion.LIMITE_MAXIMO)
+     * @return Un recuento por ID pedido, en el mismo orden; 0 si el producto no tiene incidencias o no existe
+     * @throws ValidationException Si no se indica ningún ID o se superan los permitidos
+     */
+    @Transactional(readOnly = true)
+    public List<ProductoIncidenciasCountDTO> contarIncidenciasPorProductos(List<Long> productoIds) {
+        if (productoIds == null || productoIds.isEmpty()) {
+            throw new ValidationException("Debe indicar al menos un ID de producto");
+        }
+        Set<Long> ids = new LinkedHashSet<>(productoIds);
+        if (ids.size() > Paginacion.LIMITE_MAXIMO) {
+            throw new ValidationException("Como máximo se pueden consultar " + Paginacion.LIMITE_MAXIMO + " productos");
+        }
+
+        Map<Long, ProductoIncidenciasCountDTO> recuentos = new LinkedHashMap<>();
+        for (Long id : ids) {
+            recuentos.put(id, new ProductoIncidenciasCountDTO(id, 0, 0));
+        }
+        for (Object[] fila : incidenciaRepository.contarPorProductos(ids, ESTADOS_ABIERTOS)) {
+            ProductoIncidenciasCountDTO recuento = recuentos.get((Long) fila[0]);
+            recuento.setTotal((Long) fila[1]);
+            recuento.setAbiertas(((Number) fila[2]).longValue());
+        }
+        return new ArrayList<>(recuentos.values());
     }
 }
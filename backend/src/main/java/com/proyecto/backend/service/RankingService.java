@@ -0,0 +1,389 @@
+package com.proyecto.backend.service;
+
+import com.proyecto.backend.dto.RankingUsuarioDTO;
+import com.proyecto.backend.event.ActividadUsuarioEvent;
+import com.proyecto.backend.event.RankingInvalidadoEvent;
+import com.proyecto.backend.exception.ResourceNotFoundException;
+import com.proyecto.backend.exception.ValidationException;
+import com.proyecto.backend.repository.IncidenciaRepository;
+import com.proyecto.backend.repository.ProductoRepository;
+import com.proyecto.backend.repository.SolucionRepository;
+import com.proyecto.backend.repository.UsuarioRepository;
+import com.proyecto.backend.util.Paginacion;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ranking de contribuidores mantenido en memoria.
+ * Guarda los totales de cada usuario (soluciones, votos recibidos, incidencias y productos)
+ * y, por cada métrica, un ConcurrentSkipListSet ordenado de mayor a menor: el top N se lee
+ * recorriendo los N primeros elementos, sin consultar la base de datos.
+ * Se construye al arrancar con una consulta agrupada por métrica y se actualiza con los
+ * ActividadUsuarioEvent que publican los servicios tras cada commit. Los borrados en cascada
+ * publican RankingInvalidadoEvent y provocan una reconstrucción completa en segundo plano
+ * (rankingExecutor); las invalidaciones que llegan mientras tanto se agrupan en una sola.
+ * Los eventos se numeran en el momento de su commit y cada reconstrucción guarda el número
+ * del último que ya ve en la base de datos (su época): los que se aplican después con un
+ * número menor o igual se descartan, porque los totales reconstruidos ya los incluyen.
+ */
+@Service
+public class RankingService {
+
+    private static final Logger log = LoggerFactory.getLogger(RankingService.class);
+
+    private static final int TOP_POR_DEFECTO = 10;
+
+    public enum Metrica {
+        SOLUCIONES, VOTOS, INCIDENCIAS, PRODUCTOS
+    }
+
+    /** Totales de un usuario; inmutable, se sustituye en cada cambio */
+    private record Totales(Long usuarioId, String username, long[] valores) {
+
+        long valor(Metrica metrica) {
+            return valores[metrica.ordinal()];
+        }
+
+        RankingUsuarioDTO aDTO() {
+            return new RankingUsuarioDTO(usuarioId, username, valor(Metrica.SOLUCIONES), valor(Metrica.VOTOS),
+                    valor(Metrica.INCIDENCIAS), valor(Metrica.PRODUCTOS));
+        }
+    }
+
+    /** Posición de un usuario en el orden de una métrica */
+    private record Entrada(long valor, long usuarioId) {
+    }
+
+    // Mayor valor primero; a igualdad, el usuario más antiguo
+    private static final Comparator<Entrada> ORDEN = Comparator.comparingLong(Entrada::valor).reversed()
+            .thenComparingLong(Entrada::usuarioId);
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private SolucionRepository solucionRepository;
+
+    @Autowired
+    private IncidenciaRepository incidenciaRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private AcumuladorVotosService acumuladorVotos;
+
+    @Autowired
+    @Qualifier("rankingExecutor")
+    private ThreadPoolTaskExecutor rankingExecutor;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Lecturas de la reconstrucción: todas ven la misma foto de la base de datos
+    private TransactionTemplate lectura;
+
+    // Cada transacción con eventos toma la lectura desde antes de su commit hasta numerarlos;
+    // la reconstrucción toma la escritura para fijar su época y su foto sin commits a medias
+    private final ReentrantReadWriteLock commits = new ReentrantReadWriteLock();
+
+    // Número del último evento confirmado
+    private final AtomicLong secuencia = new AtomicLong();
+
+    // Eventos ya incluidos en los totales de la última reconstrucción; se usa con el monitor tomado
+    private long epoca;
+
+    // Hay una reconstrucción en cola que aún no ha empezado
+    private final AtomicBoolean reconstruccionPendiente = new AtomicBoolean();
+
+    private final Map<Long, Totales> totales = new ConcurrentHashMap<>();
+    private final Map<Metrica, ConcurrentSkipListSet<Entrada>> ordenados = new EnumMap<>(Metrica.class);
+
+    public RankingService() {
+        for (Metrica metrica : Metrica.values()) {
+            ordenados.put(metrica, new ConcurrentSkipListSet<>(ORDEN));
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+        lectura.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Obtiene los N usuarios con mayor valor en una métrica
+     *
+     * @param metrica soluciones, votos, incidencias o productos
+     * @param top Número de usuarios, null para el valor por defecto (máximo Paginacion.LIMITE_MAXIMO)
+     * @throws ValidationException Si la métrica o el número no son válidos
+     */
+    public List<RankingUsuarioDTO> obtenerRanking(String metrica, Integer top) {
+        Metrica metricaRanking = parsearMetrica(metrica);
+        int limite = top != null ? top : TOP_POR_DEFECTO;
+        if (limite < 1 || limite > Paginacion.LIMITE_MAXIMO) {
+            throw new ValidationException("top debe estar entre 1 y " + Paginacion.LIMITE_MAXIMO);
+        }
+
+        List<RankingUsuarioDTO> ranking = new ArrayList<>(limite);
+        Iterator<Entrada> it = ordenados.get(metricaRanking).iterator();
+        while (it.hasNext() && ranking.size() < limite) {
+            Entrada entrada = it.next();
+            Totales usuario = totales.get(entrada.usuarioId());
+            // Durante una actualización el usuario tiene dos entradas; solo vale la que coincide con sus totales
+            if (usuario != null && usuario.valor(metricaRanking) == entrada.valor()) {
+                ranking.add(usuario.aDTO());
+            }
+        }
+        return ranking;
+    }
+
+    /**
+     * Obtiene los totales de un usuario
+     */
+    public RankingUsuarioDTO obtenerTotales(Long usuarioId) {
+        Totales usuario = totales.get(usuarioId);
+        if (usuario == null) {
+            throw ResourceNotFoundException.withId("Usuario", usuarioId);
+        }
+        return usuario.aDTO();
+    }
+
+    /**
+     * Aplica el evento tras el commit de su transacción, numerado en ese momento.
+     * Sin transacción se aplica en el acto.
+     */
+    @EventListener
+    public void alCambiarActividad(ActividadUsuarioEvent evento) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            long numero;
+            commits.readLock().lock();
+            try {
+                numero = secuencia.incrementAndGet();
+            } finally {
+                commits.readLock().unlock();
+            }
+            aplicar(evento, numero);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<ActividadUsuarioEvent> eventos = (List<ActividadUsuarioEvent>) TransactionSynchronizationManager.getResource(this);
+        if (eventos == null) {
+            eventos = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, eventos);
+            TransactionSynchronizationManager.registerSynchronization(new EventosTransaccion(eventos));
+        }
+        eventos.add(evento);
+    }
+
+    /**
+     * Eventos de una transacción. La lectura de commits se toma una vez por transacción, justo
+     * antes del commit, y se suelta al numerarlos, antes de aplicarlos y de los
+     * TransactionalEventListener: con ella tomada nunca se espera a otro monitor.
+     * Los votos de AcumuladorVotosService se suman en un afterCommit registrado antes que este
+     * (SolucionService registra el voto antes de publicar el evento), así quedan dentro.
+     */
+    private class EventosTransaccion implements TransactionSynchronization {
+
+        private final List<ActividadUsuarioEvent> eventos;
+        private boolean bloqueado;
+
+        EventosTransaccion(List<ActividadUsuarioEvent> eventos) {
+            this.eventos = eventos;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            commits.readLock().lock();
+            bloqueado = true;
+        }
+
+        @Override
+        public void afterCommit() {
+            long numero = secuencia.addAndGet(eventos.size()) - eventos.size();
+            desbloquear();
+            for (ActividadUsuarioEvent evento : eventos) {
+                aplicar(evento, ++numero);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(RankingService.this);
+            desbloquear();
+        }
+
+        private void desbloquear() {
+            if (bloqueado) {
+                bloqueado = false;
+                commits.readLock().unlock();
+            }
+        }
+    }
+
+    private synchronized void aplicar(ActividadUsuarioEvent evento, long numero) {
+        // Confirmado antes de la última reconstrucción: ya está en sus totales
+        if (numero <= epoca) {
+            return;
+        }
+        Totales anterior = totales.get(evento.usuarioId());
+        long[] valores = anterior != null ? anterior.valores().clone() : new long[Metrica.values().length];
+        if (evento.metrica() != null) {
+            valores[evento.metrica().ordinal()] += evento.delta();
+        }
+        String username = evento.username() != null ? evento.username()
+                : anterior != null ? anterior.username() : null;
+        guardar(anterior, new Totales(evento.usuarioId(), username, valores));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alInvalidar(RankingInvalidadoEvent evento) {
+        if (evento.usuarioEliminadoId() != null) {
+            eliminarUsuario(evento.usuarioEliminadoId());
+        }
+        // Si ya hay una en cola, leerá también los cambios de esta invalidación
+        if (reconstruccionPendiente.compareAndSet(false, true)) {
+            rankingExecutor.execute(() -> {
+                reconstruccionPendiente.set(false);
+                reconstruir();
+            });
+        }
+    }
+
+    private synchronized void eliminarUsuario(Long usuarioId) {
+        Totales anterior = totales.get(usuarioId);
+        if (anterior != null) {
+            guardar(anterior, null);
+        }
+    }
+
+    /**
+     * Reconstruye el ranking desde la base de datos. Mientras tanto las lecturas siguen
+     * viendo el ranking anterior y los eventos esperan a que termine.
+     * La época y la foto de la base de datos se fijan juntas, sin commits con eventos a medias
+     * ni volcados de votos en curso; a los votos de la foto se suman los pendientes de
+     * AcumuladorVotosService, que el ranking ya cuenta pero la base de datos aún no.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reconstruir() {
+        Map<Long, Totales> nuevos = new HashMap<>();
+        long epocaNueva = lectura.execute(status -> {
+            long[] numero = new long[1];
+            Map<Long, Long> pendientes = acumuladorVotos.sinVolcar(() -> {
+                commits.writeLock().lock();
+                try {
+                    numero[0] = secuencia.get();
+                    // La primera consulta fija la foto de la transacción
+                    for (Object[] fila : usuarioRepository.findIdsYUsernames()) {
+                        Long usuarioId = (Long) fila[0];
+                        nuevos.put(usuarioId, new Totales(usuarioId, (String) fila[1],
+                                new long[Metrica.values().length]));
+                    }
+                    return acumuladorVotos.pendientes();
+                } finally {
+                    commits.writeLock().unlock();
+                }
+            });
+
+            for (Object[] fila : solucionRepository.contarSolucionesYVotosPorUsuario()) {
+                long[] valores = valoresDe(nuevos, (Long) fila[0]);
+                valores[Metrica.SOLUCIONES.ordinal()] = ((Number) fila[1]).longValue();
+                valores[Metrica.VOTOS.ordinal()] = ((Number) fila[2]).longValue();
+            }
+            if (!pendientes.isEmpty()) {
+                for (Object[] fila : solucionRepository.findAutoresByIds(pendientes.keySet())) {
+                    valoresDe(nuevos, (Long) fila[1])[Metrica.VOTOS.ordinal()] += pendientes.get((Long) fila[0]);
+                }
+            }
+            for (Object[] fila : incidenciaRepository.contarPorUsuario()) {
+                valoresDe(nuevos, (Long) fila[0])[Metrica.INCIDENCIAS.ordinal()] = ((Number) fila[1]).longValue();
+            }
+            for (Object[] fila : productoRepository.contarPorUsuario()) {
+                valoresDe(nuevos, (Long) fila[0])[Metrica.PRODUCTOS.ordinal()] = ((Number) fila[1]).longValue();
+            }
+            return numero[0];
+        });
+
+        // Sustitución: se eliminan los usuarios que ya no existen y se reinsertan los demás
+        for (Totales anterior : List.copyOf(totales.values())) {
+            if (!nuevos.containsKey(anterior.usuarioId())) {
+                guardar(anterior, null);
+            }
+        }
+        for (Totales usuario : nuevos.values()) {
+            guardar(totales.get(usuario.usuarioId()), usuario);
+        }
+        epoca = epocaNueva;
+        log.info("Ranking de usuarios reconstruido con {} usuarios", nuevos.size());
+    }
+
+    /**
+     * Sustituye los totales de un usuario en el mapa y en el orden de cada métrica.
+     * Se llama siempre con el monitor tomado: solo hay un escritor a la vez.
+     * Un lector concurrente nunca deja de ver al usuario: las entradas nuevas se insertan
+     * y los totales se sustituyen antes de quitar las entradas anteriores
+     * (obtenerRanking descarta la entrada que no coincide con los totales vigentes).
+     */
+    private void guardar(Totales anterior, Totales nuevo) {
+        if (nuevo != null) {
+            for (Metrica metrica : Metrica.values()) {
+                ordenados.get(metrica).add(new Entrada(nuevo.valor(metrica), nuevo.usuarioId()));
+            }
+            totales.put(nuevo.usuarioId(), nuevo);
+        } else {
+            totales.remove(anterior.usuarioId());
+        }
+        if (anterior != null) {
+            for (Metrica metrica : Metrica.values()) {
+                if (nuevo == null || anterior.valor(metrica) != nuevo.valor(metrica)) {
+                    ordenados.get(metrica).remove(new Entrada(anterior.valor(metrica), anterior.usuarioId()));
+                }
+            }
+        }
+    }
+
+    private static long[] valoresDe(Map<Long, Totales> usuarios, Long usuarioId) {
+        return usuarios.computeIfAbsent(usuarioId,
+                id -> new Totales(id, null, new long[Metrica.values().length])).valores();
+    }
+
+    private static Metrica parsearMetrica(String metrica) {
+        if (metrica == null || metrica.isBlank()) {
+            return Metrica.SOLUCIONES;
+        }
+        try {
+            return Metrica.valueOf(metrica.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Métrica no válida: " + metrica
+                    + " (soluciones, votos, incidencias o productos)");
+        }
+    }
+}
@@ -1,23 +1,35 @@
 package com.proyecto.backend.service;
 
+import com.proyecto.backend.dto.CursorPage;
 import com.proyecto.backend.dto.SolucionCreateDTO;
 import com.proyecto.backend.dto.SolucionDTO;
 import com.proyecto.backend.dto.SolucionUpdateDTO;
+import com.proyecto.backend.event.ActividadUsuarioEvent;
+import com.proyecto.backend.event.SolucionesModificadasEvent;
 import com.proyecto.backend.exception.BusinessLogicException;
 import com.proyecto.backend.exception.ResourceNotFoundException;
+import com.proyecto.backend.exception.ValidationException;
 import com.proyecto.backend.model.Incidencia;
 import com.proyecto.backend.model.Solucion;
 import com.proyecto.backend.model.Usuario;
 import com.proyecto.backend.repository.IncidenciaRepository;
 import com.proyecto.backend.repository.SolucionRepository;
 import com.proyecto.backend.repository.UsuarioRepository;
+import com.proyecto.backend.util.CursorCodec;
+import com.proyecto.backend.util.Paginacion;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -35,49 +47,64 @@ public class SolucionService {
     @Autowired
     private AuditLogService auditLogService;
 
+    @Autowired
+    private AcumuladorVotosService acumuladorVotos;
+
+    @Autowired
+    private VotoSolucionService votoSolucionService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
-     * Obtiene todas las soluciones
+     * Obtiene una página de soluciones ordenadas por ID
      */
-    public List<SolucionDTO> obtenerTodas() {
-        return solucionRepository.findAll()
-                .stream()
-                .map(SolucionDTO::fromEntity)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<SolucionDTO> obtenerTodas(String after, Integer limit) {
+        int limite = Paginacion.limite(limit);
+        List<SolucionDTO> soluciones = solucionRepository.findDTOPagina(
+                CursorCodec.decodificarId(after), Paginacion.siguientes(limite));
+        return Paginacion.paginaPorId(soluciones, limite, SolucionDTO::getId, this::conVotosPendientes);
     }
 
     /**
      * Obtiene una solución por ID
      */
+    @Transactional(readOnly = true)
     public SolucionDTO obtenerPorId(Long id) {
-        Solucion solucion = solucionRepository.findById(id)
+        return solucionRepository.findDTOById(id)
+                .map(this::conVotosPendientes)
                 .orElseThrow(() -> ResourceNotFoundException.withId("Solución", id));
-        return SolucionDTO.fromEntity(solucion);
     }
 
     /**
-     * Obtiene todas las soluciones de una incidencia
+     * Obtiene una página de las soluciones de una incidencia
      */
-    public List<SolucionDTO> obtenerPorIncidencia(Long incidenciaId) {
-        incidenciaRepository.findById(incidenciaId)
-                .orElseThrow(() -> ResourceNotFoundException.withId("Incidencia", incidenciaId));
-
-        return solucionRepository.findByIncidenciaId(incidenciaId)
-                .stream()
-                .map(SolucionDTO::fromEntity)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<SolucionDTO> obtenerPorIncidencia(Long incidenciaId, String after, Integer limit) {
+        if (!incidenciaRepository.existsById(incidenciaId)) {
+            throw ResourceNotFoundException.withId("Incidencia", incidenciaId);
+        }
+
+        int limite = Paginacion.limite(limit);
+        List<SolucionDTO> soluciones = solucionRepository.findDTOPaginaByIncidencia(
+                incidenciaId, CursorCodec.decodificarId(after), Paginacion.siguientes(limite));
+        return Paginacion.paginaPorId(soluciones, limite, SolucionDTO::getId, this::conVotosPendientes);
     }
 
     /**
-     * Obtiene todas las soluciones de un usuario
+     * Obtiene una página de las soluciones de un usuario
      */
-    public List<SolucionDTO> obtenerPorUsuario(Long usuarioId) {
-        usuarioRepository.findById(usuarioId)
-                .orElseThrow(() -> ResourceNotFoundException.withId("Usuario", usuarioId));
-
-        return solucionRepository.findByUsuarioId(usuarioId)
-                .stream()
-                .map(SolucionDTO::fromEntity)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<SolucionDTO> obtenerPorUsuario(Long usuarioId, String after, Integer limit) {
+        if (!usuarioRepository.existsById(usuarioId)) {
+            throw ResourceNotFoundException.withId("Usuario", usuarioId);
+        }
+
+        int limite = Paginacion.limite(limit);
+        List<SolucionDTO> soluciones = solucionRepository.findDTOPaginaByUsuario(
+                usuarioId, CursorCodec.decodificarId(after), Paginacion.siguientes(limite));
+        return Paginacion.paginaPorId(soluciones, limite, SolucionDTO::getId, this::conVotosPendientes);
     }
 
     /**
@@ -111,6 +138,12 @@ public class SolucionService {
         solucion.setFechaPublicacion(LocalDateTime.now());
 
         Solucion solucionGuardada = solucionRepository.save(solucion);
+        incidenciaRepository.sumarTotalSoluciones(incidencia.getId(), 1);
+        // La columna no se escribe desde la entidad; se ajusta en memoria para que la vea el resto de la transacción
+        incidencia.setTotalSoluciones(incidencia.getTotalSoluciones() + 1);
+        eventPublisher.publishEvent(new ActividadUsuarioEvent(
+                usuario.getId(), usuario.getUsername(), RankingService.Metrica.SOLUCIONES, 1));
+        eventPublisher.publishEvent(new SolucionesModificadasEvent(List.of(solucionGuardada.getId())));
 
         // Registrar en auditoría
         auditLogService.registrarOperacion(
@@ -138,18 +171,33 @@ public class SolucionService {
                 .orElseThrow(() -> ResourceNotFoundException.withId("Solución", id));
 
         String cambios = "";
+        boolean cambiaDescripcion = false;
 
         if (updateDTO.getDescripcion() != null && !updateDTO.getDescripcion().isEmpty()) {
             cambios += "Descripción actualizada; ";
+            cambiaDescripcion = !updateDTO.getDescripcion().equals(solucion.getDescripcion());
             solucion.setDescripcion(updateDTO.getDescripcion());
         }
 
         if (updateDTO.getVotos() != null) {
-            cambios += "Votos: " + solucion.getVotos() + " -> " + updateDTO.getVotos() + "; ";
+            // El valor indicado sustituye también a los votos pendientes de volcar. Sin volcados en
+            // curso, los votos de la fila más los descartados son los que cuenta el ranking; la fila
+            // queda bloqueada para que un volcado posterior sume sobre el valor nuevo
+            long actuales = acumuladorVotos.sinVolcar(() ->
+                    solucionRepository.findVotosBloqueando(id) + acumuladorVotos.descartar(id));
+            cambios += "Votos: " + actuales + " -> " + updateDTO.getVotos() + "; ";
+            eventPublisher.publishEvent(new ActividadUsuarioEvent(solucion.getUsuario().getId(),
+                    solucion.getUsuario().getUsername(), RankingService.Metrica.VOTOS,
+                    updateDTO.getVotos() - actuales));
+            // Con UPDATE directo: la entidad puede tener un valor anterior a los últimos volcados
+            solucionRepository.fijarVotos(id, updateDTO.getVotos());
             solucion.setVotos(updateDTO.getVotos());
         }
 
         Solucion solucionActualizada = solucionRepository.save(solucion);
+        if (cambiaDescripcion || updateDTO.getVotos() != null) {
+            eventPublisher.publishEvent(new SolucionesModificadasEvent(List.of(id)));
+        }
 
         // Registrar en auditoría
         auditLogService.registrarOperacion(
@@ -161,7 +209,7 @@ public class SolucionService {
                 cambios
         );
 
-        return SolucionDTO.fromEntity(solucionActualizada);
+        return conVotosPendientes(SolucionDTO.fromEntity(solucionActualizada));
     }
 
     /**
@@ -175,7 +223,17 @@ public class SolucionService {
                 .orElseThrow(() -> ResourceNotFoundException.withId("Solución", id));
 
         Usuario usuario = solucion.getUsuario();
+        Incidencia incidencia = solucion.getIncidencia();
+        long votos = solucion.getVotos() + acumuladorVotos.pendientes(id);
         solucionRepository.deleteById(id);
+        acumuladorVotos.descartar(id);
+        eventPublisher.publishEvent(new ActividadUsuarioEvent(
+                usuario.getId(), usuario.getUsername(), RankingService.Metrica.SOLUCIONES, -1));
+        eventPublisher.publishEvent(new ActividadUsuarioEvent(
+                usuario.getId(), usuario.getUsername(), RankingService.Metrica.VOTOS, -votos));
+        eventPublisher.publishEvent(new SolucionesModificadasEvent(List.of(id)));
+        incidenciaRepository.sumarTotalSoluciones(incidencia.getId(), -1);
+        incidencia.setTotalSoluciones(incidencia.getTotalSoluciones() - 1);
 
         // Registrar en auditoría
         auditLogService.registrarOperacion(
@@ -184,61 +242,118 @@ public class SolucionService {
                 id,
                 usuario.getId(),
                 usuario.getUsername(),
-                "Solución eliminada para incidencia: " + solucion.getIncidencia().getTitulo()
+                "Solución eliminada para incidencia: " + incidencia.getTitulo()
         );
     }
 
     /**
-     * Agrega un voto a una solución (LÓGICA DE NEGOCIO: no permite votos del mismo usuario)
+     * Agrega el voto de un usuario a una solución (LÓGICA DE NEGOCIO: un voto por usuario)
      *
-     * Este método simplemente incrementa el contador de votos.
-     * Para implementar la validación de "un voto por usuario", se necesaría
-     * una tabla intermedia "voto" que relacione usuarios con soluciones.
-     * Por ahora, incrementamos el contador general.
+     * El voto se anota en votos_soluciones (VotoSolucionService); si el usuario ya había
+     * votado no se cuenta de nuevo. El contador se acumula en memoria (AcumuladorVotosService)
+     * y se escribe en el siguiente volcado por lotes. Los votos no se registran uno a uno en auditoría.
      *
      * @param id ID de la solución
-     * @return Solución actualizada
+     * @param usuarioId ID del usuario que vota
+     * @return Solución con el voto ya contado y votado = true
      * @throws ResourceNotFoundException Si la solución no existe
      */
-    public SolucionDTO agregarVoto(Long id) {
-        Solucion solucion = solucionRepository.findById(id)
+    public SolucionDTO agregarVoto(Long id, Long usuarioId) {
+        SolucionDTO solucion = solucionRepository.findDTOById(id)
                 .orElseThrow(() -> ResourceNotFoundException.withId("Solución", id));
 
-        solucion.setVotos(solucion.getVotos() + 1);
-        Solucion solucionActualizada = solucionRepository.save(solucion);
+        if (votoSolucionService.registrarSiNuevo(usuarioId, id)) {
+            acumuladorVotos.registrar(id);
+            // El acumulador lo suma tras el commit
+            solucion.setVotos(solucion.getVotos() + 1);
+            // El voto cuenta para el autor de la solución
+            eventPublisher.publishEvent(new ActividadUsuarioEvent(
+                    solucion.getUsuarioId(), solucion.getUsuarioUsername(), RankingService.Metrica.VOTOS, 1));
+        }
+        solucion.setVotado(true);
+        return conVotosPendientes(solucion);
+    }
 
-        // Registrar en auditoría
-        auditLogService.registrarOperacion(
-                "UPDATE",
-                "Solución",
-                solucionActualizada.getId(),
-                solucion.getUsuario().getId(),
-                solucion.getUsuario().getUsername(),
-                "Voto agregado. Votos totales: " + solucionActualizada.getVotos()
-        );
+    /**
+     * Obtiene las soluciones más votadas de una incidencia
+     *
+     * @param incidenciaId ID de la incidencia
+     * @param top Número de soluciones, null para el valor por defecto (máximo Paginacion.LIMITE_MAXIMO)
+     * @throws ValidationException Si top no es válido
+     */
+    @Transactional(readOnly = true)
+    public List<SolucionDTO> obtenerMasVotadasPorIncidencia(Long incidenciaId, Integer top) {
+        int limite = Paginacion.limite(top);
+        if (!incidenciaRepository.existsById(incidenciaId)) {
+            throw ResourceNotFoundException.withId("Incidencia", incidenciaId);
+        }
 
-        return SolucionDTO.fromEntity(solucionActualizada);
+        List<SolucionDTO> soluciones = solucionRepository.findDTOMasVotadasByIncidencia(
+                incidenciaId, PageRequest.of(0, limite));
+        soluciones.forEach(this::conVotosPendientes);
+        return soluciones;
     }
 
     /**
-     * Obtiene las soluciones más votadas de una incidencia
+     * Obtiene las soluciones más votadas de todas las incidencias
+     *
+     * @param top Número de soluciones, null para el valor por defecto (máximo Paginacion.LIMITE_MAXIMO)
+     * @throws ValidationException Si top no es válido
+     */
+    @Transactional(readOnly = true)
+    public List<SolucionDTO> obtenerMasVotadas(Integer top) {
+        List<SolucionDTO> soluciones = solucionRepository.findDTOMasVotadas(PageRequest.of(0, Paginacion.limite(top)));
+        soluciones.forEach(this::conVotosPendientes);
+        return soluciones;
+    }
+
+    /**
+     * Obtiene la mejor solución (la más votada) de varias incidencias con una única consulta.
+     * Pensado para una página de incidencias.
+     *
+     * @param incidenciaIds IDs de las incidencias (como máximo Paginacion.LIMITE_MAXIMO)
+     * @return La mejor solución de cada incidencia pedida que tenga soluciones, en el orden de los IDs
+     * @throws ValidationException Si no se indica ningún ID o se superan los permitidos
      */
-    public List<SolucionDTO> obtenerMasVotadasPorIncidencia(Long incidenciaId) {
-        incidenciaRepository.findById(incidenciaId)
-                .orElseThrow(() -> ResourceNotFoundException.withId("Incidencia", incidenciaId));
-
-        return solucionRepository.findByIncidenciaId(incidenciaId)
-                .stream()
-                .sorted((s1, s2) -> s2.getVotos().compareTo(s1.getVotos()))
-                .map(SolucionDTO::fromEntity)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<SolucionDTO> obtenerMejoresPorIncidencias(List<Long> incidenciaIds) {
+        if (incidenciaIds == null || incidenciaIds.isEmpty()) {
+            throw new ValidationException("Debe indicar al menos un ID de incidencia");
+        }
+        Set<Long> ids = new LinkedHashSet<>(incidenciaIds);
+        if (ids.size() > Paginacion.LIMITE_MAXIMO) {
+            throw new ValidationException("Como máximo se pueden consultar " + Paginacion.LIMITE_MAXIMO + " incidencias");
+        }
+
+        Map<Long, SolucionDTO> porIncidencia = new HashMap<>();
+        for (SolucionDTO solucion : solucionRepository.findDTOMejoresByIncidencias(ids)) {
+            porIncidencia.put(solucion.getIncidenciaId(), conVotosPendientes(solucion));
+        }
+        List<SolucionDTO> mejores = new ArrayList<>(porIncidencia.size());
+        for (Long id : ids) {
+            SolucionDTO solucion = porIncidencia.get(id);
+            if (solucion != null) {
+                mejores.add(solucion);
+            }
+        }
+        return mejores;
     }
 
     /**
      * Cuenta el número de soluciones de una incidencia
      */
     public long contarPorIncidencia(Long incidenciaId) {
-        return solucionRepository.findByIncidenciaId(incidenciaId).size();
+        return solucionRepository.countByIncidenciaId(incidenciaId);
     }
-}
 
+    /**
+     * Suma a los votos leídos de la base de datos los que aún no se han volcado
+     */
+    private SolucionDTO conVotosPendientes(SolucionDTO solucion) {
+        long pendientes = acumuladorVotos.pendientes(solucion.getId());
+        if (pendientes != 0) {
+            solucion.setVotos((int) (solucion.getVotos() + pendientes));
+        }
+        return solucion;
+    }
+}
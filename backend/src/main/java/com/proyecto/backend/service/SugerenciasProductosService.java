@@ -0,0 +1,159 @@
+package com.proyecto.backend.service;
+
+import com.proyecto.backend.dto.ProductoBusquedaDTO;
+import com.proyecto.backend.dto.SugerenciaProductoDTO;
+import com.proyecto.backend.event.ProductosModificadosEvent;
+import com.proyecto.backend.exception.ValidationException;
+import com.proyecto.backend.repository.ProductoRepository;
+import com.proyecto.backend.search.AnalizadorEspanol;
+import com.proyecto.backend.search.FuenteIndices;
+import com.proyecto.backend.search.IndiceInvertido;
+import com.proyecto.backend.search.IndicePrefijos;
+import com.proyecto.backend.util.Paginacion;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Autocompletado, búsqueda de texto y lista de marcas de productos (por nombre, marca y modelo).
+ * Las sugerencias y las marcas salen de un índice de prefijos en memoria y la búsqueda, de un
+ * índice invertido (sin LIKE '%...%' ni DISTINCT sobre la tabla). Ambos se construyen al arrancar
+ * en una sola lectura de la tabla y se actualizan tras el commit de cada escritura con
+ * ProductosModificadosEvent.
+ */
+@Service
+public class SugerenciasProductosService {
+
+    private static final Logger log = LoggerFactory.getLogger(SugerenciasProductosService.class);
+
+    private static final int TAMANO_LOTE = 1_000;
+
+    // Pesos de nombre, marca y modelo en la búsqueda de texto
+    private static final double PESO_NOMBRE = 2.0;
+    private static final double PESO_MARCA = 1.0;
+    private static final double PESO_MODELO = 1.0;
+
+    /** Campos del índice, en el orden en que se indexan */
+    public enum Tipo {
+        NOMBRE, MARCA, MODELO
+    }
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    private FuenteIndices fuente;
+    private FuenteIndices.Indice<IndicePrefijos> indice;
+    private FuenteIndices.Indice<IndiceInvertido> indiceTexto;
+
+    @PostConstruct
+    void init() {
+        fuente = new FuenteIndices(
+                (despuesDe, tamano) -> productoRepository.findTextosPagina(despuesDe, PageRequest.of(0, tamano)),
+                productoRepository::findTextosByIds, TAMANO_LOTE);
+        // fila: id, nombre, marca, modelo (en el orden de Tipo)
+        indice = fuente.registrar(() -> new IndicePrefijos(Tipo.values().length),
+                (destino, fila) -> destino.indexar((Long) fila[0], (String) fila[1], (String) fila[2], (String) fila[3]),
+                IndicePrefijos::eliminar);
+        indiceTexto = fuente.registrar(() -> new IndiceInvertido(PESO_NOMBRE, PESO_MARCA, PESO_MODELO),
+                (destino, fila) -> destino.indexar((Long) fila[0], (String) fila[1], (String) fila[2], (String) fila[3]),
+                IndiceInvertido::eliminar);
+    }
+
+    /**
+     * Nombres, marcas y modelos con alguna palabra que empieza por el prefijo
+     * (sin distinguir mayúsculas ni tildes). Primero los que empiezan por el prefijo
+     * y, entre ellos, los de más productos.
+     *
+     * @param prefix Texto escrito por el usuario
+     * @param limit Número de sugerencias, null para el valor por defecto (máximo Paginacion.LIMITE_MAXIMO)
+     * @throws ValidationException Si no hay prefijo o el límite no es válido
+     */
+    public List<SugerenciaProductoDTO> sugerir(String prefix, Integer limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new ValidationException("Debe indicar el prefijo");
+        }
+        int limite = Paginacion.limite(limit);
+
+        List<SugerenciaProductoDTO> sugerencias = new ArrayList<>();
+        for (IndicePrefijos.Sugerencia sugerencia : indice.actual().sugerir(prefix, limite)) {
+            sugerencias.add(new SugerenciaProductoDTO(sugerencia.texto(),
+                    Tipo.values()[sugerencia.campo()].name(), sugerencia.documentos()));
+        }
+        return sugerencias;
+    }
+
+    /**
+     * Busca productos por nombre, marca y modelo, del más relevante al menos (el nombre pesa el doble).
+     * Ignora mayúsculas, tildes, plurales y palabras vacías.
+     *
+     * @param q Texto a buscar
+     * @param limit Número de productos, null para el valor por defecto (máximo Paginacion.LIMITE_MAXIMO)
+     * @throws ValidationException Si no hay texto o el límite no es válido
+     */
+    public List<ProductoBusquedaDTO> buscar(String q, Integer limit) {
+        if (q == null || q.isBlank()) {
+            throw new ValidationException("Debe indicar el texto a buscar");
+        }
+        int limite = Paginacion.limite(limit);
+
+        List<String> terminos = AnalizadorEspanol.terminos(q);
+        List<IndiceInvertido.Resultado> resultados = terminos.isEmpty()
+                ? List.of()
+                : indiceTexto.actual().buscar(terminos, null, 0, limite);
+        List<ProductoBusquedaDTO> encontrados = new ArrayList<>();
+        if (resultados.isEmpty()) {
+            return encontrados;
+        }
+
+        Map<Long, Object[]> productos = new HashMap<>();
+        for (Object[] fila : productoRepository.findTextosByIds(
+                resultados.stream().map(IndiceInvertido.Resultado::id).toList())) {
+            productos.put((Long) fila[0], fila);
+        }
+        for (IndiceInvertido.Resultado resultado : resultados) {
+            Object[] fila = productos.get(resultado.id());
+            // Eliminado entre la búsqueda en el índice y la consulta
+            if (fila != null) {
+                encontrados.add(new ProductoBusquedaDTO(resultado.id(), (String) fila[1], (String) fila[2],
+                        (String) fila[3], resultado.puntuacion()));
+            }
+        }
+        return encontrados;
+    }
+
+    /**
+     * Marcas distintas de todos los productos, ordenadas alfabéticamente
+     * (las que solo difieren en mayúsculas o tildes cuentan como una)
+     */
+    public List<String> obtenerMarcas() {
+        return indice.actual().valores(Tipo.MARCA.ordinal());
+    }
+
+    /**
+     * Actualiza en los índices los productos modificados
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarProductos(ProductosModificadosEvent evento) {
+        fuente.actualizar(evento.ids());
+    }
+
+    /**
+     * Construye los índices desde la base de datos
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        long cargados = fuente.reconstruir();
+        log.info("Índice de autocompletado construido con {} productos", cargados);
+    }
+}
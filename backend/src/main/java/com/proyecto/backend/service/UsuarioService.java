@@ -1,21 +1,31 @@
 package com.proyecto.backend.service;
 
+import com.proyecto.backend.dto.CursorPage;
 import com.proyecto.backend.dto.UsuarioCreateDTO;
 import com.proyecto.backend.dto.UsuarioDTO;
 import com.proyecto.backend.dto.UsuarioUpdateDTO;
+import com.proyecto.backend.event.ActividadUsuarioEvent;
+import com.proyecto.backend.event.IncidenciasModificadasEvent;
+import com.proyecto.backend.event.RankingInvalidadoEvent;
+import com.proyecto.backend.event.SolucionesModificadasEvent;
+import com.proyecto.backend.event.UsuarioModificadoEvent;
 import com.proyecto.backend.exception.BusinessLogicException;
 import com.proyecto.backend.exception.ResourceNotFoundException;
 import com.proyecto.backend.exception.ValidationException;
 import com.proyecto.backend.model.Usuario;
+import com.proyecto.backend.repository.IncidenciaRepository;
+import com.proyecto.backend.repository.SolucionRepository;
 import com.proyecto.backend.repository.UsuarioRepository;
+import com.proyecto.backend.util.CursorCodec;
+import com.proyecto.backend.util.Paginacion;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -24,20 +34,32 @@ public class UsuarioService {
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    @Autowired
+    private IncidenciaRepository incidenciaRepository;
+
+    @Autowired
+    private SolucionRepository solucionRepository;
+
     @Autowired
     private AuditLogService auditLogService;
 
+    @Autowired
+    private IncidenciaService incidenciaService;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
-     * Obtiene todos los usuarios
+     * Obtiene una página de usuarios ordenados por ID
      */
-    public List<UsuarioDTO> obtenerTodos() {
-        return usuarioRepository.findAll()
-                .stream()
-                .map(UsuarioDTO::fromEntity)
-                .collect(Collectors.toList());
+    public CursorPage<UsuarioDTO> obtenerTodos(String after, Integer limit) {
+        int limite = Paginacion.limite(limit);
+        List<Usuario> usuarios = usuarioRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorCodec.decodificarId(after), Paginacion.siguientes(limite));
+        return Paginacion.paginaPorId(usuarios, limite, Usuario::getId, UsuarioDTO::fromEntity);
     }
 
     /**
@@ -93,6 +115,8 @@ public class UsuarioService {
         usuario.setRole(Usuario.Role.valueOf(createDTO.getRole()));
 
         Usuario usuarioGuardado = usuarioRepository.save(usuario);
+        eventPublisher.publishEvent(new ActividadUsuarioEvent(
+                usuarioGuardado.getId(), usuarioGuardado.getUsername(), null, 0));
 
         // Registrar en auditoría
         auditLogService.registrarOperacion(
@@ -130,6 +154,7 @@ public class UsuarioService {
             }
             cambios += "Username: " + usuario.getUsername() + " -> " + updateDTO.getUsername() + "; ";
             usuario.setUsername(updateDTO.getUsername());
+            eventPublisher.publishEvent(new ActividadUsuarioEvent(id, updateDTO.getUsername(), null, 0));
         }
 
         // Validar y actualizar email
@@ -161,6 +186,8 @@ public class UsuarioService {
         }
 
         Usuario usuarioActualizado = usuarioRepository.save(usuario);
+        // Username, email, contraseña o rol pueden haber cambiado: fuera de la caché de inicio de sesión
+        eventPublisher.publishEvent(new UsuarioModificadoEvent(id));
 
         // Registrar en auditoría
         auditLogService.registrarOperacion(
@@ -188,9 +215,19 @@ public class UsuarioService {
                 .orElseThrow(() -> ResourceNotFoundException.withId("Usuario", id));
 
         // Los productos NO se borran, solo pierden la referencia al usuario
-        // Las incidencias y soluciones se borran automáticamente por CascadeType.ALL
+        // Las incidencias y soluciones se borran automáticamente por CascadeType.ALL,
+        // así que antes se descuentan sus soluciones del contador de cada incidencia
+        incidenciaRepository.descontarSolucionesDeUsuario(id);
+        List<Long> incidenciaIds = incidenciaRepository.findIdsByUsuarioId(id);
+        List<Long> solucionIds = solucionRepository.findIdsByUsuarioOSusIncidencias(id);
 
         usuarioRepository.deleteById(id);
+        incidenciaService.invalidarEstadisticas();
+        // Sus incidencias se borran en cascada con las soluciones de otros usuarios
+        eventPublisher.publishEvent(new RankingInvalidadoEvent(id));
+        eventPublisher.publishEvent(new IncidenciasModificadasEvent(incidenciaIds));
+        eventPublisher.publishEvent(new SolucionesModificadasEvent(solucionIds));
+        eventPublisher.publishEvent(new UsuarioModificadoEvent(id));
 
         // Registrar en auditoría
         auditLogService.registrarOperacion(
@@ -0,0 +1,102 @@
+package com.proyecto.backend.service;
+
+import com.proyecto.backend.repository.VotoSolucionRepository;
+import com.proyecto.backend.util.FiltroBloom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registro de los votos de cada usuario (tabla votos_soluciones) para permitir un solo voto
+ * por usuario y solución. Delante de la tabla hay un filtro de Bloom con todos los pares
+ * (usuario, solución) votados: si el filtro dice que un par no está, es seguro que no ha votado
+ * y se inserta directamente sin consultar antes. El filtro se reconstruye al arrancar leyendo
+ * la tabla por lotes.
+ */
+@Service
+public class VotoSolucionService {
+
+    private static final Logger log = LoggerFactory.getLogger(VotoSolucionService.class);
+
+    private static final int TAMANO_LOTE = 10_000;
+
+    private static final String SQL_INSERTAR =
+            "INSERT INTO votos_soluciones (usuario_id, solucion_id, fecha) VALUES (?, ?, ?)";
+
+    @Autowired
+    private VotoSolucionRepository votoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.votos.filtro-capacidad:1000000}")
+    private long capacidadFiltro;
+
+    @Value("${app.votos.filtro-falsos-positivos:0.01}")
+    private double falsosPositivosFiltro;
+
+    // Filtro mínimo hasta la reconstrucción al arrancar; mientras tanto la clave única evita duplicados
+    private volatile FiltroBloom filtro = new FiltroBloom(1, 0.5);
+
+    /**
+     * Registra el voto de un usuario a una solución si no lo había votado antes
+     *
+     * @return true si el voto es nuevo, false si el usuario ya había votado esa solución
+     */
+    public boolean registrarSiNuevo(Long usuarioId, Long solucionId) {
+        if (filtro.puedeContener(usuarioId, solucionId)
+                && votoRepository.existsByUsuarioIdAndSolucionId(usuarioId, solucionId)) {
+            return false;
+        }
+
+        try {
+            jdbcTemplate.update(SQL_INSERTAR, usuarioId, solucionId, Timestamp.valueOf(LocalDateTime.now()));
+        } catch (DuplicateKeyException e) {
+            // Otro voto simultáneo del mismo usuario llegó antes, o el filtro aún no estaba construido
+            filtro.anadir(usuarioId, solucionId);
+            return false;
+        }
+        filtro.anadir(usuarioId, solucionId);
+        return true;
+    }
+
+    /**
+     * Reconstruye el filtro con todos los votos de la tabla, recorriéndola por lotes de ID.
+     * Si un voto registrado durante la reconstrucción no llega al filtro nuevo, la clave única
+     * sigue impidiendo el duplicado: solo cuesta una inserción rechazada.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruirFiltro() {
+        Long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM votos_soluciones", Long.class);
+        // Margen para los votos nuevos hasta el siguiente arranque
+        FiltroBloom nuevo = new FiltroBloom(Math.max(capacidadFiltro, total * 2), falsosPositivosFiltro);
+
+        long ultimoId = 0;
+        long cargados = 0;
+        List<Map<String, Object>> lote;
+        do {
+            lote = jdbcTemplate.queryForList(
+                    "SELECT id, usuario_id, solucion_id FROM votos_soluciones WHERE id > ? ORDER BY id LIMIT ?",
+                    ultimoId, TAMANO_LOTE);
+            for (Map<String, Object> fila : lote) {
+                nuevo.anadir(((Number) fila.get("usuario_id")).longValue(), ((Number) fila.get("solucion_id")).longValue());
+                ultimoId = ((Number) fila.get("id")).longValue();
+            }
+            cargados += lote.size();
+        } while (lote.size() == TAMANO_LOTE);
+
+        filtro = nuevo;
+        log.info("Filtro de votos reconstruido con {} votos", cargados);
+    }
+}
@@ -0,0 +1,143 @@
+package com.proyecto.backend.storage;
+
+import com.proyecto.backend.exception.ValidationException;
+import com.proyecto.backend.util.ImagenUtils;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Implementación de ImageStore en disco.
+ * Las imágenes se guardan como {raiz}/ab/cd/abcd...(sha256), escribiendo primero
+ * en un temporal y moviéndolo de forma atómica, así nunca se ve un fichero a medias.
+ */
+@Component
+public class FileSystemImageStore implements ImageStore {
+
+    private static final Pattern HASH_VALIDO = Pattern.compile("[0-9a-f]{64}");
+    private static final int TAMANO_BUFFER = 64 * 1024;
+
+    @Value("${app.imagenes.directorio:data/imagenes}")
+    private String directorio;
+
+    private Path raiz;
+    private Path temporales;
+
+    @PostConstruct
+    void inicializar() throws IOException {
+        raiz = Paths.get(directorio).toAbsolutePath().normalize();
+        temporales = raiz.resolve("tmp");
+        Files.createDirectories(temporales);
+    }
+
+    @Override
+    public String guardar(InputStream contenido, long tamanoMaximo) throws IOException {
+        MessageDigest digest = ImagenUtils.nuevoDigest();
+        Path temporal = Files.createTempFile(temporales, "subida-", ".tmp");
+        try {
+            long escritos = 0;
+            try (OutputStream salida = Files.newOutputStream(temporal)) {
+                byte[] buffer = new byte[TAMANO_BUFFER];
+                int leidos;
+                while ((leidos = contenido.read(buffer)) != -1) {
+                    escritos += leidos;
+                    if (escritos > tamanoMaximo) {
+                        throw new ValidationException("La imagen supera el tamaño máximo de " + tamanoMaximo + " bytes");
+                    }
+                    digest.update(buffer, 0, leidos);
+                    salida.write(buffer, 0, leidos);
+                }
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path destino = ruta(hash);
+            if (Files.exists(destino)) {
+                // Imagen duplicada: se reutiliza y se marca como usada para la limpieza
+                Files.setLastModifiedTime(destino, FileTime.from(Instant.now()));
+            } else {
+                Files.createDirectories(destino.getParent());
+                mover(temporal, destino);
+            }
+            return hash;
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    @Override
+    public String guardar(byte[] contenido) {
+        try {
+            return guardar(new ByteArrayInputStream(contenido), Long.MAX_VALUE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo guardar la imagen", e);
+        }
+    }
+
+    @Override
+    public Optional<Resource> abrir(String hash) {
+        Path fichero = ruta(hash);
+        return Files.isRegularFile(fichero) ? Optional.of(new FileSystemResource(fichero)) : Optional.empty();
+    }
+
+    @Override
+    public int eliminarNoReferenciadas(Set<String> referenciadas, Instant anterioresA) throws IOException {
+        List<Path> candidatas;
+        try (Stream<Path> ficheros = Files.walk(raiz)) {
+            candidatas = ficheros
+                    .filter(Files::isRegularFile)
+                    .filter(f -> !f.startsWith(temporales))
+                    .filter(f -> HASH_VALIDO.matcher(f.getFileName().toString()).matches())
+                    .filter(f -> !referenciadas.contains(f.getFileName().toString()))
+                    .collect(Collectors.toList());
+        }
+
+        int eliminadas = 0;
+        for (Path fichero : candidatas) {
+            if (Files.getLastModifiedTime(fichero).toInstant().isBefore(anterioresA) && Files.deleteIfExists(fichero)) {
+                eliminadas++;
+            }
+        }
+        return eliminadas;
+    }
+
+    private Path ruta(String hash) {
+        if (hash == null || !HASH_VALIDO.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Hash de imagen no válido: " + hash);
+        }
+        return raiz.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private static void mover(Path origen, Path destino) throws IOException {
+        try {
+            Files.move(origen, destino, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Otro hilo guardó la misma imagen a la vez: el contenido es idéntico
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(origen, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
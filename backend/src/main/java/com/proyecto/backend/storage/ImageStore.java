@@ -0,0 +1,47 @@
+package com.proyecto.backend.storage;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Almacén de imágenes direccionado por contenido.
+ * Cada imagen se identifica por el SHA-256 de sus bytes, por lo que
+ * subir dos veces la misma imagen solo la guarda una vez.
+ */
+public interface ImageStore {
+
+    /**
+     * Guarda una imagen leyéndola en streaming
+     * @param contenido Bytes de la imagen
+     * @param tamanoMaximo Tamaño máximo admitido en bytes
+     * @return SHA-256 de la imagen en hexadecimal
+     * @throws com.proyecto.backend.exception.ValidationException Si supera el tamaño máximo
+     */
+    String guardar(InputStream contenido, long tamanoMaximo) throws IOException;
+
+    /**
+     * Guarda una imagen que ya está en memoria
+     * @param contenido Bytes de la imagen
+     * @return SHA-256 de la imagen en hexadecimal
+     */
+    String guardar(byte[] contenido);
+
+    /**
+     * Abre una imagen para leerla
+     * @param hash SHA-256 de la imagen
+     * @return Recurso con la imagen, vacío si no existe
+     */
+    Optional<Resource> abrir(String hash);
+
+    /**
+     * Elimina las imágenes que no están en el conjunto de referenciadas
+     * y no se han guardado ni reutilizado desde la fecha indicada
+     * @return Número de imágenes eliminadas
+     */
+    int eliminarNoReferenciadas(Set<String> referenciadas, Instant anterioresA) throws IOException;
+}
@@ -0,0 +1,69 @@
+package com.proyecto.backend.util;
+
+import com.proyecto.backend.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.StringJoiner;
+
+/**
+ * Codifica y decodifica los cursores de paginación.
+ * El cursor es opaco para el cliente: los valores de la última fila de la página
+ * (p. ej. fecha e ID) unidos con '|' y codificados en Base64 URL-safe.
+ */
+public final class CursorCodec {
+
+    private static final String SEPARADOR = "|";
+
+    private CursorCodec() {
+    }
+
+    /**
+     * Codifica los valores de la última fila de una página
+     * @param valores Valores del cursor (no pueden contener '|')
+     * @return Cursor opaco
+     */
+    public static String codificar(Object... valores) {
+        StringJoiner joiner = new StringJoiner(SEPARADOR);
+        for (Object valor : valores) {
+            joiner.add(String.valueOf(valor));
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(joiner.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursor en sus valores
+     * @param cursor Cursor recibido del cliente
+     * @param numValores Número de valores esperados
+     * @throws ValidationException Si el cursor no es válido
+     */
+    public static String[] decodificar(String cursor, int numValores) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] partes = valor.split("\\|", -1);
+            if (partes.length != numValores) {
+                throw new ValidationException("Cursor no válido");
+            }
+            return partes;
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Cursor no válido", e);
+        }
+    }
+
+    /**
+     * Decodifica un cursor que solo contiene un ID
+     * @return ID del cursor, o 0 si no hay cursor (primera página)
+     * @throws ValidationException Si el cursor no es válido
+     */
+    public static long decodificarId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(decodificar(cursor, 1)[0]);
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Cursor no válido", e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.proyecto.backend.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom para pares de IDs (por ejemplo, usuario y solución).
+ * puedeContener() nunca da falsos negativos: si devuelve false, el par no se añadió.
+ * Si devuelve true, el par probablemente se añadió (falsos positivos con la probabilidad
+ * indicada al crearlo, mientras no se supere la capacidad).
+ * Es seguro para uso concurrente: los bits se activan con operaciones atómicas.
+ */
+public final class FiltroBloom {
+
+    private final AtomicLongArray bits;
+    private final long numBits;
+    private final int numHashes;
+
+    /**
+     * @param capacidad Número de elementos previstos
+     * @param probabilidadFalsoPositivo Probabilidad de falso positivo con esa capacidad (p. ej. 0.01)
+     */
+    public FiltroBloom(long capacidad, double probabilidadFalsoPositivo) {
+        long n = Math.max(1, capacidad);
+        // m = -n ln(p) / (ln 2)^2 ; k = m/n ln 2
+        long m = (long) Math.ceil(-n * Math.log(probabilidadFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        int palabras = (int) Math.min(Integer.MAX_VALUE, (Math.max(64, m) + 63) / 64);
+        this.bits = new AtomicLongArray(palabras);
+        this.numBits = (long) palabras * 64;
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / n * Math.log(2)));
+    }
+
+    public void anadir(long a, long b) {
+        long h1 = HashUtils.mezclar(a * 0x9E3779B97F4A7C15L ^ b);
+        long h2 = HashUtils.mezclar(h1 ^ 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, numBits);
+            int palabra = (int) (bit >>> 6);
+            long mascara = 1L << bit;
+            long actual = bits.get(palabra);
+            while ((actual & mascara) == 0) {
+                long anterior = bits.compareAndExchange(palabra, actual, actual | mascara);
+                if (anterior == actual) {
+                    break;
+                }
+                actual = anterior;
+            }
+        }
+    }
+
+    public boolean puedeContener(long a, long b) {
+        long h1 = HashUtils.mezclar(a * 0x9E3779B97F4A7C15L ^ b);
+        long h2 = HashUtils.mezclar(h1 ^ 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, numBits);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,23 @@
+package com.proyecto.backend.util;
+
+/**
+ * Funciones hash no criptográficas para las estructuras en memoria (FiltroBloom, IndiceMinHash)
+ */
+public final class HashUtils {
+
+    private HashUtils() {
+    }
+
+    /**
+     * Paso final de MurmurHash3 (fmix64): reparte bien los bits de valores parecidos,
+     * como IDs consecutivos
+     */
+    public static long mezclar(long x) {
+        x ^= x >>> 33;
+        x *= 0xFF51AFD7ED558CCDL;
+        x ^= x >>> 33;
+        x *= 0xC4CEB9FE1A85EC53L;
+        x ^= x >>> 33;
+        return x;
+    }
+}
@@ -0,0 +1,80 @@
+package com.proyecto.backend.util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public final class ImagenUtils {
+
+    public static final String TIPO_POR_DEFECTO = "application/octet-stream";
+
+    private ImagenUtils() {
+    }
+
+    /**
+     * Calcula el hash SHA-256 de una imagen en hexadecimal
+     * @param datos Bytes de la imagen
+     * @return Hash en hexadecimal (64 caracteres)
+     */
+    public static String sha256(byte[] datos) {
+        return HexFormat.of().formatHex(nuevoDigest().digest(datos));
+    }
+
+    /**
+     * Crea un MessageDigest SHA-256
+     */
+    public static MessageDigest nuevoDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Detecta el Content-Type de una imagen a partir de sus primeros bytes
+     * @param cabecera Primeros bytes de la imagen (al menos 12)
+     * @return Content-Type detectado o application/octet-stream
+     */
+    public static String detectarTipo(byte[] cabecera) {
+        if (cabecera == null || cabecera.length < 4) {
+            return TIPO_POR_DEFECTO;
+        }
+        if (empiezaPor(cabecera, 0, 0xFF, 0xD8, 0xFF)) {
+            return "image/jpeg";
+        }
+        if (empiezaPor(cabecera, 0, 0x89, 'P', 'N', 'G')) {
+            return "image/png";
+        }
+        if (empiezaPor(cabecera, 0, 'G', 'I', 'F', '8')) {
+            return "image/gif";
+        }
+        if (empiezaPor(cabecera, 0, 'B', 'M')) {
+            return "image/bmp";
+        }
+        if (cabecera.length >= 12 && empiezaPor(cabecera, 0, 'R', 'I', 'F', 'F') && empiezaPor(cabecera, 8, 'W', 'E', 'B', 'P')) {
+            return "image/webp";
+        }
+        if (cabecera.length >= 12 && empiezaPor(cabecera, 4, 'f', 't', 'y', 'p')) {
+            if (empiezaPor(cabecera, 8, 'a', 'v', 'i', 'f')) {
+                return "image/avif";
+            }
+            if (empiezaPor(cabecera, 8, 'h', 'e', 'i', 'c')) {
+                return "image/heic";
+            }
+        }
+        return TIPO_POR_DEFECTO;
+    }
+
+    private static boolean empiezaPor(byte[] datos, int desde, int... firma) {
+        if (datos.length < desde + firma.length) {
+            return false;
+        }
+        for (int i = 0; i < firma.length; i++) {
+            if ((datos[desde + i] & 0xFF) != firma[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,60 +1,149 @@
 package com.proyecto.backend.util;
 
+import com.proyecto.backend.model.Usuario;
+import com.proyecto.backend.security.UsuarioPrincipal;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Component
 public class JwtUtil {
 
+    // Claims propios: con ellos el filtro construye el UsuarioPrincipal sin consultar la base de datos
+    private static final String CLAIM_USUARIO_ID = "uid";
+    private static final String CLAIM_ROL = "role";
+
     @Value("${jwt.secret:tu_clave_secreta_muy_larga_y_segura_aqui_minimo_256bits}")
     private String jwtSecret;
 
     @Value("${jwt.expiration:86400000}")
     private long jwtExpiration; // 24 horas por defecto
 
-    /**
-     * Obtiene la clave secreta para firmar/verificar tokens
-     */
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    // Número máximo de tokens verificados que se recuerdan
+    @Value("${jwt.cache-size:10000}")
+    private int cacheSize;
+
+    // Clave y parser se construyen una vez: son inmutables y seguros entre hilos
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // Tokens ya verificados, por hash SHA-256 del token, del menos al más usado recientemente
+    private Map<String, TokenVerificado> verificados;
+
+    private record TokenVerificado(Claims claims, long caducaEn) {
+    }
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser().verifyWith(signingKey).build();
+        verificados = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TokenVerificado> eldest) {
+                return size() > cacheSize;
+            }
+        };
     }
 
     /**
-     * Genera un token JWT para un usuario
+     * Genera un token JWT para un usuario, con su ID y su rol como claims
+     * @param usuarioId ID del usuario
      * @param username Nombre de usuario
+     * @param role Rol del usuario (USER o ADMIN)
      * @return Token JWT
      */
-    public String generateToken(String username) {
+    public String generateToken(Long usuarioId, String username, String role) {
         return Jwts.builder()
                 .subject(username)
+                .claim(CLAIM_USUARIO_ID, usuarioId)
+                .claim(CLAIM_ROL, role)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * Verifica la firma y la expiración de un token y devuelve sus claims.
+     * Un token ya verificado se recuerda hasta que expira (o sale de la caché por tamaño),
+     * así que las peticiones siguientes con el mismo token no vuelven a parsearlo ni a calcular el HMAC.
+     * @param token Token JWT
+     * @return Claims del token, o null si no es válido o está expirado
+     */
+    public Claims parseAndVerify(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        String clave = hash(token);
+        long ahora = System.currentTimeMillis();
+
+        TokenVerificado verificado;
+        synchronized (verificados) {
+            verificado = verificados.get(clave);
+            if (verificado != null && verificado.caducaEn() <= ahora) {
+                verificados.remove(clave);
+                return null;
+            }
+        }
+        if (verificado != null) {
+            return verificado.claims();
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        // Sin expiración no se guarda: la caché solo adelanta comprobaciones que caducan
+        if (claims.getExpiration() != null) {
+            synchronized (verificados) {
+                verificados.put(clave, new TokenVerificado(claims, claims.getExpiration().getTime()));
+            }
+        }
+        return claims;
+    }
+
+    /**
+     * Usuario autenticado a partir de los claims de un token ya verificado
+     * @param claims Claims devueltos por parseAndVerify
+     * @return Principal del usuario, o null si al token le faltan el ID o el rol
+     * (tokens emitidos antes de incluirlos: el usuario debe volver a iniciar sesión)
+     */
+    public UsuarioPrincipal getPrincipal(Claims claims) {
+        Long usuarioId = claims.get(CLAIM_USUARIO_ID, Long.class);
+        String role = claims.get(CLAIM_ROL, String.class);
+        if (usuarioId == null || role == null || claims.getSubject() == null) {
+            return null;
+        }
+        try {
+            return new UsuarioPrincipal(usuarioId, claims.getSubject(), Usuario.Role.valueOf(role));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     /**
      * Valida si un token JWT es válido
      * @param token Token JWT
      * @return true si es válido, false en caso contrario
      */
     public boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+        return parseAndVerify(token) != null;
     }
 
     /**
@@ -63,16 +152,8 @@ public class JwtUtil {
      * @return Nombre de usuario
      */
     public String getUsernameFromToken(String token) {
-        try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-            return claims.getSubject();
-        } catch (Exception e) {
-            return null;
-        }
+        Claims claims = parseAndVerify(token);
+        return claims != null ? claims.getSubject() : null;
     }
 
     /**
@@ -81,16 +162,8 @@ public class JwtUtil {
      * @return Fecha de expiración
      */
     public Date getExpirationDateFromToken(String token) {
-        try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-            return claims.getExpiration();
-        } catch (Exception e) {
-            return null;
-        }
+        Claims claims = parseAndVerify(token);
+        return claims != null ? claims.getExpiration() : null;
     }
 
     /**
@@ -110,9 +183,20 @@ public class JwtUtil {
      * @return true si el token es válido para el usuario
      */
     public boolean validateTokenForUser(String token, String username) {
-        return validateToken(token) &&
-               !isTokenExpired(token) &&
-               username.equals(getUsernameFromToken(token));
+        Claims claims = parseAndVerify(token);
+        return claims != null && username.equals(claims.getSubject());
     }
-}
 
+    /**
+     * Hash SHA-256 del token: la caché no guarda los tokens en claro
+     */
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            // Todas las JVM incluyen SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.proyecto.backend.util;
+
+import com.proyecto.backend.dto.CursorPage;
+import com.proyecto.backend.exception.ValidationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Utilidades comunes de la paginación por cursor de los listados.
+ * Todas las páginas tienen un tamaño máximo, así ningún cliente puede volcar una tabla entera.
+ */
+public final class Paginacion {
+
+    public static final int LIMITE_POR_DEFECTO = 20;
+    public static final int LIMITE_MAXIMO = 100;
+
+    private Paginacion() {
+    }
+
+    /**
+     * Valida el tamaño de página pedido por el cliente
+     * @param limit Tamaño pedido, null para el tamaño por defecto
+     * @throws ValidationException Si no está entre 1 y LIMITE_MAXIMO
+     */
+    public static int limite(Integer limit) {
+        int limite = limit != null ? limit : LIMITE_POR_DEFECTO;
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new ValidationException("El límite debe estar entre 1 y " + LIMITE_MAXIMO);
+        }
+        return limite;
+    }
+
+    /**
+     * Pageable para leer una página: pide una fila de más para saber si hay página siguiente
+     * sin lanzar un COUNT
+     */
+    public static Pageable siguientes(int limite) {
+        return PageRequest.of(0, limite + 1);
+    }
+
+    /**
+     * Construye la página a partir de las filas leídas (hasta limite + 1)
+     *
+     * @param filas Filas leídas de la base de datos
+     * @param limite Tamaño de página
+     * @param cursor Cursor que apunta a una fila (para continuar después de ella)
+     * @param mapper Conversión de la fila al DTO de la respuesta
+     */
+    public static <E, T> CursorPage<T> pagina(List<E> filas, int limite,
+                                              Function<E, String> cursor, Function<E, T> mapper) {
+        boolean hayMas = filas.size() > limite;
+        List<E> visibles = hayMas ? filas.subList(0, limite) : filas;
+
+        String siguiente = hayMas ? cursor.apply(visibles.get(visibles.size() - 1)) : null;
+        List<T> items = visibles.stream().map(mapper).collect(Collectors.toList());
+        return new CursorPage<>(items, siguiente, hayMas, enlace(siguiente, limite));
+    }
+
+    /**
+     * Página cuyas filas se ordenan por ID ascendente
+     */
+    public static <E, T> CursorPage<T> paginaPorId(List<E> filas, int limite,
+                                                   Function<E, Long> id, Function<E, T> mapper) {
+        return pagina(filas, limite, fila -> CursorCodec.codificar(id.apply(fila)), mapper);
+    }
+
+    /**
+     * Enlace a la página siguiente: la URL de la petición actual con after y limit actualizados
+     */
+    private static String enlace(String siguiente, int limite) {
+        if (siguiente == null || RequestContextHolder.getRequestAttributes() == null) {
+            return null;
+        }
+        return ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("after", siguiente)
+                .replaceQueryParam("limit", limite)
+                .build()
+                .toUriString();
+    }
+}
@@ -21,7 +21,8 @@ CREATE TABLE IF NOT EXISTS productos (
     nombre VARCHAR(100) NOT NULL,
     marca VARCHAR(50) NOT NULL,
     modelo VARCHAR(50),
-    imagen LONGBLOB,
+    imagen_hash VARCHAR(64),
+    imagen_tipo VARCHAR(50),
     peso DECIMAL(10,2),
     ancho DECIMAL(10,2),
     largo DECIMAL(10,2),
@@ -35,6 +36,17 @@ CREATE TABLE IF NOT EXISTS productos (
     INDEX idx_usuario_id_productos (usuario_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- Tabla de Miniaturas de Imágenes de Productos (64, 256 y 1024 px)
+CREATE TABLE IF NOT EXISTS productos_miniaturas (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    producto_id BIGINT NOT NULL,
+    tamano INT NOT NULL,
+    tipo VARCHAR(50) NOT NULL,
+    hash VARCHAR(64) NOT NULL,
+    FOREIGN KEY (producto_id) REFERENCES productos(id) ON DELETE CASCADE,
+    UNIQUE KEY uk_producto_tamano (producto_id, tamano)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
 -- Tabla de Incidencias
 CREATE TABLE IF NOT EXISTS incidencias (
     id BIGINT PRIMARY KEY AUTO_INCREMENT,
@@ -46,6 +58,7 @@ CREATE TABLE IF NOT EXISTS incidencias (
     fecha_creacion TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     producto_id BIGINT,
     usuario_id BIGINT NOT NULL,
+    total_soluciones INT NOT NULL DEFAULT 0,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     FOREIGN KEY (producto_id) REFERENCES productos(id) ON DELETE SET NULL,
@@ -54,7 +67,12 @@ CREATE TABLE IF NOT EXISTS incidencias (
     INDEX idx_producto_id (producto_id),
     INDEX idx_usuario_id_incidencias (usuario_id),
     INDEX idx_severidad (severidad),
-    INDEX idx_categoria (categoria)
+    INDEX idx_categoria (categoria),
+    INDEX idx_incidencias_fecha_id (fecha_creacion, id),
+    INDEX idx_incidencias_estado_fecha_id (estado, fecha_creacion, id),
+    INDEX idx_incidencias_producto_fecha_id (producto_id, fecha_creacion, id),
+    INDEX idx_incidencias_usuario_fecha_id (usuario_id, fecha_creacion, id),
+    INDEX idx_incidencias_soluciones_id (total_soluciones, id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- Tabla de Comentarios en Incidencias (NUEVA)
@@ -77,6 +95,8 @@ CREATE TABLE IF NOT EXISTS comentarios_incidencias (
 CREATE TABLE IF NOT EXISTS soluciones (
     id BIGINT PRIMARY KEY AUTO_INCREMENT,
     descripcion TEXT NOT NULL,
+    votos INT NOT NULL DEFAULT 0,
+    fecha_publicacion TIMESTAMP NOT NULL,
     incidencia_id BIGINT NOT NULL,
     usuario_id BIGINT NOT NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
@@ -84,7 +104,20 @@ CREATE TABLE IF NOT EXISTS soluciones (
     FOREIGN KEY (incidencia_id) REFERENCES incidencias(id) ON DELETE CASCADE,
     FOREIGN KEY (usuario_id) REFERENCES usuarios(id),
     INDEX idx_incidencia_id (incidencia_id),
-    INDEX idx_usuario_id_soluciones (usuario_id)
+    INDEX idx_usuario_id_soluciones (usuario_id),
+    INDEX idx_soluciones_incidencia_votos_desc_id (incidencia_id, votos DESC, id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Tabla de Votos de usuarios a soluciones (un voto por usuario y solución)
+CREATE TABLE IF NOT EXISTS votos_soluciones (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    usuario_id BIGINT NOT NULL,
+    solucion_id BIGINT NOT NULL,
+    fecha TIMESTAMP NOT NULL,
+    FOREIGN KEY (usuario_id) REFERENCES usuarios(id) ON DELETE CASCADE,
+    FOREIGN KEY (solucion_id) REFERENCES soluciones(id) ON DELETE CASCADE,
+    UNIQUE KEY uk_votos_soluciones_usuario_solucion (usuario_id, solucion_id),
+    INDEX idx_votos_soluciones_solucion (solucion_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- Tabla de Logs de Auditoría
@@ -0,0 +1,41 @@
+package com.proyecto.backend;
+
+import com.proyecto.backend.search.AnalizadorEspanol;
+import com.proyecto.backend.search.AnalizadorEspanol.Token;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Comprueba la normalización, las palabras vacías y el stemmer del analizador.
+ */
+public class AnalizadorEspanolTest {
+
+    @Test
+    void testQuitaTildesMayusculasYPalabrasVacias() {
+        assertEquals(List.of("bateri", "termostat"), AnalizadorEspanol.terminos("Las Baterías del TERMOSTATO"));
+        assertEquals("pinguino arbol", AnalizadorEspanol.normalizar("Pingüino ÁRBOL"));
+        assertTrue(AnalizadorEspanol.terminos("de la que").isEmpty());
+        assertTrue(AnalizadorEspanol.terminos(null).isEmpty());
+    }
+
+    @Test
+    void testReducePluralesYGenero() {
+        assertEquals(AnalizadorEspanol.terminos("dato"), AnalizadorEspanol.terminos("datos"));
+        assertEquals(AnalizadorEspanol.terminos("batería"), AnalizadorEspanol.terminos("baterías"));
+        assertEquals(List.of("luz"), AnalizadorEspanol.terminos("luces"));
+        assertEquals(List.of("mes"), AnalizadorEspanol.terminos("meses"));
+        // Palabras cortas y números se dejan como están
+        assertEquals(List.of("sol", "2024"), AnalizadorEspanol.terminos("sol 2024"));
+    }
+
+    @Test
+    void testTokensConservanLaPosicionOriginal() {
+        List<Token> tokens = AnalizadorEspanol.tokens("¡Batería nueva!");
+        assertEquals(2, tokens.size());
+        assertEquals(new Token("bateri", 1, 8), tokens.get(0));
+        assertEquals(new Token("nuev", 9, 14), tokens.get(1));
+    }
+}
@@ -0,0 +1,77 @@
+package com.proyecto.backend;
+
+import com.proyecto.backend.dto.*;
+import com.proyecto.backend.exception.ValidationException;
+import com.proyecto.backend.model.Usuario;
+import com.proyecto.backend.security.UsuarioPrincipal;
+import com.proyecto.backend.service.BusquedaGlobalService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Comprueba que GET /api/search consulta todas las fuentes y mezcla sus resultados.
+ */
+@SpringBootTest
+public class BusquedaGlobalTest {
+
+    @Autowired
+    private DatosPrueba datos;
+
+    @Autowired
+    private BusquedaGlobalService busquedaGlobalService;
+
+    private UsuarioPrincipal admin;
+    private Long productoId;
+
+    // Palabra que solo aparece en los datos de esta prueba (también al inicio del username)
+    private String marca;
+
+    @BeforeEach
+    void setUp() {
+        marca = DatosPrueba.unico("qg");
+        admin = datos.crearUsuario(marca, Usuario.Role.ADMIN);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Los productos no se borran con su usuario
+        if (productoId != null) {
+            datos.eliminarProducto(productoId, admin);
+        }
+        datos.eliminarUsuario(admin.id());
+    }
+
+    @Test
+    void testMezclaResultadosDeTodasLasFuentes() {
+        productoId = datos.crearProducto(admin.id(), marca + " Router", null, null);
+        Long incidenciaId = datos.crearIncidencia(admin.id(), productoId,
+                "Se pierde la conexión " + marca, "El router se desconecta cada pocos minutos").getId();
+        Long solucionId = datos.crearSolucion(admin.id(), incidenciaId, "Actualizar el firmware del " + marca);
+
+        BusquedaGlobalDTO respuesta = busquedaGlobalService.buscar(marca, 10);
+        assertTrue(respuesta.getFuentesNoDisponibles().isEmpty());
+        List<ResultadoBusquedaDTO> resultados = respuesta.getResultados();
+        assertEquals(4, resultados.size());
+
+        // El primero de cada fuente, en el orden de las fuentes
+        assertEquals("INCIDENCIA", resultados.get(0).getTipo());
+        assertEquals(incidenciaId, resultados.get(0).getId());
+        assertEquals("SOLUCION", resultados.get(1).getTipo());
+        assertEquals(solucionId, resultados.get(1).getId());
+        assertEquals("PRODUCTO", resultados.get(2).getTipo());
+        assertEquals(productoId, resultados.get(2).getId());
+        assertEquals(marca + " Router", resultados.get(2).getTitulo());
+        assertEquals("USUARIO", resultados.get(3).getTipo());
+        assertEquals(admin.id(), resultados.get(3).getId());
+
+        assertEquals(2, busquedaGlobalService.buscar(marca, 2).getResultados().size());
+        assertThrows(ValidationException.class, () -> busquedaGlobalService.buscar(" ", 10));
+    }
+}
@@ -0,0 +1,117 @@
+package com.proyecto.backend;
+
+import com.proyecto.backend.dto.*;
+import com.proyecto.backend.exception.ValidationException;
+import com.proyecto.backend.model.Usuario;
+import com.proyecto.backend.service.BusquedaIncidenciasService;
+import com.proyecto.backend.service.IncidenciaService;
+import com.proyecto.backend.service.IndicesIncidenciasService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Comprueba la búsqueda de texto completo de incidencias y que el índice sigue a las escrituras.
+ */
+@SpringBootTest
+public class BusquedaIncidenciasTest {
+
+    @Autowired
+    private DatosPrueba datos;
+
+    @Autowired
+    private IncidenciaService incidenciaService;
+
+    @Autowired
+    private BusquedaIncidenciasService busquedaService;
+
+    @Autowired
+    private IndicesIncidenciasService indicesIncidencias;
+
+    private Long usuarioId;
+
+    // Palabra que solo aparece en las incidencias de esta prueba
+    private String marca;
+
+    @BeforeEach
+    void setUp() {
+        usuarioId = datos.crearUsuario(DatosPrueba.unico("busqueda_"), Usuario.Role.USER).id();
+        marca = DatosPrueba.unico("qz");
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Sus incidencias se borran en cascada y salen del índice
+        datos.eliminarUsuario(usuarioId);
+    }
+
+    @Test
+    void testBuscaSinTildesNiPluralesYOrdenaPorRelevancia() {
+        Long enTitulo = crearIncidencia("Batería del termostato " + marca,
+                "El equipo se apaga a los pocos minutos de encenderlo");
+        Long enDescripcion = crearIncidencia("Pantalla parpadea " + marca,
+                "Parece un problema de la batería, que se descarga muy rápido");
+        crearIncidencia("Ruido en el ventilador " + marca, "Hace un ruido fuerte al arrancar");
+
+        List<IncidenciaBusquedaDTO> resultados = busquedaService.buscar("baterias " + marca, null, 10).getItems();
+        assertEquals(3, resultados.size());
+        assertEquals(enTitulo, resultados.get(0).getIncidencia().getId());
+        assertEquals(enDescripcion, resultados.get(1).getIncidencia().getId());
+        assertTrue(resultados.get(0).getPuntuacion() > resultados.get(1).getPuntuacion());
+
+        assertTrue(resultados.get(0).getTituloResaltado().contains("<mark>Batería</mark>"));
+        assertTrue(resultados.get(1).getDescripcionResaltada().contains("<mark>batería</mark>"));
+
+        // Las palabras vacías no cuentan
+        assertTrue(busquedaService.buscar("de la que", null, 10).getItems().isEmpty());
+    }
+
+    @Test
+    void testIndiceSigueAEscriturasYReconstruccion() {
+        Long id = crearIncidencia("Fallo de conexión " + marca, "No conecta con la red inalámbrica");
+        assertEquals(1, busquedaService.buscar("conexion " + marca, null, 10).getItems().size());
+
+        IncidenciaUpdateDTO updateDTO = new IncidenciaUpdateDTO();
+        updateDTO.setTitulo("Error de sincronización " + marca);
+        incidenciaService.actualizar(id, updateDTO);
+        assertTrue(busquedaService.buscar("conexion", null, 100).getItems().stream()
+                .noneMatch(r -> r.getIncidencia().getId().equals(id)));
+        assertEquals(id, busquedaService.buscar("sincronizacion " + marca, null, 10).getItems().get(0).getIncidencia().getId());
+
+        indicesIncidencias.reconstruir();
+        assertEquals(id, busquedaService.buscar("sincronizacion " + marca, null, 10).getItems().get(0).getIncidencia().getId());
+
+        incidenciaService.eliminar(id);
+        assertTrue(busquedaService.buscar(marca, null, 10).getItems().isEmpty());
+    }
+
+    @Test
+    void testPaginacionPorCursor() {
+        for (int i = 0; i < 3; i++) {
+            crearIncidencia("Incidencia paginada " + i + " " + marca, "Descripción de la incidencia paginada");
+        }
+
+        CursorPage<IncidenciaBusquedaDTO> primera = busquedaService.buscar(marca, null, 2);
+        assertEquals(2, primera.getItems().size());
+        assertTrue(primera.isHasMore());
+
+        CursorPage<IncidenciaBusquedaDTO> segunda = busquedaService.buscar(marca, primera.getNextCursor(), 2);
+        assertEquals(1, segunda.getItems().size());
+        assertFalse(segunda.isHasMore());
+        assertTrue(primera.getItems().stream().noneMatch(r ->
+                r.getIncidencia().getId().equals(segunda.getItems().get(0).getIncidencia().getId())));
+
+        assertThrows(ValidationException.class, () -> busquedaService.buscar(" ", null, 10));
+        assertThrows(ValidationException.class, () -> busquedaService.buscar(marca, "no-es-un-cursor", 10));
+    }
+
+    private Long crearIncidencia(String titulo, String descripcion) {
+        return datos.crearIncidencia(usuarioId, null, titulo, descripcion).getId();
+    }
+}
@@ -0,0 +1,138 @@
+package com.proyecto.backend;
+
+import com.proyecto.backend.dto.*;
+import com.proyecto.backend.exception.ValidationException;
+import com.proyecto.backend.model.Usuario;
+import com.proyecto.backend.service.AcumuladorVotosService;
+import com.proyecto.backend.service.BusquedaSolucionesService;
+import com.proyecto.backend.service.IncidenciaService;
+import com.proyecto.backend.service.SolucionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Comprueba la búsqueda de soluciones agrupada por incidencia y que el índice sigue a las escrituras.
+ */
+@SpringBootTest
+public class BusquedaSolucionesTest {
+
+    @Autowired
+    private DatosPrueba datos;
+
+    @Autowired
+    private IncidenciaService incidenciaService;
+
+    @Autowired
+    private SolucionService solucionService;
+
+    @Autowired
+    private BusquedaSolucionesService busquedaService;
+
+    @Autowired
+    private AcumuladorVotosService acumuladorVotos;
+
+    private Long usuarioId;
+
+    // Palabra que solo aparece en las soluciones de esta prueba
+    private String marca;
+
+    @BeforeEach
+    void setUp() {
+        usuarioId = datos.crearUsuario(DatosPrueba.unico("busqueda_sol_"), Usuario.Role.USER).id();
+        marca = DatosPrueba.unico("qs");
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Sus incidencias y soluciones se borran en cascada y salen del índice
+        datos.eliminarUsuario(usuarioId);
+    }
+
+    @Test
+    void testAgrupaPorIncidenciaYOrdenaPorRelevanciaYVotos() {
+        Long incidenciaA = crearIncidencia("La imagen se congela");
+        Long incidenciaB = crearIncidencia("Pantalla en negro");
+        Long votada = crearSolucion(incidenciaA, "Reinstalar el controlador de vídeo " + marca);
+        Long sinVotos = crearSolucion(incidenciaA, "Actualizar el controlador de vídeo " + marca);
+        crearSolucion(incidenciaB, "Cambiar el controlador de vídeo " + marca);
+        crearSolucion(incidenciaB, "Revisar el cable de la pantalla " + marca);
+
+        SolucionUpdateDTO votos = new SolucionUpdateDTO();
+        votos.setVotos(10);
+        solucionService.actualizar(votada, votos);
+
+        List<SolucionesIncidenciaBusquedaDTO> grupos = busquedaService.buscar("controladores " + marca, 10);
+        assertEquals(2, grupos.size());
+        assertEquals(incidenciaA, grupos.get(0).getIncidenciaId());
+        assertEquals("La imagen se congela", grupos.get(0).getIncidenciaTitulo());
+        assertEquals(incidenciaB, grupos.get(1).getIncidenciaId());
+        assertTrue(grupos.get(0).getPuntuacion() > grupos.get(1).getPuntuacion());
+
+        // Dentro de la incidencia, primero la votada
+        List<SolucionBusquedaDTO> soluciones = grupos.get(0).getSoluciones();
+        assertEquals(2, soluciones.size());
+        assertEquals(votada, soluciones.get(0).getSolucion().getId());
+        assertEquals(10, soluciones.get(0).getSolucion().getVotos());
+        assertEquals(sinVotos, soluciones.get(1).getSolucion().getId());
+        assertTrue(soluciones.get(0).getDescripcionResaltada().contains("<mark>controlador</mark>"));
+
+        assertEquals(1, busquedaService.buscar("controlador " + marca, 1).size());
+        assertThrows(ValidationException.class, () -> busquedaService.buscar(" ", 10));
+    }
+
+    @Test
+    void testVotosVolcadosSiguenPonderando() {
+        Long incidenciaId = crearIncidencia("Se reinicia solo");
+        Long primera = crearSolucion(incidenciaId, "Limpiar el ventilador " + marca);
+        Long segunda = crearSolucion(incidenciaId, "Limpiar el ventilador " + marca);
+        assertEquals(primera, busquedaService.buscar(marca, 10).get(0).getSoluciones().get(0).getSolucion().getId());
+
+        for (int i = 0; i < 5; i++) {
+            acumuladorVotos.registrar(segunda);
+        }
+        assertEquals(segunda, busquedaService.buscar(marca, 10).get(0).getSoluciones().get(0).getSolucion().getId());
+
+        // Ya sin votos pendientes, cuentan los que el índice ha recibido del volcado
+        acumuladorVotos.volcar();
+        assertEquals(0, acumuladorVotos.pendientes(segunda));
+        SolucionBusquedaDTO mejor = busquedaService.buscar(marca, 10).get(0).getSoluciones().get(0);
+        assertEquals(segunda, mejor.getSolucion().getId());
+        assertEquals(5, mejor.getSolucion().getVotos());
+    }
+
+    @Test
+    void testIndiceSigueAEscriturasYReconstruccion() {
+        Long incidenciaId = crearIncidencia("No arranca");
+        Long id = crearSolucion(incidenciaId, "Cargar la batería durante una hora " + marca);
+        assertEquals(1, busquedaService.buscar("bateria " + marca, 10).size());
+
+        SolucionUpdateDTO updateDTO = new SolucionUpdateDTO();
+        updateDTO.setDescripcion("Mantener pulsado el botón de encendido " + marca);
+        solucionService.actualizar(id, updateDTO);
+        assertTrue(busquedaService.buscar("bateria", 100).stream()
+                .noneMatch(g -> g.getIncidenciaId().equals(incidenciaId)));
+        assertEquals(id, busquedaService.buscar("boton " + marca, 10).get(0).getSoluciones().get(0).getSolucion().getId());
+
+        busquedaService.reconstruir();
+        assertEquals(id, busquedaService.buscar("boton " + marca, 10).get(0).getSoluciones().get(0).getSolucion().getId());
+
+        // Las soluciones se borran en cascada con su incidencia
+        incidenciaService.eliminar(incidenciaId);
+        assertTrue(busquedaService.buscar(marca, 10).isEmpty());
+    }
+
+    private Long crearIncidencia(String titulo) {
+        return datos.crearIncidencia(usuarioId, null, titulo, "Incidencia para probar la búsqueda de soluciones").getId();
+    }
+
+    private Long crearSolucion(Long incidenciaId, String descripcion) {
+        return datos.crearSolucion(usuarioId, incidenciaId, descripcion);
+    }
+}
@@ -0,0 +1,329 @@
+package com.proyecto.backend;
+
+import com.proyecto.backend.dto.*;
+import com.proyecto.backend.exception.ValidationException;
+import com.proyecto.backend.service.ComentarioIncidenciaService;
+import com.proyecto.backend.service.IncidenciaService;
+import com.proyecto.backend.service.ProductoService;
+import com.proyecto.backend.service.SolucionService;
+import com.proyecto.backend.service.UsuarioService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Comprueba que los listados se resuelven con un número de consultas constante,
+ * sin N+1 al construir los DTOs. Usa las estadísticas de Hibernate para contar sentencias.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+public class ConsultasProyeccionTest {
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private IncidenciaService incidenciaService;
+
+    @Autowired
+    private SolucionService solucionService;
+
+    @Autowired
+    private ComentarioIncidenciaService comentarioService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long usuarioId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        UsuarioCreateDTO usuarioDTO = new UsuarioCreateDTO();
+        usuarioDTO.setUsername("proyeccion_" + System.nanoTime());
+        usuarioDTO.setEmail("proyeccion_" + System.nanoTime() + "@test.com");
+        usuarioDTO.setPassword("password123");
+        usuarioDTO.setRole("USER");
+        usuarioId = usuarioService.crear(usuarioDTO).getId();
+    }
+
+    @Test
+    void testListadoDeIncidenciasConConsultasConstantes() {
+        Long pocas = crearProductoConIncidencias(2);
+        Long muchas = crearProductoConIncidencias(12);
+
+        long consultasPocas = contarConsultas(() -> incidenciaService.obtenerPorProducto(pocas, null, 50));
+        long consultasMuchas = contarConsultas(() -> incidenciaService.obtenerPorProducto(muchas, null, 50));
+
+        assertEquals(consultasPocas, consultasMuchas,
+                "El número de consultas no debe depender del número de incidencias");
+        // Comprobación de existencia del producto + página de incidencias
+        assertTrue(consultasMuchas <= 2, "Se esperaban como máximo 2 consultas y hubo " + consultasMuchas);
+
+        System.out.println("✓ Consultas al listar 2 y 12 incidencias: " + consultasPocas + " / " + consultasMuchas);
+    }
+
+    @Test
+    void testProyeccionIncluyeUsuarioProductoYSoluciones() {
+        Long productoId = crearProductoConIncidencias(1);
+        IncidenciaDTO creada = incidenciaService.obtenerPorProducto(productoId, null, 1).getItems().get(0);
+        crearSoluciones(creada.getId(), 3);
+        limpiarContexto();
+
+        IncidenciaDTO incidencia = incidenciaService.obtenerPorId(creada.getId());
+
+        assertEquals(productoId, incidencia.getProductoId());
+        assertEquals("Producto proyección", incidencia.getProductoNombre());
+        assertEquals(usuarioId, incidencia.getUsuarioId());
+        assertNotNull(incidencia.getUsuarioUsername());
+        assertEquals(3, incidencia.getTotalSoluciones());
+        assertEquals("ABIERTA", incidencia.getEstado());
+
+        List<IncidenciaDTO> pagina = incidenciaService.obtenerPorProducto(productoId, null, 10).getItems();
+        assertEquals(1, pagina.size());
+        assertEquals(3, pagina.get(0).getTotalSoluciones());
+    }
+
+    @Test
+    void testListadosDeSolucionesConConsultasConstantes() {
+        Long productoId = crearProductoConIncidencias(2);
+        List<IncidenciaDTO> incidencias = incidenciaService.obtenerPorProducto(productoId, null, 10).getItems();
+        Long pocas = incidencias.get(0).getId();
+        Long muchas = incidencias.get(1).getId();
+        crearSoluciones(muchas, 10);
+
+        long consultasPocas = contarConsultas(() -> solucionService.obtenerPorIncidencia(pocas, null, 50));
+        long consultasMuchas = contarConsultas(() -> solucionService.obtenerPorIncidencia(muchas, null, 50));
+        assertEquals(consultasPocas, consultasMuchas,
+                "El número de consultas no debe depender del número de soluciones");
+        assertTrue(consultasMuchas <= 2, "Se esperaban como máximo 2 consultas y hubo " + consultasMuchas);
+
+        // El usuario tiene 14 soluciones repartidas en varias incidencias
+        long consultasUsuario = contarConsultas(() -> solucionService.obtenerPorUsuario(usuarioId, null, 50));
+        assertTrue(consultasUsuario <= 2, "Se esperaban como máximo 2 consultas y hubo " + consultasUsuario);
+
+        long consultasTodas = contarConsultas(() -> solucionService.obtenerTodas(null, 50));
+        assertEquals(1, consultasTodas);
+
+        long consultasMasVotadas = contarConsultas(() -> solucionService.obtenerMasVotadasPorIncidencia(muchas, 50));
+        assertTrue(consultasMasVotadas <= 2, "Se esperaban como máximo 2 consultas y hubo " + consultasMasVotadas);
+
+        SolucionDTO solucion = solucionService.obtenerPorIncidencia(muchas, null, 1).getItems().get(0);
+        assertEquals(muchas, solucion.getIncidenciaId());
+        assertTrue(solucion.getIncidenciaTitulo().startsWith("Incidencia "));
+        assertEquals(usuarioId, solucion.getUsuarioId());
+        assertNotNull(solucion.getUsuarioUsername());
+
+        System.out.println("✓ Consultas al listar 2 y 12 soluciones: " + consultasPocas + " / " + consultasMuchas);
+    }
+
+    @Test
+    void testListadoDeComentariosSinCargarRelaciones() {
+        Long productoId = crearProductoConIncidencias(1);
+        Long incidenciaId = incidenciaService.obtenerPorProducto(productoId, null, 1).getItems().get(0).getId();
+        for (int i = 0; i < 8; i++) {
+            ComentarioIncidenciaCreateDTO comentarioDTO = new ComentarioIncidenciaCreateDTO();
+            comentarioDTO.setContenido("Comentario " + i);
+            comentarioDTO.setIncidenciaId(incidenciaId);
+            comentarioDTO.setUsuarioId(usuarioId);
+            comentarioService.crear(comentarioDTO);
+        }
+
+        long consultas = contarConsultas(() -> comentarioService.obtenerPorIncidencia(incidenciaId, null, 50));
+        assertEquals(1, consultas, "El listado de comentarios debe resolverse en una consulta");
+
+        List<ComentarioIncidenciaDTO> comentarios = comentarioService.obtenerPorIncidencia(incidenciaId, null, 50).getItems();
+        assertEquals(8, comentarios.size());
+        assertEquals(usuarioId, comentarios.get(0).getUsuario().getId());
+        assertNotNull(comentarios.get(0).getUsuario().getUsername());
+    }
+
+    @Test
+    void testEstadisticasConUnaConsultaYCache() {
+        IncidenciaEstadisticasDTO antes = incidenciaService.obtenerEstadisticas();
+        crearProductoConIncidencias(3);
+
+        long consultas = contarConsultas(() -> incidenciaService.obtenerEstadisticas());
+        assertEquals(1, consultas, "Las estadísticas deben salir de una única consulta agrupada");
+
+        IncidenciaEstadisticasDTO despues = incidenciaService.obtenerEstadisticas();
+        assertEquals(antes.getTotal() + 3, despues.getTotal());
+        assertEquals(antes.getPorEstado().get("ABIERTA") + 3, despues.getPorEstado().get("ABIERTA"));
+        assertEquals(antes.getPorCategoria().get("FUNCIONALIDAD") + 3, despues.getPorCategoria().get("FUNCIONALIDAD"));
+        assertEquals(antes.getPorSeveridad().get("MEDIO") + 3, despues.getPorSeveridad().get("MEDIO"));
+
+        // Los contadores del panel reutilizan la caché
+        long consultasContadores = contarConsultas(() -> incidenciaService.contarAbiertas()
+                + incidenciaService.contarEnProgreso() + incidenciaService.contarCerradas());
+        assertEquals(0, consultasContadores);
+    }
+
+    @Test
+    void testEstadisticasSeInvalidanAlEliminarUsuario() {
+        crearProductoConIncidencias(2);
+        IncidenciaEstadisticasDTO antes = incidenciaService.obtenerEstadisticas();
+        long abiertas = incidenciaService.contarAbiertas();
+
+        // Sus incidencias se borran en cascada
+        usuarioService.eliminar(usuarioId);
+        assertEquals(antes.getTotal() - 2, incidenciaService.obtenerEstadisticas().getTotal());
+        assertEquals(abiertas - 2, incidenciaService.contarAbiertas());
+    }
+
+    @Test
+    void testRecuentoDeIncidenciasDeVariosProductosEnUnaConsulta() {
+        Long conIncidencias = crearProductoConIncidencias(3);
+        Long sinIncidencias = crearProductoConIncidencias(0);
+        Long cerrada = incidenciaService.obtenerPorProducto(conIncidencias, null, 1).getItems().get(0).getId();
+        incidenciaService.cambiarEstado(cerrada, "CERRADA");
+
+        List<Long> ids = List.of(conIncidencias, sinIncidencias, -1L);
+        long consultas = contarConsultas(() -> productoService.contarIncidenciasPorProductos(ids));
+        assertEquals(1, consultas, "Los recuentos de todos los productos deben salir de una consulta");
+
+        List<ProductoIncidenciasCountDTO> recuentos = productoService.contarIncidenciasPorProductos(ids);
+        assertEquals(3, recuentos.size());
+        assertEquals(conIncidencias, recuentos.get(0).getProductoId());
+        assertEquals(3, recuentos.get(0).getTotal());
+        assertEquals(2, recuentos.get(0).getAbiertas());
+        assertEquals(0, recuentos.get(1).getTotal());
+        assertEquals(0, recuentos.get(2).getTotal());
+
+        assertEquals(3, productoService.contarIncidencias(conIncidencias));
+        assertEquals(2, productoService.contarIncidenciasAbiertas(conIncidencias));
+    }
+
+    @Test
+    void testTotalSolucionesMantenidoYOrdenPorSoluciones() {
+        Long productoId = crearProductoConIncidencias(2);
+        List<IncidenciaDTO> incidencias = incidenciaService.obtenerPorProducto(productoId, null, 10).getItems();
+        Long conMas = incidencias.get(1).getId();
+        crearSoluciones(conMas, 3);
+        Long sinSoluciones = crearProductoConIncidencias(0);
+        limpiarContexto();
+
+        assertEquals(5, incidenciaService.obtenerPorId(conMas).getTotalSoluciones());
+        SolucionDTO solucion = solucionService.obtenerPorIncidencia(conMas, null, 1).getItems().get(0);
+        solucionService.eliminar(solucion.getId());
+        limpiarContexto();
+        assertEquals(4, incidenciaService.obtenerPorId(conMas).getTotalSoluciones());
+        assertNotNull(sinSoluciones);
+
+        // Las dos primeras páginas de una en una siguen el orden por número de soluciones
+        CursorPage<IncidenciaDTO> primera = incidenciaService.obtenerTodas(null, 1, null, null, null, productoId, "soluciones");
+        assertEquals(conMas, primera.getItems().get(0).getId());
+        CursorPage<IncidenciaDTO> segunda = incidenciaService.obtenerTodas(primera.getNextCursor(), 1, null, null, null, productoId, "soluciones");
+        assertEquals(2, segunda.getItems().get(0).getTotalSoluciones());
+        assertFalse(segunda.isHasMore());
+    }
+
+    @Test
+    void testTopNYMejorSolucionPorIncidenciaConLimite() {
+        Long productoId = crearProductoConIncidencias(3);
+        List<IncidenciaDTO> incidencias = incidenciaService.obtenerPorProducto(productoId, null, 10).getItems();
+        Long primera = incidencias.get(0).getId();
+        Long segunda = incidencias.get(1).getId();
+        Long sinVotos = incidencias.get(2).getId();
+        crearSoluciones(primera, 3);
+
+        // En la primera gana la última solución; en la segunda, la primera
+        List<SolucionDTO> dePrimera = solucionService.obtenerPorIncidencia(primera, null, 10).getItems();
+        votar(dePrimera.get(1).getId(), 2);
+        votar(dePrimera.get(4).getId(), 5);
+        List<SolucionDTO> deSegunda = solucionService.obtenerPorIncidencia(segunda, null, 10).getItems();
+        votar(deSegunda.get(0).getId(), 1);
+
+        List<SolucionDTO> top = solucionService.obtenerMasVotadasPorIncidencia(primera, 2);
+        assertEquals(2, top.size());
+        assertEquals(dePrimera.get(4).getId(), top.get(0).getId());
+        assertEquals(dePrimera.get(1).getId(), top.get(1).getId());
+
+        List<Long> ids = List.of(sinVotos, primera, segunda, -1L);
+        long consultas = contarConsultas(() -> solucionService.obtenerMejoresPorIncidencias(ids));
+        assertEquals(1, consultas, "Las mejores soluciones de todas las incidencias deben salir de una consulta");
+
+        List<SolucionDTO> mejores = solucionService.obtenerMejoresPorIncidencias(ids);
+        assertEquals(3, mejores.size());
+        // Sin votos, a igualdad gana la más antigua
+        assertEquals(solucionService.obtenerPorIncidencia(sinVotos, null, 1).getItems().get(0).getId(),
+                mejores.get(0).getId());
+        assertEquals(dePrimera.get(4).getId(), mejores.get(1).getId());
+        assertEquals(5, mejores.get(1).getVotos());
+        assertEquals(deSegunda.get(0).getId(), mejores.get(2).getId());
+
+        assertThrows(ValidationException.class, () -> solucionService.obtenerMasVotadasPorIncidencia(primera, 0));
+        assertEquals(1, solucionService.obtenerMasVotadas(1).size());
+    }
+
+    private void votar(Long solucionId, int votos) {
+        SolucionUpdateDTO updateDTO = new SolucionUpdateDTO();
+        updateDTO.setVotos(votos);
+        solucionService.actualizar(solucionId, updateDTO);
+    }
+
+    private Long crearProductoConIncidencias(int numIncidencias) {
+        ProductoCreateDTO productoDTO = new ProductoCreateDTO();
+        productoDTO.setNombre("Producto proyección");
+        productoDTO.setMarca("Test");
+        productoDTO.setUsuarioId(usuarioId);
+        Long productoId = productoService.crear(productoDTO).getId();
+
+        for (int i = 0; i < numIncidencias; i++) {
+            IncidenciaCreateDTO incidenciaDTO = new IncidenciaCreateDTO();
+            incidenciaDTO.setTitulo("Incidencia " + i);
+            incidenciaDTO.setDescripcion("Descripción de la incidencia número " + i);
+            incidenciaDTO.setCategoria("FUNCIONALIDAD");
+            incidenciaDTO.setSeveridad("MEDIO");
+            incidenciaDTO.setProductoId(productoId);
+            incidenciaDTO.setUsuarioId(usuarioId);
+            Long incidenciaId = incidenciaService.crear(incidenciaDTO).getId();
+            crearSoluciones(incidenciaId, 2);
+        }
+        return productoId;
+    }
+
+    private void crearSoluciones(Long incidenciaId, int numSoluciones) {
+        for (int i = 0; i < numSoluciones; i++) {
+            SolucionCreateDTO solucionDTO = new SolucionCreateDTO();
+            solucionDTO.setDescripcion("Solución de prueba número " + i);
+            solucionDTO.setIncidenciaId(incidenciaId);
+            solucionDTO.setUsuarioId(usuarioId);
+            solucionService.crear(solucionDTO);
+        }
+    }
+
+    /**
+     * Ejecuta la operación con el contexto de persistencia vacío y devuelve
+     * el número de sentencias JDBC preparadas
+     */
+    private long contarConsultas(Supplier<?> operacion) {
+        limpiarContexto();
+        statistics.clear();
+        operacion.get();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void limpiarContexto() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,99 @@
+package com.proyecto.backend;
+
+import com.proyecto.backend.dto.*;
+import com.proyecto.backend.model.Usuario;
+import com.proyecto.backend.security.UsuarioPrincipal;
+import com.proyecto.backend.service.IncidenciaService;
+import com.proyecto.backend.service.ProductoService;
+import com.proyecto.backend.service.SolucionService;
+import com.proyecto.backend.service.UsuarioService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Crea y elimina los datos de las pruebas de integración a través de los servicios.
+ * Cada operación hace commit: los índices de búsqueda, el ranking, las cachés y el volcado de votos
+ * se actualizan tras el commit, así que las pruebas que los comprueban no son @Transactional
+ * y eliminan en su @AfterEach lo que han creado.
+ */
+@Component
+public class DatosPrueba {
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private IncidenciaService incidenciaService;
+
+    @Autowired
+    private SolucionService solucionService;
+
+    /**
+     * Texto que no se repite entre pruebas, para nombres de usuario y palabras de búsqueda
+     */
+    public static String unico(String prefijo) {
+        return prefijo + System.nanoTime();
+    }
+
+    /**
+     * Crea un usuario con email username@test.com y contraseña password123
+     */
+    public UsuarioPrincipal crearUsuario(String username, Usuario.Role role) {
+        UsuarioCreateDTO usuarioDTO = new UsuarioCreateDTO();
+        usuarioDTO.setUsername(username);
+        usuarioDTO.setEmail(username + "@test.com");
+        usuarioDTO.setPassword("password123");
+        usuarioDTO.setRole(role.name());
+        return new UsuarioPrincipal(usuarioService.crear(usuarioDTO).getId(), username, role);
+    }
+
+    /**
+     * Elimina un usuario; sus incidencias y soluciones se borran en cascada, sus productos no
+     */
+    public void eliminarUsuario(Long usuarioId) {
+        usuarioService.eliminar(usuarioId);
+    }
+
+    public Long crearProducto(Long usuarioId, String nombre, String marca, String modelo) {
+        ProductoCreateDTO productoDTO = new ProductoCreateDTO();
+        productoDTO.setNombre(nombre);
+        productoDTO.setMarca(marca);
+        productoDTO.setModelo(modelo);
+        productoDTO.setUsuarioId(usuarioId);
+        return productoService.crear(productoDTO).getId();
+    }
+
+    /**
+     * Elimina un producto; sus incidencias se borran en cascada
+     */
+    public void eliminarProducto(Long productoId, UsuarioPrincipal admin) {
+        productoService.eliminar(productoId, admin);
+    }
+
+    /**
+     * Crea una incidencia de funcionalidad y severidad media
+     *
+     * @param productoId Producto afectado, o null
+     */
+    public IncidenciaDTO crearIncidencia(Long usuarioId, Long productoId, String titulo, String descripcion) {
+        IncidenciaCreateDTO incidenciaDTO = new IncidenciaCreateDTO();
+        incidenciaDTO.setTitulo(titulo);
+        incidenciaDTO.setDescripcion(descripcion);
+        incidenciaDTO.setCategoria("FUNCIONALIDAD");
+        incidenciaDTO.setSeveridad("MEDIO");
+        incidenciaDTO.setProductoId(productoId);
+        incidenciaDTO.setUsuarioId(usuarioId);
+        return incidenciaService.crear(incidenciaDTO);
+    }
+
+    public Long crearSolucion(Long usuarioId, Long incidenciaId, String descripcion) {
+        SolucionCreateDTO solucionDTO = new SolucionCreateDTO();
+        solucionDTO.setDescripcion(descripcion);
+        solucionDTO.setIncidenciaId(incidenciaId);
+        solucionDTO.setUsuarioId(usuarioId);
+        return solucionService.crear(solucionDTO).getId();
+    }
+}
@@ -0,0 +1,116 @@
+package com.proyecto.backend;
+
+import com.proyecto.backend.dto.*;
+import com.proyecto.backend.model.Usuario;
+import com.proyecto.backend.security.UsuarioPrincipal;
+import com.proyecto.backend.service.DuplicadosIncidenciasService;
+import com.proyecto.backend.service.IncidenciaService;
+import com.proyecto.backend.service.IndicesIncidenciasService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Comprueba la detección de incidencias casi duplicadas por producto y que el índice sigue a las escrituras.
+ */
+@SpringBootTest
+public class DuplicadosIncidenciasTest {
+
+    private static final String TITULO = "La pantalla se queda en negro al encender";
+    private static final String DESCRIPCION =
+            "Después de la última actualización la pantalla se queda en negro unos segundos y luego se reinicia";
+
+    @Autowired
+    private DatosPrueba datos;
+
+    @Autowired
+    private IncidenciaService incidenciaService;
+
+    @Autowired
+    private DuplicadosIncidenciasService duplicadosService;
+
+    @Autowired
+    private IndicesIncidenciasService indicesIncidencias;
+
+    private UsuarioPrincipal admin;
+    private final List<Long> productoIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        admin = datos.crearUsuario(DatosPrueba.unico("duplicados_"), Usuario.Role.ADMIN);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Las incidencias de los productos se borran en cascada y salen del índice
+        for (Long id : productoIds) {
+            datos.eliminarProducto(id, admin);
+        }
+        datos.eliminarUsuario(admin.id());
+    }
+
+    @Test
+    void testDetectaDuplicadosSoloDelMismoProducto() {
+        Long productoId = crearProducto("Portátil");
+        Long otroProductoId = crearProducto("Tableta");
+        Long id = crearIncidencia(TITULO, DESCRIPCION, productoId).getId();
+
+        // Mismo texto con otra puntuación y mayúsculas
+        List<IncidenciaDuplicadaDTO> duplicados = duplicadosService.buscarDuplicados(
+                "La pantalla se queda en NEGRO al encender!", DESCRIPCION, productoId);
+        assertEquals(1, duplicados.size());
+        assertEquals(id, duplicados.get(0).getId());
+        assertEquals("ABIERTA", duplicados.get(0).getEstado());
+        assertTrue(duplicados.get(0).getSimilitud() > 0.9);
+
+        assertTrue(duplicadosService.buscarDuplicados(TITULO, DESCRIPCION, otroProductoId).isEmpty());
+        assertTrue(duplicadosService.buscarDuplicados("El teclado no responde",
+                "Algunas teclas dejan de funcionar tras derramar agua", productoId).isEmpty());
+    }
+
+    @Test
+    void testCrearDevuelvePosiblesDuplicadosEIndiceSigueAEscrituras() {
+        Long productoId = crearProducto("Monitor");
+        IncidenciaDTO primera = crearIncidencia(TITULO, DESCRIPCION, productoId);
+        assertTrue(primera.getPosiblesDuplicados().isEmpty());
+
+        IncidenciaDTO segunda = crearIncidencia(TITULO, DESCRIPCION, productoId);
+        assertEquals(1, segunda.getPosiblesDuplicados().size());
+        assertEquals(primera.getId(), segunda.getPosiblesDuplicados().get(0).getId());
+
+        IncidenciaUpdateDTO updateDTO = new IncidenciaUpdateDTO();
+        updateDTO.setTitulo("El cable de alimentación está suelto");
+        updateDTO.setDescripcion("El conector se mueve y el monitor pierde la corriente");
+        incidenciaService.actualizar(primera.getId(), updateDTO);
+        assertEquals(List.of(segunda.getId()), idsDuplicados(productoId));
+
+        indicesIncidencias.reconstruir();
+        assertEquals(List.of(segunda.getId()), idsDuplicados(productoId));
+
+        incidenciaService.eliminar(segunda.getId());
+        assertTrue(idsDuplicados(productoId).isEmpty());
+    }
+
+    private List<Long> idsDuplicados(Long productoId) {
+        return duplicadosService.buscarDuplicados(TITULO, DESCRIPCION, productoId).stream()
+                .map(IncidenciaDuplicadaDTO::getId)
+                .toList();
+    }
+
+    private Long crearProducto(String nombre) {
+        Long id = datos.crearProducto(admin.id(), DatosPrueba.unico(nombre + " "), null, null);
+        productoIds.add(id);
+        return id;
+    }
+
+    private IncidenciaDTO crearIncidencia(String titulo, String descripcion, Long productoId) {
+        return datos.crearIncidencia(admin.id(), productoId, titulo, descripcion);
+    }
+}
@@ -0,0 +1,67 @@
+package com.proyecto.backend;
+
+import com.proyecto.backend.util.FiltroBloom;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Comprueba que el filtro de Bloom no da falsos negativos, también con inserciones concurrentes,
+ * y que los falsos positivos se quedan cerca de la probabilidad pedida.
+ */
+public class FiltroBloomTest {
+
+    private static final int CAPACIDAD = 10_000;
+
+    @Test
+    void testSinFalsosNegativosYPocosFalsosPositivos() {
+        FiltroBloom filtro = new FiltroBloom(CAPACIDAD, 0.01);
+        for (long i = 0; i < CAPACIDAD; i++) {
+            filtro.anadir(i, i * 7);
+        }
+        for (long i = 0; i < CAPACIDAD; i++) {
+            assertTrue(filtro.puedeContener(i, i * 7));
+        }
+
+        int falsosPositivos = 0;
+        for (long i = 0; i < CAPACIDAD; i++) {
+            if (filtro.puedeContener(CAPACIDAD + i, i)) {
+                falsosPositivos++;
+            }
+        }
+        assertTrue(falsosPositivos < CAPACIDAD * 0.03, "Falsos positivos: " + falsosPositivos);
+    }
+
+    @Test
+    void testInsercionesConcurrentes() throws Exception {
+        FiltroBloom filtro = new FiltroBloom(CAPACIDAD, 0.01);
+        int hilos = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int h = 0; h < hilos; h++) {
+            long usuario = h;
+            tareas.add(executor.submit(() -> {
+                for (long solucion = 0; solucion < CAPACIDAD / hilos; solucion++) {
+                    filtro.anadir(usuario, solucion);
+                }
+            }));
+        }
+        for (Future<?> tarea : tareas) {
+            tarea.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        for (long usuario = 0; usuario < hilos; usuario++) {
+            for (long solucion = 0; solucion < CAPACIDAD / hilos; solucion++) {
+                assertTrue(filtro.puedeContener(usuario, solucion));
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.proyecto.backend;
+
+import com.proyecto.backend.search.AnalizadorEspanol;
+import com.proyecto.backend.search.IndiceInvertido;
+import com.proyecto.backend.search.IndiceInvertido.Resultado;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Comprueba la puntuación BM25F, la paginación por cursor y las actualizaciones del índice invertido.
+ */
+public class IndiceInvertidoTest {
+
+    private IndiceInvertido indice;
+
+    @BeforeEach
+    void setUp() {
+        // Título y descripción, el título cuenta el doble
+        indice = new IndiceInvertido(2.0, 1.0);
+    }
+
+    @Test
+    void testOrdenaPorRelevanciaPonderandoLosCampos() {
+        indice.indexar(1, "Batería del termostato", "El equipo se apaga");
+        indice.indexar(2, "Pantalla parpadea", "Problema de la batería");
+        indice.indexar(3, "Ruido del ventilador", "Hace mucho ruido");
+
+        List<Resultado> resultados = buscar("baterias", null, 0, 10);
+        assertEquals(List.of(1L, 2L), ids(resultados));
+        assertTrue(resultados.get(0).puntuacion() > resultados.get(1).puntuacion());
+        assertTrue(buscar("teclado", null, 0, 10).isEmpty());
+    }
+
+    @Test
+    void testReindexarYEliminar() {
+        indice.indexar(1, "Batería del termostato", null);
+        indice.indexar(2, "Batería del portátil", null);
+
+        indice.indexar(1, "Ruido del ventilador", null);
+        assertEquals(List.of(2L), ids(buscar("bateria", null, 0, 10)));
+        assertEquals(List.of(1L), ids(buscar("ruido", null, 0, 10)));
+
+        indice.eliminar(2);
+        indice.eliminar(99);
+        assertEquals(1, indice.tamano());
+        assertTrue(buscar("bateria", null, 0, 10).isEmpty());
+
+        assertThrows(IllegalArgumentException.class, () -> indice.indexar(3, "Solo un campo"));
+    }
+
+    @Test
+    void testPaginacionPorCursor() {
+        for (long id = 1; id <= 3; id++) {
+            indice.indexar(id, "Cable suelto", null);
+        }
+
+        // A igual puntuación, por ID ascendente
+        List<Resultado> primera = buscar("cable", null, 0, 2);
+        assertEquals(List.of(1L, 2L), ids(primera));
+        Resultado ultimo = primera.get(1);
+        assertEquals(List.of(3L), ids(buscar("cable", ultimo.puntuacion(), ultimo.id(), 2)));
+    }
+
+    @Test
+    void testFactorSeAplicaAntesDeQuedarseConLosMejores() {
+        indice.indexar(1, "Cable del cargador", null);
+        indice.indexar(2, "Cable suelto del cargador con la funda rota", null);
+        assertEquals(List.of(1L), ids(buscar("cable", null, 0, 1)));
+
+        // El documento menos relevante entra en el límite si su factor es mayor
+        List<Resultado> conFactor = indice.buscar(AnalizadorEspanol.terminos("cable"), null, 0, 1,
+                id -> id == 2 ? 10.0 : 1.0);
+        assertEquals(List.of(2L), ids(conFactor));
+        assertTrue(conFactor.get(0).puntuacion() > buscar("cable", null, 0, 2).get(0).puntuacion());
+    }
+
+    private List<Resultado> buscar(String consulta, Double cursorPuntuacion, long cursorId, int limite) {
+        return indice.buscar(AnalizadorEspanol.terminos(consulta), cursorPuntuacion, cursorId, limite);
+    }
+
+    private static List<Long> ids(List<Resultado> resultados) {
+        return resultados.stream().map(Resultado::id).toList();
+    }
+}
@@ -0,0 +1,58 @@
+package com.proyecto.backend;
+
+import com.proyecto.backend.search.IndiceMinHash;
+import com.proyecto.backend.search.IndiceMinHash.Similar;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Comprueba la detección de textos casi iguales por partición del índice MinHash.
+ */
+public class IndiceMinHashTest {
+
+    private static final String TEXTO =
+            "La pantalla se queda en negro al encender el portátil después de la actualización";
+
+    private IndiceMinHash indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceMinHash();
+    }
+
+    @Test
+    void testEncuentraElMismoTextoSoloEnSuParticion() {
+        indice.indexar(1, 10, TEXTO);
+
+        // Mismos términos con otras mayúsculas y puntuación: misma firma
+        List<Similar> similares = indice.buscar(10,
+                "¡La PANTALLA se queda en negro, al encender el portatil, después de la actualizacion!", 0.9, 5);
+        assertEquals(List.of(new Similar(1, 1.0)), similares);
+
+        assertTrue(indice.buscar(11, TEXTO, 0.5, 5).isEmpty());
+        assertTrue(indice.buscar(10, "El teclado no responde tras derramar agua encima", 0.5, 5).isEmpty());
+    }
+
+    @Test
+    void testReindexarEliminarYLimite() {
+        for (long id = 1; id <= 3; id++) {
+            indice.indexar(id, 10, TEXTO);
+        }
+        // A igual similitud, por ID ascendente
+        assertEquals(List.of(1L, 2L), indice.buscar(10, TEXTO, 0.9, 2).stream().map(Similar::id).toList());
+
+        indice.indexar(1, 20, TEXTO);
+        indice.eliminar(2);
+        assertEquals(List.of(3L), indice.buscar(10, TEXTO, 0.9, 5).stream().map(Similar::id).toList());
+        assertEquals(2, indice.tamano());
+
+        // Un texto sin términos no se indexa y quita la versión anterior
+        indice.indexar(3, 10, "de la que");
+        assertEquals(1, indice.tamano());
+        assertTrue(indice.buscar(10, "de la que", 0.0, 5).isEmpty());
+    }
+}
@@ -0,0 +1,61 @@
+package com.proyecto.backend;
+
+import com.proyecto.backend.search.IndicePrefijos;
+import com.proyecto.backend.search.IndicePrefijos.Sugerencia;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Comprueba las sugerencias por prefijo de palabra y que el índice sigue a las actualizaciones.
+ */
+public class IndicePrefijosTest {
+
+    private static final int NOMBRE = 0;
+    private static final int MARCA = 1;
+
+    private IndicePrefijos indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndicePrefijos(2);
+        indice.indexar(1, "Galaxy S21", "Samsung");
+        indice.indexar(2, "Galaxy Tab", "Samsung");
+        indice.indexar(3, "Cámara", null);
+    }
+
+    @Test
+    void testSugiereValoresPorCualquierPalabra() {
+        assertEquals(List.of(new Sugerencia("Galaxy S21", NOMBRE, 1), new Sugerencia("Galaxy Tab", NOMBRE, 1)),
+                indice.sugerir("gal", 10));
+        assertEquals(List.of(new Sugerencia("Galaxy S21", NOMBRE, 1)), indice.sugerir("s2", 10));
+        assertEquals(List.of(new Sugerencia("Cámara", NOMBRE, 1)), indice.sugerir("CAMA", 10));
+
+        // Primero los que empiezan por el prefijo, aunque tengan menos documentos
+        List<Sugerencia> s = indice.sugerir("s", 10);
+        assertEquals(List.of("Samsung", "Galaxy S21"), s.stream().map(Sugerencia::texto).toList());
+        assertEquals(2, s.get(0).documentos());
+
+        assertEquals(1, indice.sugerir("gal", 1).size());
+        assertTrue(indice.sugerir("  ", 10).isEmpty());
+    }
+
+    @Test
+    void testValoresSiguenAReindexarYEliminar() {
+        assertEquals(List.of("Samsung"), indice.valores(MARCA));
+
+        indice.indexar(1, "Galaxy S21", "Apple");
+        assertEquals(List.of("Apple", "Samsung"), indice.valores(MARCA));
+        assertEquals(1, indice.sugerir("sam", 10).get(0).documentos());
+
+        indice.eliminar(2);
+        assertEquals(List.of("Apple"), indice.valores(MARCA));
+        assertTrue(indice.sugerir("sam", 10).isEmpty());
+        assertTrue(indice.sugerir("tab", 10).isEmpty());
+
+        assertThrows(IllegalArgumentException.class, () -> indice.indexar(4, "Solo nombre"));
+    }
+}
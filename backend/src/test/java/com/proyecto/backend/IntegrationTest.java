@@ -10,6 +10,7 @@ import com.proyecto.backend.repository.UsuarioRepository;
 import com.proyecto.backend.service.IncidenciaService;
 import com.proyecto.backend.service.ProductoService;
 import com.proyecto.backend.service.UsuarioService;
+import com.proyecto.backend.util.Paginacion;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -148,17 +149,17 @@ public class IntegrationTest {
     void testObtenerDatos() {
         System.out.println("\n========== TEST 4: OBTENER DATOS ==========");
 
-        // Obtener todos los productos
-        List<ProductoDTO> productos = productoService.obtenerTodos();
-        System.out.println("✓ Total productos en BD: " + productos.size());
+        // Obtener la primera página de productos
+        List<ProductoDTO> productos = productoService.obtenerTodos(null, Paginacion.LIMITE_MAXIMO).getItems();
+        System.out.println("✓ Productos en la primera página: " + productos.size());
 
-        // Obtener todas las incidencias
-        List<IncidenciaDTO> incidencias = incidenciaService.obtenerTodas();
-        System.out.println("✓ Total incidencias en BD: " + incidencias.size());
+        // Obtener la primera página de incidencias
+        List<IncidenciaDTO> incidencias = incidenciaService.obtenerTodas(null, Paginacion.LIMITE_MAXIMO, null, null, null, null, null).getItems();
+        System.out.println("✓ Incidencias en la primera página: " + incidencias.size());
 
         // Obtener usuarios
-        List<UsuarioDTO> usuarios = usuarioService.obtenerTodos();
-        System.out.println("✓ Total usuarios en BD: " + usuarios.size());
+        List<UsuarioDTO> usuarios = usuarioService.obtenerTodos(null, Paginacion.LIMITE_MAXIMO).getItems();
+        System.out.println("✓ Usuarios en la primera página: " + usuarios.size());
 
         assertTrue(productos.size() > 0 || incidencias.size() >= 0);
     }
@@ -0,0 +1,127 @@
+package com.proyecto.backend;
+
+import com.proyecto.backend.security.UsuarioPrincipal;
+import com.proyecto.backend.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Comprueba la verificación de tokens de JwtUtil y su caché de tokens verificados.
+ * No necesita el contexto de Spring: la clave y la expiración se fijan a mano.
+ */
+public class JwtUtilTest {
+
+    private static final String SECRETO = "clave_secreta_de_prueba_con_al_menos_256_bits_de_largo";
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = nuevoJwtUtil(60_000, 10);
+    }
+
+    @Test
+    void testVerificaUnaVezYDevuelveLosClaims() {
+        String token = jwtUtil.generateToken(7L, "usuario_jwt", "USER");
+
+        Claims claims = jwtUtil.parseAndVerify(token);
+        assertNotNull(claims);
+        assertEquals("usuario_jwt", claims.getSubject());
+        // La segunda vez sale de la caché
+        assertSame(claims, jwtUtil.parseAndVerify(token));
+
+        assertTrue(jwtUtil.validateToken(token));
+        assertTrue(jwtUtil.validateTokenForUser(token, "usuario_jwt"));
+        assertFalse(jwtUtil.validateTokenForUser(token, "otro"));
+        assertFalse(jwtUtil.isTokenExpired(token));
+    }
+
+    @Test
+    void testPrincipalConIdYRolDelToken() {
+        UsuarioPrincipal principal = jwtUtil.getPrincipal(
+                jwtUtil.parseAndVerify(jwtUtil.generateToken(42L, "admin_jwt", "ADMIN")));
+        assertNotNull(principal);
+        assertEquals(Long.valueOf(42), principal.id());
+        assertEquals("admin_jwt", principal.getName());
+        assertTrue(principal.esAdmin());
+        assertEquals("ROLE_ADMIN", principal.getAuthorities().get(0).getAuthority());
+
+        // Un token sin ID ni rol no identifica al usuario
+        String sinClaims = Jwts.builder()
+                .subject("usuario_jwt")
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRETO.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+        Claims claims = jwtUtil.parseAndVerify(sinClaims);
+        assertNotNull(claims);
+        assertNull(jwtUtil.getPrincipal(claims));
+    }
+
+    @Test
+    void testRechazaTokensManipuladosODeOtraClave() {
+        String token = jwtUtil.generateToken(7L, "usuario_jwt", "USER");
+        assertNotNull(jwtUtil.parseAndVerify(token));
+
+        // Cambiar un carácter de la firma (no el último: sus bits finales son de relleno)
+        int posicion = token.length() - 5;
+        char cambiado = token.charAt(posicion) == 'A' ? 'B' : 'A';
+        String manipulado = token.substring(0, posicion) + cambiado + token.substring(posicion + 1);
+        assertNull(jwtUtil.parseAndVerify(manipulado));
+
+        JwtUtil otraClave = new JwtUtil();
+        ReflectionTestUtils.setField(otraClave, "jwtSecret", "otra_clave_secreta_distinta_de_al_menos_256_bits");
+        ReflectionTestUtils.setField(otraClave, "jwtExpiration", 60_000L);
+        ReflectionTestUtils.setField(otraClave, "cacheSize", 10);
+        ReflectionTestUtils.invokeMethod(otraClave, "init");
+        assertNull(otraClave.parseAndVerify(token));
+
+        assertNull(jwtUtil.parseAndVerify("no-es-un-token"));
+        assertNull(jwtUtil.parseAndVerify(null));
+    }
+
+    @Test
+    void testLaCacheRespetaLaExpiracion() throws InterruptedException {
+        JwtUtil cortos = nuevoJwtUtil(1_500, 10);
+        String token = cortos.generateToken(7L, "usuario_jwt", "USER");
+        assertNotNull(cortos.parseAndVerify(token));
+
+        // exp se guarda en segundos: como mucho 1,5 s después de generarlo ya ha expirado
+        Thread.sleep(2_000);
+        assertNull(cortos.parseAndVerify(token));
+        assertNull(cortos.getUsernameFromToken(token));
+    }
+
+    @Test
+    void testLaCacheEstaAcotada() {
+        JwtUtil pequeno = nuevoJwtUtil(60_000, 2);
+        String[] tokens = new String[5];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = pequeno.generateToken((long) i, "usuario_" + i, "USER");
+            assertEquals("usuario_" + i, pequeno.getUsernameFromToken(tokens[i]));
+        }
+        // Los que salen de la caché se vuelven a verificar
+        for (int i = 0; i < tokens.length; i++) {
+            assertEquals("usuario_" + i, pequeno.getUsernameFromToken(tokens[i]));
+        }
+        assertEquals(2, ((Map<?, ?>) ReflectionTestUtils.getField(pequeno, "verificados")).size());
+    }
+
+    private static JwtUtil nuevoJwtUtil(long expiracionMs, int tamanoCache) {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "jwtSecret", SECRETO);
+        ReflectionTestUtils.setField(util, "jwtExpiration", expiracionMs);
+        ReflectionTestUtils.setField(util, "cacheSize", tamanoCache);
+        ReflectionTestUtils.invokeMethod(util, "init");
+        return util;
+    }
+}
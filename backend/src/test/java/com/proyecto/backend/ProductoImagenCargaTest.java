@@ -0,0 +1,141 @@
+package com.proyecto.backend;
+
+import com.proyecto.backend.dto.ProductoCreateDTO;
+import com.proyecto.backend.dto.ProductoDTO;
+import com.proyecto.backend.dto.UsuarioCreateDTO;
+import com.proyecto.backend.dto.UsuarioDTO;
+import com.proyecto.backend.service.ProductoService;
+import com.proyecto.backend.service.UsuarioService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Blob;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Comprueba que listar productos no lee los bytes de las imágenes.
+ * Envuelve el DataSource para contar los bytes que devuelve el driver JDBC.
+ */
+@SpringBootTest
+@Transactional
+@Import(ProductoImagenCargaTest.ContadorBytesConfig.class)
+public class ProductoImagenCargaTest {
+
+    private static final int TAMANO_IMAGEN = 512 * 1024;
+
+    private static final AtomicLong bytesLeidos = new AtomicLong();
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void testListadoDeProductosNoLeeImagenes() {
+        UsuarioCreateDTO usuarioDTO = new UsuarioCreateDTO();
+        usuarioDTO.setUsername("imgtest_" + System.currentTimeMillis());
+        usuarioDTO.setEmail("imgtest_" + System.currentTimeMillis() + "@test.com");
+        usuarioDTO.setPassword("password123");
+        usuarioDTO.setRole("USER");
+        UsuarioDTO usuario = usuarioService.crear(usuarioDTO);
+
+        byte[] imagen = new byte[TAMANO_IMAGEN];
+        new Random(42).nextBytes(imagen);
+
+        ProductoCreateDTO productoDTO = new ProductoCreateDTO();
+        productoDTO.setNombre("Producto con imagen");
+        productoDTO.setMarca("Test");
+        productoDTO.setUsuarioId(usuario.getId());
+        productoDTO.setImagenBase64(Base64.getEncoder().encodeToString(imagen));
+        productoService.crear(productoDTO);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        bytesLeidos.set(0);
+        List<ProductoDTO> productos = productoService.obtenerPorUsuario(usuario.getId(), null, null).getItems();
+        long leidos = bytesLeidos.get();
+
+        assertEquals(1, productos.size());
+        assertNotNull(productos.get(0).getImagenUrl());
+        assertTrue(leidos < TAMANO_IMAGEN,
+                "El listado leyó " + leidos + " bytes de JDBC; no debería incluir la imagen de " + TAMANO_IMAGEN);
+
+        System.out.println("✓ Bytes leídos de JDBC al listar productos: " + leidos);
+    }
+
+    @TestConfiguration
+    static class ContadorBytesConfig {
+
+        @Bean
+        static BeanPostProcessor contadorBytesDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource) {
+                        return envolver(bean, DataSource.class);
+                    }
+                    return bean;
+                }
+            };
+        }
+
+        /**
+         * Crea un proxy que envuelve conexiones, sentencias y resultados,
+         * sumando el tamaño de los valores binarios y de texto leídos
+         */
+        private static Object envolver(Object objetivo, Class<?> interfaz) {
+            return Proxy.newProxyInstance(
+                    ContadorBytesConfig.class.getClassLoader(),
+                    new Class<?>[]{interfaz},
+                    (proxy, metodo, args) -> {
+                        Object resultado;
+                        try {
+                            resultado = metodo.invoke(objetivo, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+
+                        if (resultado instanceof byte[] bytes) {
+                            bytesLeidos.addAndGet(bytes.length);
+                        } else if (resultado instanceof Blob blob) {
+                            bytesLeidos.addAndGet(blob.length());
+                        } else if (resultado instanceof String texto && interfaz == ResultSet.class) {
+                            bytesLeidos.addAndGet(texto.length());
+                        }
+
+                        Class<?> tipo = metodo.getReturnType();
+                        if (resultado != null && (tipo == Connection.class || tipo == Statement.class
+                                || tipo == PreparedStatement.class || tipo == CallableStatement.class
+                                || tipo == ResultSet.class)) {
+                            return envolver(resultado, tipo);
+                        }
+                        return resultado;
+                    });
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.proyecto.backend;
+
+import com.proyecto.backend.dto.RankingUsuarioDTO;
+import com.proyecto.backend.exception.ResourceNotFoundException;
+import com.proyecto.backend.exception.ValidationException;
+import com.proyecto.backend.model.Usuario;
+import com.proyecto.backend.service.RankingService;
+import com.proyecto.backend.service.SolucionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Comprueba que el ranking en memoria sigue a las escrituras y coincide con la base de datos.
+ */
+@SpringBootTest
+public class RankingUsuariosTest {
+
+    @Autowired
+    private DatosPrueba datos;
+
+    @Autowired
+    private SolucionService solucionService;
+
+    @Autowired
+    private RankingService rankingService;
+
+    private Long autorId;
+    private Long votanteId;
+
+    @BeforeEach
+    void setUp() {
+        autorId = crearUsuario("ranking_autor_");
+        votanteId = crearUsuario("ranking_votante_");
+    }
+
+    @AfterEach
+    void tearDown() {
+        datos.eliminarUsuario(votanteId);
+        datos.eliminarUsuario(autorId);
+    }
+
+    @Test
+    void testRankingIncrementalCoincideConReconstruccion() {
+        RankingUsuarioDTO inicial = rankingService.obtenerTotales(autorId);
+        assertEquals(0L, inicial.getSoluciones());
+        assertEquals(0L, inicial.getVotos());
+
+        Long incidenciaId = datos.crearIncidencia(votanteId, null,
+                "Incidencia ranking", "Incidencia para probar el ranking").getId();
+        Long solucionId = datos.crearSolucion(autorId, incidenciaId, "Solución para el ranking");
+
+        solucionService.agregarVoto(solucionId, votanteId);
+        solucionService.agregarVoto(solucionId, autorId);
+        // Un segundo voto del mismo usuario no cuenta
+        solucionService.agregarVoto(solucionId, votanteId);
+
+        RankingUsuarioDTO autor = rankingService.obtenerTotales(autorId);
+        assertEquals(1L, autor.getSoluciones());
+        assertEquals(2L, autor.getVotos());
+        assertEquals(1L, rankingService.obtenerTotales(votanteId).getIncidencias());
+
+        List<RankingUsuarioDTO> porVotos = rankingService.obtenerRanking("votos", 100);
+        assertTrue(porVotos.stream().anyMatch(u -> u.getUsuarioId().equals(autorId)));
+        for (int i = 1; i < porVotos.size(); i++) {
+            assertTrue(porVotos.get(i - 1).getVotos() >= porVotos.get(i).getVotos());
+        }
+
+        // La reconstrucción desde la base de datos da los mismos totales, también con votos sin volcar
+        rankingService.reconstruir();
+        assertEquals(autor, rankingService.obtenerTotales(autorId));
+
+        // Al eliminar la solución se descuentan sus votos
+        solucionService.eliminar(solucionId);
+        RankingUsuarioDTO sinSolucion = rankingService.obtenerTotales(autorId);
+        assertEquals(0L, sinSolucion.getSoluciones());
+        assertEquals(0L, sinSolucion.getVotos());
+    }
+
+    @Test
+    void testEventoConfirmadoAntesDeLaReconstruccionNoSeCuentaDosVeces() throws Exception {
+        Long incidenciaId = datos.crearIncidencia(votanteId, null,
+                "Incidencia ranking", "Incidencia para probar el ranking").getId();
+
+        // Con el monitor del ranking tomado, el evento se confirma y se numera pero espera para
+        // aplicarse; la reconstrucción ya ve la solución en la base de datos
+        Thread creacion = new Thread(() -> datos.crearSolucion(autorId, incidenciaId, "Solución para el ranking"));
+        synchronized (rankingService) {
+            creacion.start();
+            esperarBloqueado(creacion);
+            rankingService.reconstruir();
+            assertEquals(1L, rankingService.obtenerTotales(autorId).getSoluciones());
+        }
+        creacion.join(10_000);
+        assertFalse(creacion.isAlive());
+        // El evento llega después y se descarta
+        assertEquals(1L, rankingService.obtenerTotales(autorId).getSoluciones());
+    }
+
+    @Test
+    void testVotoConfirmadoAntesDeLaReconstruccionNoSeCuentaDosVeces() throws Exception {
+        Long incidenciaId = datos.crearIncidencia(votanteId, null,
+                "Incidencia ranking", "Incidencia para probar el ranking").getId();
+        Long solucionId = datos.crearSolucion(autorId, incidenciaId, "Solución para el ranking");
+
+        // El voto está en el acumulador sin volcar: la reconstrucción lo suma a lo que lee
+        Thread voto = new Thread(() -> solucionService.agregarVoto(solucionId, votanteId));
+        synchronized (rankingService) {
+            voto.start();
+            esperarBloqueado(voto);
+            rankingService.reconstruir();
+            assertEquals(1L, rankingService.obtenerTotales(autorId).getVotos());
+        }
+        voto.join(10_000);
+        assertFalse(voto.isAlive());
+        assertEquals(1L, rankingService.obtenerTotales(autorId).getVotos());
+
+        // Un voto confirmado después de la reconstrucción sí se aplica
+        solucionService.agregarVoto(solucionId, autorId);
+        assertEquals(2L, rankingService.obtenerTotales(autorId).getVotos());
+    }
+
+    @Test
+    void testUsuarioEliminadoSaleDelRanking() {
+        Long temporalId = crearUsuario("ranking_temporal_");
+        assertNotNull(rankingService.obtenerTotales(temporalId));
+
+        datos.eliminarUsuario(temporalId);
+        assertThrows(ResourceNotFoundException.class, () -> rankingService.obtenerTotales(temporalId));
+    }
+
+    @Test
+    void testParametrosInvalidos() {
+        assertThrows(ValidationException.class, () -> rankingService.obtenerRanking("likes", 10));
+        assertThrows(ValidationException.class, () -> rankingService.obtenerRanking("votos", 0));
+        assertThrows(ValidationException.class, () -> rankingService.obtenerRanking("votos", 101));
+    }
+
+    // Espera a que el hilo quede esperando el monitor del ranking
+    private static void esperarBloqueado(Thread hilo) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (hilo.getState() != Thread.State.BLOCKED) {
+            assertTrue(hilo.isAlive() && System.nanoTime() < limite, "El hilo no llegó a aplicar su evento");
+            Thread.sleep(5);
+        }
+    }
+
+    private Long crearUsuario(String prefijo) {
+        return datos.crearUsuario(DatosPrueba.unico(prefijo), Usuario.Role.USER).id();
+    }
+}
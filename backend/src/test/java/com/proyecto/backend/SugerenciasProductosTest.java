@@ -0,0 +1,113 @@
+package com.proyecto.backend;
+
+import com.proyecto.backend.dto.*;
+import com.proyecto.backend.exception.ValidationException;
+import com.proyecto.backend.model.Usuario;
+import com.proyecto.backend.security.UsuarioPrincipal;
+import com.proyecto.backend.service.ProductoService;
+import com.proyecto.backend.service.SugerenciasProductosService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Comprueba el autocompletado de productos y que sigue a las escrituras.
+ */
+@SpringBootTest
+public class SugerenciasProductosTest {
+
+    @Autowired
+    private DatosPrueba datos;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private SugerenciasProductosService sugerenciasService;
+
+    private UsuarioPrincipal admin;
+    private final List<Long> productoIds = new ArrayList<>();
+
+    // Palabra que solo aparece en los productos de esta prueba
+    private String marca;
+
+    @BeforeEach
+    void setUp() {
+        admin = datos.crearUsuario(DatosPrueba.unico("sugerencias_"), Usuario.Role.ADMIN);
+        marca = DatosPrueba.unico("zq");
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Los productos no se borran con su usuario
+        for (Long id : productoIds) {
+            datos.eliminarProducto(id, admin);
+        }
+        datos.eliminarUsuario(admin.id());
+    }
+
+    @Test
+    void testSugerenciasPorPrefijoOrdenadas() {
+        crearProducto("Televisor " + marca + " OLED", marca + "Tech", "X1");
+        Long lavadora = crearProducto("Lavadora " + marca, marca + "Tech", "Serie " + marca + " 5");
+        crearProducto("Cámara " + marca, "Otra", null);
+
+        List<SugerenciaProductoDTO> sugerencias = sugerenciasService.sugerir(marca.toUpperCase(), 10);
+        assertEquals(5, sugerencias.size());
+        // Primero el valor que empieza por el prefijo, con sus dos productos
+        assertEquals(marca + "Tech", sugerencias.get(0).getTexto());
+        assertEquals("MARCA", sugerencias.get(0).getTipo());
+        assertEquals(2L, sugerencias.get(0).getProductos());
+
+        // Sin tildes ni mayúsculas, y por cualquier palabra
+        List<SugerenciaProductoDTO> camara = sugerenciasService.sugerir("camara " + marca.substring(0, 4), 10);
+        assertEquals(1, camara.size());
+        assertEquals("Cámara " + marca, camara.get(0).getTexto());
+        assertEquals("NOMBRE", camara.get(0).getTipo());
+
+        assertEquals(2, sugerenciasService.sugerir(marca, 2).size());
+        assertThrows(ValidationException.class, () -> sugerenciasService.sugerir(" ", 10));
+
+        // Búsqueda de texto: palabras completas, con el ID del producto
+        List<ProductoBusquedaDTO> encontrados = sugerenciasService.buscar("lavadoras " + marca, 10);
+        assertEquals(3, encontrados.size());
+        assertEquals(lavadora, encontrados.get(0).getId());
+        assertEquals(marca + "Tech", encontrados.get(0).getMarca());
+        assertThrows(ValidationException.class, () -> sugerenciasService.buscar(" ", 10));
+    }
+
+    @Test
+    void testIndiceYMarcasSiguenAEscrituras() {
+        Long id = crearProducto("Microondas " + marca, marca + "Hogar", null);
+        assertTrue(sugerenciasService.obtenerMarcas().contains(marca + "Hogar"));
+
+        ProductoUpdateDTO updateDTO = new ProductoUpdateDTO();
+        updateDTO.setMarca(marca + "Cocina");
+        productoService.actualizar(id, updateDTO);
+        assertFalse(sugerenciasService.obtenerMarcas().contains(marca + "Hogar"));
+        assertTrue(sugerenciasService.obtenerMarcas().contains(marca + "Cocina"));
+        assertTrue(sugerenciasService.sugerir(marca + "h", 10).isEmpty());
+        assertEquals(1, sugerenciasService.sugerir(marca + "c", 10).size());
+
+        sugerenciasService.reconstruir();
+        assertEquals(2, sugerenciasService.sugerir(marca, 10).size());
+
+        datos.eliminarProducto(id, admin);
+        productoIds.remove(id);
+        assertTrue(sugerenciasService.sugerir(marca, 10).isEmpty());
+        assertFalse(sugerenciasService.obtenerMarcas().contains(marca + "Cocina"));
+    }
+
+    private Long crearProducto(String nombre, String marcaProducto, String modelo) {
+        Long id = datos.crearProducto(admin.id(), nombre, marcaProducto, modelo);
+        productoIds.add(id);
+        return id;
+    }
+}
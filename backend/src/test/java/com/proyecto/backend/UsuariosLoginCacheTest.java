@@ -0,0 +1,96 @@
+package com.proyecto.backend;
+
+import com.proyecto.backend.dto.UsuarioUpdateDTO;
+import com.proyecto.backend.model.Usuario;
+import com.proyecto.backend.service.CustomUserDetailsService;
+import com.proyecto.backend.service.UsuarioService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Comprueba la carga de usuarios para el inicio de sesión y que su caché sigue a las modificaciones.
+ */
+@SpringBootTest
+public class UsuariosLoginCacheTest {
+
+    @Autowired
+    private DatosPrueba datos;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private Long usuarioId;
+    private String username;
+    private String email;
+
+    @BeforeEach
+    void setUp() {
+        username = DatosPrueba.unico("login_");
+        email = username + "@test.com";
+        usuarioId = datos.crearUsuario(username, Usuario.Role.USER).id();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (usuarioId != null) {
+            datos.eliminarUsuario(usuarioId);
+        }
+    }
+
+    @Test
+    void testCargaPorUsernameOEmailYLoginRepetido() {
+        assertEquals(username, userDetailsService.loadUserByUsername(username).getUsername());
+        UserDetails porEmail = userDetailsService.loadUserByUsername(email);
+        assertEquals(username, porEmail.getUsername());
+        assertTrue(porEmail.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_USER")));
+
+        // El AuthenticationManager borra la contraseña del usuario autenticado: la caché no debe compartirlo
+        for (int i = 0; i < 2; i++) {
+            assertEquals(username, authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(email, "password123")).getName());
+        }
+        assertThrows(UsernameNotFoundException.class,
+                () -> userDetailsService.loadUserByUsername("no_existe_" + System.nanoTime()));
+    }
+
+    @Test
+    void testModificarYEliminarInvalidanLaCache() {
+        assertTrue(passwordEncoder.matches("password123", userDetailsService.loadUserByUsername(email).getPassword()));
+
+        UsuarioUpdateDTO updateDTO = new UsuarioUpdateDTO();
+        updateDTO.setPassword("nuevaPassword456");
+        updateDTO.setRole("ADMIN");
+        usuarioService.actualizar(usuarioId, updateDTO);
+
+        UserDetails actualizado = userDetailsService.loadUserByUsername(email);
+        assertTrue(passwordEncoder.matches("nuevaPassword456", actualizado.getPassword()));
+        assertTrue(actualizado.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN")));
+        assertThrows(BadCredentialsException.class, () -> authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(username, "password123")));
+
+        datos.eliminarUsuario(usuarioId);
+        usuarioId = null;
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername(username));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername(email));
+    }
+}
@@ -0,0 +1,161 @@
+package com.proyecto.backend;
+
+import com.proyecto.backend.dto.SolucionDTO;
+import com.proyecto.backend.dto.SolucionUpdateDTO;
+import com.proyecto.backend.model.Usuario;
+import com.proyecto.backend.service.AcumuladorVotosService;
+import com.proyecto.backend.service.RankingService;
+import com.proyecto.backend.service.SolucionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Comprueba que no se pierden votos con muchos hilos votando la misma solución
+ * mientras los votos se vuelcan a la base de datos.
+ */
+@SpringBootTest
+public class VotosConcurrenciaTest {
+
+    private static final int HILOS = 16;
+    private static final int VOTOS_POR_HILO = 20_000;
+
+    @Autowired
+    private DatosPrueba datos;
+
+    @Autowired
+    private SolucionService solucionService;
+
+    @Autowired
+    private AcumuladorVotosService acumuladorVotos;
+
+    @Autowired
+    private RankingService rankingService;
+
+    private Long usuarioId;
+    private Long solucionId;
+
+    @BeforeEach
+    void setUp() {
+        usuarioId = datos.crearUsuario(DatosPrueba.unico("votos_"), Usuario.Role.USER).id();
+        Long incidenciaId = datos.crearIncidencia(usuarioId, null,
+                "Incidencia votos", "Incidencia para probar votos concurrentes").getId();
+        solucionId = datos.crearSolucion(usuarioId, incidenciaId, "Solución muy votada");
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Las incidencias y soluciones del usuario se borran en cascada
+        datos.eliminarUsuario(usuarioId);
+    }
+
+    @Test
+    void testUnVotoPorUsuario() {
+        SolucionDTO primero = solucionService.agregarVoto(solucionId, usuarioId);
+        assertEquals(1, primero.getVotos());
+        assertTrue(primero.getVotado());
+
+        // El segundo voto del mismo usuario no cuenta
+        SolucionDTO segundo = solucionService.agregarVoto(solucionId, usuarioId);
+        assertEquals(1, segundo.getVotos());
+        assertTrue(segundo.getVotado());
+
+        acumuladorVotos.volcar();
+        assertEquals(1, solucionService.obtenerPorId(solucionId).getVotos());
+        assertNull(solucionService.obtenerPorId(solucionId).getVotado());
+    }
+
+    @Test
+    void testFijarVotosSustituyeLosPendientes() {
+        Long votanteA = datos.crearUsuario(DatosPrueba.unico("votos_a_"), Usuario.Role.USER).id();
+        Long votanteB = datos.crearUsuario(DatosPrueba.unico("votos_b_"), Usuario.Role.USER).id();
+        try {
+            solucionService.agregarVoto(solucionId, votanteA);
+            acumuladorVotos.volcar();
+            solucionService.agregarVoto(solucionId, votanteB);
+            assertEquals(1, acumuladorVotos.pendientes(solucionId));
+
+            SolucionUpdateDTO updateDTO = new SolucionUpdateDTO();
+            updateDTO.setVotos(10);
+            assertEquals(10, solucionService.actualizar(solucionId, updateDTO).getVotos());
+            assertEquals(0, acumuladorVotos.pendientes(solucionId));
+
+            // El volcado siguiente no suma el voto descartado
+            acumuladorVotos.volcar();
+            assertEquals(10, solucionService.obtenerPorId(solucionId).getVotos());
+            assertEquals(10L, rankingService.obtenerTotales(usuarioId).getVotos());
+            rankingService.reconstruir();
+            assertEquals(10L, rankingService.obtenerTotales(usuarioId).getVotos());
+
+            // Los votos posteriores se suman al valor fijado
+            solucionService.agregarVoto(solucionId, usuarioId);
+            acumuladorVotos.volcar();
+            assertEquals(11, solucionService.obtenerPorId(solucionId).getVotos());
+            assertEquals(11L, rankingService.obtenerTotales(usuarioId).getVotos());
+        } finally {
+            datos.eliminarUsuario(votanteA);
+            datos.eliminarUsuario(votanteB);
+        }
+    }
+
+    @Test
+    void testNoSePierdenVotosConAltaConcurrencia() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS + 1);
+        CountDownLatch salida = new CountDownLatch(1);
+        AtomicBoolean votando = new AtomicBoolean(true);
+
+        // Volcados continuos mientras se vota, para cruzarse con los incrementos
+        Future<?> volcados = executor.submit(() -> {
+            while (votando.get()) {
+                acumuladorVotos.volcar();
+            }
+        });
+
+        long inicio = System.nanoTime();
+        List<Future<?>> votantes = new ArrayList<>();
+        for (int h = 0; h < HILOS; h++) {
+            votantes.add(executor.submit(() -> {
+                salida.await();
+                for (int v = 0; v < VOTOS_POR_HILO; v++) {
+                    acumuladorVotos.registrar(solucionId);
+                }
+                return null;
+            }));
+        }
+        salida.countDown();
+        for (Future<?> votante : votantes) {
+            votante.get(60, TimeUnit.SECONDS);
+        }
+        long nanos = System.nanoTime() - inicio;
+        votando.set(false);
+        volcados.get(60, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // Con votos aún pendientes, la lectura ya los incluye
+        int esperados = HILOS * VOTOS_POR_HILO;
+        assertEquals(esperados, solucionService.obtenerPorId(solucionId).getVotos());
+
+        acumuladorVotos.volcar();
+        assertEquals(0, acumuladorVotos.pendientes(solucionId));
+        assertEquals(esperados, solucionService.obtenerPorId(solucionId).getVotos());
+
+        // El voto por la API también se cuenta
+        assertEquals(esperados + 1, solucionService.agregarVoto(solucionId, usuarioId).getVotos());
+
+        System.out.printf("✓ %d votos en %d ms (%.1f millones/s) sin pérdidas%n",
+                esperados, nanos / 1_000_000, esperados * 1000.0 / nanos);
+    }
+}
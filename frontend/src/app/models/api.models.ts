@@ -162,7 +162,10 @@ export interface Product {
   nombre: string;
   marca: string;
   modelo?: string;
-  imagenBase64?: string;
+  /** Ruta relativa de la imagen (GET /api/productos/{id}/imagen) */
+  imagenUrl?: string;
+  /** SHA-256 de la imagen */
+  imagenHash?: string;
   peso?: number;
   ancho?: number;
   largo?: number;
@@ -44,7 +44,7 @@ export class ProductService extends BaseHttpService {
       nombre: 'Lavadora Samsung',
       marca: 'Samsung',
       modelo: 'WW90T534DTW',
-      imagenBase64: undefined,
+      imagenUrl: undefined,
       peso: 65,
       ancho: 60,
       largo: 55,
@@ -59,7 +59,7 @@ export class ProductService extends BaseHttpService {
       nombre: 'Refrigerador LG',
       marca: 'LG',
       modelo: 'GBB72PZVCN1',
-      imagenBase64: undefined,
+      imagenUrl: undefined,
       peso: 70,
       ancho: 59.5,
       largo: 68,
@@ -74,7 +74,7 @@ export class ProductService extends BaseHttpService {
       nombre: 'Horno Bosch',
       marca: 'Bosch',
       modelo: 'HBA5740S0',
-      imagenBase64: undefined,
+      imagenUrl: undefined,
       peso: 35,
       ancho: 59.4,
       largo: 54.8,
@@ -89,7 +89,7 @@ export class ProductService extends BaseHttpService {
       nombre: 'Aire Acondicionado Daikin',
       marca: 'Daikin',
       modelo: 'TXF35C',
-      imagenBase64: undefined,
+      imagenUrl: undefined,
       peso: 28,
       ancho: 77,
       largo: 22.5,
@@ -104,7 +104,7 @@ export class ProductService extends BaseHttpService {
       nombre: 'Microondas Panasonic',
       marca: 'Panasonic',
       modelo: 'NN-GD38HSSUG',
-      imagenBase64: undefined,
+      imagenUrl: undefined,
       peso: 11,
       ancho: 52.5,
       largo: 40,
@@ -4,6 +4,7 @@ import { ActivatedRoute, Router, Params, Data } from '@angular/router';
 import { NavigationService } from '../../app/services/navigation.service';
 import { ProductService, AssetsService } from '../../app/services';
 import { Product, Incidence } from '../../app/models';
+import { environment } from '../../environments/environment';
 
 /**
  * Componente de detalle de producto
@@ -153,6 +154,13 @@ export class ProductComponent implements OnInit {
     return item.id;
   }
 
+  /**
+   * Convierte la ruta de imagen del backend (/api/...) en URL absoluta
+   */
+  private resolveImageUrl(imagenUrl: string): string {
+    return environment.apiUrl.replace(/\/api$/, '') + imagenUrl;
+  }
+
   /**
    * Mapea el producto del resolver al formato local
    */
@@ -165,7 +173,7 @@ export class ProductComponent implements OnInit {
       model: resolved.modelo,
       rating: 4.5,
       reviews: 28,
-      image: resolved.imagenBase64 || defaultImage,
+      image: resolved.imagenUrl ? this.resolveImageUrl(resolved.imagenUrl) : defaultImage,
       description: `${resolved.nombre} - Únete a la comunidad para reportar problemas y ayudar a otros usuarios con sus incidencias.`,
       specifications: {
         weight: resolved.peso ? `${resolved.peso} kg` : 'N/A',